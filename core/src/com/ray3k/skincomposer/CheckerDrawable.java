@@ -23,19 +23,32 @@
  ******************************************************************************/
 package com.ray3k.skincomposer;
 
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.Texture.TextureWrap;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.scenes.scene2d.utils.BaseDrawable;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.utils.LongMap;
 
 /**
  * Draws a checkerboard pattern with the provided drawables, tinted with the
  * provided colors. Ensure that the widget using this drawable is set to clip.
+ * When created with two colors instead of drawables, the whole pattern is drawn
+ * as a single quad with a repeating 2x2 texture, so the cost does not depend on
+ * the size of the area.
  * 
  * @author Raymond
  */
 public class CheckerDrawable extends BaseDrawable {
+    private static final LongMap<Texture> textures = new LongMap<>();
     private Drawable drawable1;
     private Drawable drawable2;
+    private Color color1;
+    private Color color2;
+    private Texture texture;
     private float w;
     private float h;
     private float cellWidth;
@@ -56,6 +69,21 @@ public class CheckerDrawable extends BaseDrawable {
         this.cellHeight = cellHeight;
         calcDimensions();
     }
+    
+    /**
+     * Creates a checkerboard of two solid colors that is drawn as a single quad.
+     * @param color1 The color of the bottom left cell.
+     * @param color2
+     * @param cellWidth
+     * @param cellHeight 
+     */
+    public CheckerDrawable(Color color1, Color color2, float cellWidth, float cellHeight) {
+        this.color1 = new Color(color1);
+        this.color2 = new Color(color2);
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        calcDimensions();
+    }
 
     public Drawable getDrawable1() {
         return drawable1;
@@ -94,14 +122,52 @@ public class CheckerDrawable extends BaseDrawable {
     }
     
     private void calcDimensions() {
+        if (drawable1 == null || drawable2 == null) {
+            w = cellWidth;
+            h = cellHeight;
+            return;
+        }
+        
         w = Math.max(drawable1.getMinWidth(), drawable2.getMinWidth());
         w = Math.max(w, cellWidth);
         h = Math.max(drawable1.getMinHeight(), drawable2.getMinHeight());
         h = Math.max(h, cellHeight);
     }
+    
+    /**
+     * Returns the repeating 2x2 texture for the colors. Textures are shared by every CheckerDrawable with the same
+     * colors.
+     * @return
+     */
+    private Texture getTexture() {
+        if (texture == null) {
+            long key = (long) Color.rgba8888(color1) << 32 | Color.rgba8888(color2) & 0xFFFFFFFFL;
+            texture = textures.get(key);
+            if (texture == null) {
+                var pixmap = new Pixmap(2, 2, Pixmap.Format.RGBA8888);
+                pixmap.setBlending(Pixmap.Blending.None);
+                pixmap.drawPixel(0, 0, Color.rgba8888(color1));
+                pixmap.drawPixel(1, 1, Color.rgba8888(color1));
+                pixmap.drawPixel(1, 0, Color.rgba8888(color2));
+                pixmap.drawPixel(0, 1, Color.rgba8888(color2));
+                texture = new Texture(pixmap);
+                pixmap.dispose();
+                texture.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
+                texture.setWrap(TextureWrap.Repeat, TextureWrap.Repeat);
+                textures.put(key, texture);
+            }
+        }
+        return texture;
+    }
 
     @Override
     public void draw(Batch batch, float x, float y, float width, float height) {
+        if (color1 != null) {
+            //each texel is one cell, and the first row of the texture is at the bottom of the quad
+            batch.draw(getTexture(), x, y, width, height, 0, 0, width / w / 2f, height / h / 2f);
+            return;
+        }
+        
         boolean changeY = false;
         for (float y1 = y; y1 < y + height; y1 += h) {
             boolean changeX = changeY;
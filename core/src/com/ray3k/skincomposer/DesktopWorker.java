@@ -33,7 +33,7 @@ import java.io.File;
 import java.util.List;
 
 public interface DesktopWorker {
-    void texturePack(Array<FileHandle> handles, FileHandle localFile, FileHandle targetFile, FileHandle settingsFile);
+    void texturePack(Array<FileHandle> handles, FileHandle localFile, FileHandle targetFile, FileHandle settingsFile, int threads);
     void packFontImages(Array<FileHandle> files, FileHandle saveFile);
     void sizeWindowToFit(int maxWidth, int maxHeight, int displayBorder, Graphics graphics);
     void centerWindow(Graphics graphics);
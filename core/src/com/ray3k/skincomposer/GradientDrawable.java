@@ -23,15 +23,15 @@
  ******************************************************************************/
 package com.ray3k.skincomposer;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.utils.BaseDrawable;
 
 /**
- * Drawable that renders a gradient defined by four corner colors.
+ * Drawable that renders a gradient defined by four corner colors. The gradient is drawn as a single quad with
+ * per-vertex colors using the skin's white region, so it is batched with the rest of the UI instead of flushing the
+ * batch.
  * 
  * MIT License
 
@@ -58,7 +58,8 @@ SOFTWARE.
  * @author Raymond Buckley
  */
 public class GradientDrawable extends BaseDrawable {
-    private static ShapeRenderer g;
+    private static TextureRegion white;
+    private static final float[] vertices = new float[20];
     private Color col1, col2, col3, col4;
     private float borderLeft, borderTop, borderRight, borderBottom;
 
@@ -70,8 +71,6 @@ public class GradientDrawable extends BaseDrawable {
      * @param col4 top left color
      */
     public GradientDrawable(Color col1, Color col2, Color col3, Color col4) {
-        if (g == null) g = new ShapeRenderer();
-        
         this.col1 = new Color();
         this.col2 = new Color();
         this.col3 = new Color();
@@ -160,26 +159,30 @@ public class GradientDrawable extends BaseDrawable {
     
     @Override
     public void draw(Batch batch, float x, float y, float width, float height) {
-        float[] alphas = {col1.a, col2.a, col3.a, col4.a};
-        col1.a = batch.getColor().a * col1.a;
-        col2.a = batch.getColor().a * col2.a;
-        col3.a = batch.getColor().a * col3.a;
-        col4.a = batch.getColor().a * col4.a;
+        if (white == null) white = Main.skin.getRegion("white");
         
-        g.begin(ShapeRenderer.ShapeType.Filled);
-        g.setProjectionMatrix(batch.getProjectionMatrix());
-        g.setTransformMatrix(batch.getTransformMatrix());
-        batch.end();
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-        g.rect(x + borderLeft, y + borderBottom, width - borderLeft - borderRight, height - borderBottom - borderTop, col1, col2, col3, col4);
-        g.end();
-        Gdx.gl.glDisable(GL20.GL_BLEND);
-        batch.begin();
+        //sample the middle of the region so neighboring pixels in the atlas never bleed in
+        float u = (white.getU() + white.getU2()) / 2f;
+        float v = (white.getV() + white.getV2()) / 2f;
+        float alpha = batch.getColor().a;
+        float x1 = x + borderLeft;
+        float y1 = y + borderBottom;
+        float x2 = x + width - borderRight;
+        float y2 = y + height - borderTop;
         
-        col1.a = alphas[0];
-        col2.a = alphas[1];
-        col3.a = alphas[2];
-        col4.a = alphas[3];
+        setVertex(0, x1, y1, col1, alpha, u, v);
+        setVertex(1, x1, y2, col4, alpha, u, v);
+        setVertex(2, x2, y2, col3, alpha, u, v);
+        setVertex(3, x2, y1, col2, alpha, u, v);
+        batch.draw(white.getTexture(), vertices, 0, vertices.length);
+    }
+    
+    private static void setVertex(int index, float x, float y, Color color, float alpha, float u, float v) {
+        int offset = index * 5;
+        vertices[offset] = x;
+        vertices[offset + 1] = y;
+        vertices[offset + 2] = Color.toFloatBits(color.r, color.g, color.b, color.a * alpha);
+        vertices[offset + 3] = u;
+        vertices[offset + 4] = v;
     }
 }
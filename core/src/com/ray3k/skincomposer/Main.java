@@ -30,6 +30,7 @@ import com.badlogic.gdx.Net.HttpMethods;
 import com.badlogic.gdx.Net.HttpRequest;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.net.HttpRequestBuilder;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
@@ -56,6 +57,7 @@ import com.ray3k.skincomposer.data.JsonData;
 import com.ray3k.skincomposer.data.ProjectData;
 import com.ray3k.skincomposer.dialog.DialogFactory;
 import com.ray3k.skincomposer.dialog.DialogListener;
+import com.ray3k.skincomposer.utils.ImageMetadataCache;
 import com.ray3k.skincomposer.utils.Utils;
 import com.ray3k.stripe.FreeTypeSkin;
 import com.ray3k.stripe.ScrollFocusListener;
@@ -100,6 +102,12 @@ public class Main extends ApplicationAdapter {
     public static ResizeArrowListener horizontalResizeArrowListener;
     public static TooltipManager tooltipManager;
     public static FileHandle appFolder;
+    private static final float MAX_DELTA = 1 / 30f;
+    /**
+     * The number of draw calls the stage's batch issued in the last frame. Logged at the debug log level when it
+     * changes.
+     */
+    public static int renderCalls;
     private String[] args;
     public static Main main;
     
@@ -113,11 +121,15 @@ public class Main extends ApplicationAdapter {
         appFolder = Gdx.files.external(".skincomposer/");
         
         skin = new FreeTypeSkin(Gdx.files.internal("skin-composer-ui/skin-composer-ui.json"));
+        TenPatchAnimator.addSkinDrawables(skin, Gdx.files.internal("skin-composer-ui/skin-composer-ui.json"));
         viewport = new ScreenViewport();
 //        viewport.setUnitsPerPixel(.5f);
         stage = new Stage(viewport);
         Gdx.input.setInputProcessor(stage);
         
+        //frames are rendered on input, actions, posted runnables, and visible animations
+        Gdx.graphics.setContinuousRendering(false);
+        
         shapeDrawer = new ShapeDrawer(stage.getBatch(), skin.getRegion("white"));
         graphDrawer = new GraphDrawer(shapeDrawer);
         
@@ -189,6 +201,7 @@ public class Main extends ApplicationAdapter {
         undoableManager = new UndoableManager(this);
         
         desktopWorker.attachLogListener();
+        Gdx.app.setLogLevel(projectData.getLogLevel());
         desktopWorker.setCloseListener(() -> {
             dialogFactory.showCloseDialog(new DialogListener() {
                 @Override
@@ -247,13 +260,20 @@ public class Main extends ApplicationAdapter {
         Gdx.gl.glClearColor(1.0f, 1.0f, 1.0f, 1.0f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
         
-        stage.act(Gdx.graphics.getDeltaTime());
-        
-        for (var tenPatch : skin.getAll(TenPatchDrawable.class)) {
-            tenPatch.value.update(Gdx.graphics.getDeltaTime());
-        }
+        //the time since the last frame includes any time spent idle, so it is limited to keep new animations smooth
+        float delta = Math.min(Gdx.graphics.getDeltaTime(), MAX_DELTA);
+        stage.act(delta);
+        TenPatchAnimator.update(stage, delta);
         
         stage.draw();
+        
+        if (stage.getBatch() instanceof SpriteBatch) {
+            int calls = ((SpriteBatch) stage.getBatch()).renderCalls;
+            if (calls != renderCalls) {
+                renderCalls = calls;
+                Gdx.app.debug(Main.class.getName(), "Render calls: " + renderCalls);
+            }
+        }
     }
 
     @Override
@@ -266,6 +286,10 @@ public class Main extends ApplicationAdapter {
 
     @Override
     public void dispose() {
+        ImageMetadataCache.save();
+        if (Gdx.app.getApplicationLogger() instanceof TextFileApplicationLogger) {
+            ((TextFileApplicationLogger) Gdx.app.getApplicationLogger()).flush();
+        }
         stage.dispose();
         skin.dispose();
     }
@@ -653,20 +653,10 @@ public class MainListener extends RootTableListener {
     }
     
     public void refreshTextureAtlas() {
-        dialogFactory.showDialogLoading(() -> {
-            Gdx.app.postRunnable(() -> {
-                try {
-                    FileHandle defaultsFile = Main.appFolder.child("texturepacker/atlas-internal-settings.json");
-                    projectData.getAtlasData().writeAtlas(defaultsFile);
-                    projectData.getAtlasData().atlasCurrent = true;
-                    atlasData.produceAtlas();
-                    rootTable.refreshPreview();
-                } catch (Exception e) {
-                    dialogFactory.showDialogError("Error", "Unable to write texture atlas to temporary storage!", null);
-                    Gdx.app.error(getClass().getName(), "Unable to write texture atlas to temporary storage!", e);
-                    dialogFactory.showDialogError("Atlas Error...", "Unable to write texture atlas to temporary storage.\n\nOpen log?");
-                }
-            });
+        projectData.getAtlasData().invalidatePackedImages();
+        projectData.getAtlasData().atlasCurrent = false;
+        dialogFactory.showDialogAtlasBuild(success -> {
+            if (success) rootTable.refreshPreview();
         });
     }
     
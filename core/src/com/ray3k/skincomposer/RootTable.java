@@ -65,7 +65,6 @@ import com.ray3k.skincomposer.utils.Utils;
 import com.ray3k.stripe.*;
 import com.ray3k.stripe.DraggableList.DraggableListListener;
 import com.ray3k.stripe.StripeMenuBar.KeyboardShortcut;
-import com.ray3k.tenpatch.TenPatchDrawable;
 
 import java.util.Arrays;
 import java.util.Locale;
@@ -2087,15 +2086,24 @@ public class RootTable extends Table {
     }
     
     public void refreshPreview() {        
+        if (FreeTypeFontLoader.isLoading()) {
+            //the preview is refreshed again once the fonts have been created
+            if (previewTable != null) {
+                previewTable.clear();
+                previewTable.add(new Label("Loading fonts...", getSkin()));
+            }
+            return;
+        }
+        
+        //fonts are released after the new preview obtains its fonts so that unchanged fonts are not loaded again
+        var releasedFonts = new Array<>(previewFonts);
+        previewFonts.clear();
+        
         if (previewTable != null) {
             previewTable.clear();
             previewTable.setBackground("white");
             previewTable.setColor((Color) previewProperties.get("bgcolor"));
 
-            for (BitmapFont font : previewFonts) {
-                font.dispose();
-            }
-
             if (classSelectBox.getSelectedIndex() >= 0 && classSelectBox.getSelectedIndex() < Main.BASIC_CLASSES.length) {
                 StyleData styleData = getSelectedStyle();
                 Class clazz = Main.BASIC_CLASSES[classSelectBox.getSelectedIndex()];
@@ -2482,7 +2490,7 @@ public class RootTable extends Table {
                                     for (FontData fd : jsonData.getFonts()) {
                                         if (fd.getName().equals(fontName)) {
                                             fontData = fd;
-                                            font = new BitmapFont(fd.file);
+                                            font = jsonData.getPreviewFontCache().obtain(fd);
                                             previewFonts.add(font);
                                             break;
                                         }
@@ -2539,6 +2547,10 @@ public class RootTable extends Table {
                 }
             }
         }
+        
+        for (BitmapFont font : releasedFonts) {
+            jsonData.getPreviewFontCache().release(font);
+        }
     }
     
     public <T> T createPreviewStyle(Class<T> clazz, StyleData styleData) {
@@ -2561,7 +2573,7 @@ public class RootTable extends Table {
                     } else if (field.getType().equals(BitmapFont.class)) {
                         for (FontData data : projectData.getJsonData().getFonts()) {
                             if (value.equals(data.getName())) {
-                                BitmapFont font = new BitmapFont(data.file);
+                                BitmapFont font = jsonData.getPreviewFontCache().obtain(data);
                                 previewFonts.add(font);
                                 field.set(instance, font);
                             }
@@ -2925,15 +2937,4 @@ public class RootTable extends Table {
     
         public abstract void droppedScmpFile(FileHandle fileHandle);
     }
-    
-    @Override
-    public void act(float delta) {
-        super.act(delta);
-        
-        for (var drawable : atlasData.getDrawablePairs().values()) {
-            if (drawable instanceof TenPatchDrawable) {
-                ((TenPatchDrawable) drawable).update(delta);
-            }
-        }
-    }
 }
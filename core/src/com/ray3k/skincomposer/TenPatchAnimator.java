@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2021 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Container;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.Method;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+import com.ray3k.skincomposer.data.DrawableData;
+import com.ray3k.skincomposer.data.DrawableData.DrawableType;
+import com.ray3k.tenpatch.TenPatchDrawable;
+
+/**
+ * Advances the animations of TenPatchDrawables that are visible on the stage. The editor renders only when something
+ * requests it, so while an animated drawable is visible this requests the next frame. Drawables are found through the
+ * backgrounds, images, and styles of the visible actors, and only drawables known to be animated are updated.
+ * @author Raymond
+ */
+public class TenPatchAnimator {
+    private static final ObjectSet<TenPatchDrawable> skinDrawables = new ObjectSet<>();
+    private static final ObjectSet<TenPatchDrawable> projectDrawables = new ObjectSet<>();
+    private static final ObjectSet<TenPatchDrawable> visibleDrawables = new ObjectSet<>();
+    private static final ObjectMap<Class, Method> styleGetters = new ObjectMap<>();
+    private static final ObjectMap<Class, Array<Field>> styleDrawableFields = new ObjectMap<>();
+    
+    /**
+     * Registers the animated TenPatchDrawables of the skin. The skin file is read to find the drawables that have more
+     * than one frame or a scrolling offset.
+     * @param skin
+     * @param skinFile The JSON file the skin was loaded from.
+     */
+    public static void addSkinDrawables(Skin skin, FileHandle skinFile) {
+        var root = new JsonReader().parse(skinFile);
+        for (var classValue : root) {
+            if (!classValue.name.equals(TenPatchDrawable.class.getName()) && !classValue.name.equals(TenPatchDrawable.class.getSimpleName())) continue;
+            
+            for (var drawableValue : classValue) {
+                var regions = drawableValue.get("regions");
+                boolean animated = regions != null && regions.size > 1 || drawableValue.getFloat("offsetXspeed", 0) != 0 || drawableValue.getFloat("offsetYspeed", 0) != 0;
+                if (!animated) continue;
+                
+                var drawable = skin.optional(drawableValue.name, TenPatchDrawable.class);
+                if (drawable != null) skinDrawables.add(drawable);
+            }
+        }
+    }
+    
+    /**
+     * Registers the animated TenPatchDrawables created for the project, replacing the previous ones.
+     * @param drawablePairs
+     */
+    public static void setProjectDrawables(ObjectMap<DrawableData, Drawable> drawablePairs) {
+        projectDrawables.clear();
+        for (var entry : drawablePairs) {
+            var data = entry.key;
+            if (data.type != DrawableType.TENPATCH || data.tenPatchData == null || !(entry.value instanceof TenPatchDrawable)) continue;
+            
+            if (data.tenPatchData.regionNames.size > 1 || data.tenPatchData.offsetXspeed != 0 || data.tenPatchData.offsetYspeed != 0) {
+                projectDrawables.add((TenPatchDrawable) entry.value);
+            }
+        }
+    }
+    
+    /**
+     * Advances the animated drawables that are visible on the stage and requests another frame if there are any.
+     * @param stage
+     * @param delta
+     */
+    public static void update(Stage stage, float delta) {
+        visibleDrawables.clear();
+        if (skinDrawables.size == 0 && projectDrawables.size == 0) return;
+        
+        collect(stage.getRoot());
+        for (var drawable : visibleDrawables) {
+            drawable.update(delta);
+        }
+        
+        if (visibleDrawables.size > 0) Gdx.graphics.requestRendering();
+    }
+    
+    private static void collect(Actor actor) {
+        if (!actor.isVisible()) return;
+        
+        if (actor instanceof Table) {
+            check(((Table) actor).getBackground());
+        } else if (actor instanceof Container) {
+            check(((Container<?>) actor).getBackground());
+        } else if (actor instanceof Image) {
+            check(((Image) actor).getDrawable());
+        }
+        
+        var style = getStyle(actor);
+        if (style != null) {
+            for (var field : getDrawableFields(style.getClass())) {
+                try {
+                    check((Drawable) field.get(style));
+                } catch (ReflectionException e) {
+                    //fields are public, so this does not happen
+                }
+            }
+        }
+        
+        if (actor instanceof Group) {
+            var children = ((Group) actor).getChildren();
+            for (int i = 0; i < children.size; i++) {
+                collect(children.get(i));
+            }
+        }
+    }
+    
+    private static void check(Drawable drawable) {
+        if (drawable instanceof TenPatchDrawable && (skinDrawables.contains((TenPatchDrawable) drawable) || projectDrawables.contains((TenPatchDrawable) drawable))) {
+            visibleDrawables.add((TenPatchDrawable) drawable);
+        }
+    }
+    
+    /**
+     * Returns the style of actors that have a public getStyle() method.
+     * @param actor
+     * @return null if the actor has no style.
+     */
+    private static Object getStyle(Actor actor) {
+        var type = actor.getClass();
+        if (!styleGetters.containsKey(type)) {
+            Method method = null;
+            try {
+                method = ClassReflection.getMethod(type, "getStyle");
+            } catch (ReflectionException e) {
+                //the actor does not have a style
+            }
+            styleGetters.put(type, method);
+        }
+        
+        var method = styleGetters.get(type);
+        if (method == null) return null;
+        try {
+            return method.invoke(actor);
+        } catch (ReflectionException e) {
+            return null;
+        }
+    }
+    
+    private static Array<Field> getDrawableFields(Class type) {
+        var fields = styleDrawableFields.get(type);
+        if (fields == null) {
+            fields = new Array<>();
+            for (var field : ClassReflection.getFields(type)) {
+                if (ClassReflection.isAssignableFrom(Drawable.class, field.getType())) fields.add(field);
+            }
+            styleDrawableFields.put(type, fields);
+        }
+        return fields;
+    }
+}
@@ -27,26 +27,54 @@ package com.ray3k.skincomposer;
 import com.badlogic.gdx.ApplicationLogger;
 import com.badlogic.gdx.files.FileHandle;
 
-import java.io.PrintStream;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 
+/**
+ * Writes log messages to temp/log.txt on a background thread. Messages are held in a bounded buffer and written
+ * through a single open stream. When the buffer is full, the oldest messages are dropped. The log is rotated to
+ * log.1.txt once it exceeds {@link #MAX_LOG_SIZE}. Use {@link com.badlogic.gdx.Application#setLogLevel(int)} to
+ * filter messages before they reach the logger.
+ */
 public class TextFileApplicationLogger implements ApplicationLogger {
+    /**
+     * The size in bytes at which the log file is rotated.
+     */
+    public static final long MAX_LOG_SIZE = 1024 * 1024;
+    /**
+     * The maximum number of messages waiting to be written.
+     */
+    public static final int MAX_PENDING_MESSAGES = 1024;
     private final FileHandle log;
+    private final ArrayDeque<String> pending = new ArrayDeque<>();
+    private int droppedMessages;
+    private boolean flushRequested;
+    private long writtenCount;
+    private long requestedCount;
+    private Writer writer;
+    private long logSize;
 
     public TextFileApplicationLogger() {
         log = Main.appFolder.child("temp/log.txt");
+        
+        var thread = new Thread(this::writeLoop, "Log Writer");
+        thread.setDaemon(true);
+        thread.start();
+        
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush));
     }
     
     @Override
     public void log(String tag, String message) {
-        log.writeString("\n" + tag + ": " + message + "\n", true);
+        write(tag, message, null);
         
         System.out.println(tag + ": " + message);
     }
 
     @Override
     public void log(String tag, String message, Throwable exception) {
-        log.writeString("\n" + tag + ": " + message + "\n", true);
-        printException(exception);
+        write(tag, message, exception);
         
         System.out.println(tag + ": " + message);
         exception.printStackTrace(System.out);
@@ -54,15 +82,14 @@ public class TextFileApplicationLogger implements ApplicationLogger {
 
     @Override
     public void error(String tag, String message) {
-        log.writeString("\n" + tag + ": " + message + "\n", true);
+        write(tag, message, null);
         
         System.err.println(tag + ": " + message);
     }
 
     @Override
     public void error(String tag, String message, Throwable exception) {
-        log.writeString("\n" + tag + ": " + message + "\n", true);
-        printException(exception);
+        write(tag, message, exception);
         
         System.err.println(tag + ": " + message);
         exception.printStackTrace(System.err);
@@ -70,23 +97,130 @@ public class TextFileApplicationLogger implements ApplicationLogger {
 
     @Override
     public void debug(String tag, String message) {
-        log.writeString("\n" + tag + ": " + message + "\n", true);
+        write(tag, message, null);
         
         System.out.println(tag + ": " + message);
     }
 
     @Override
     public void debug(String tag, String message, Throwable exception) {
-        log.writeString("\n" + tag + ": " + message + "\n", true);
-        printException(exception);
+        write(tag, message, exception);
         
         System.out.println(tag + ": " + message);
         exception.printStackTrace(System.out);
     }
     
-    private void printException(Throwable exception) {
-        PrintStream printStream = new PrintStream(log.write(true));
-        exception.printStackTrace(printStream);
-        printStream.close();
+    /**
+     * Blocks until every message logged so far has been written to the log file.
+     */
+    public void flush() {
+        synchronized (pending) {
+            long target = requestedCount;
+            flushRequested = true;
+            pending.notifyAll();
+            
+            long timeout = System.currentTimeMillis() + 2000;
+            while (writtenCount < target || flushRequested) {
+                long remaining = timeout - System.currentTimeMillis();
+                if (remaining <= 0) break;
+                try {
+                    pending.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+    
+    private void write(String tag, String message, Throwable exception) {
+        var entry = "\n" + tag + ": " + message + "\n";
+        if (exception != null) {
+            var stringWriter = new StringWriter();
+            exception.printStackTrace(new PrintWriter(stringWriter));
+            entry += stringWriter;
+        }
+        
+        synchronized (pending) {
+            if (pending.size() >= MAX_PENDING_MESSAGES) {
+                pending.removeFirst();
+                droppedMessages++;
+                writtenCount++;
+            }
+            pending.addLast(entry);
+            requestedCount++;
+            pending.notifyAll();
+        }
+    }
+    
+    private void writeLoop() {
+        while (true) {
+            String entry;
+            int dropped;
+            synchronized (pending) {
+                while (pending.isEmpty()) {
+                    if (flushRequested) {
+                        flushWriter();
+                        flushRequested = false;
+                        pending.notifyAll();
+                    }
+                    
+                    try {
+                        pending.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                entry = pending.removeFirst();
+                dropped = droppedMessages;
+                droppedMessages = 0;
+            }
+            
+            if (dropped > 0) append("\n" + getClass().getName() + ": " + dropped + " log messages were dropped\n");
+            append(entry);
+            
+            synchronized (pending) {
+                writtenCount++;
+                //flush once the buffer is drained so a burst of messages costs a single write
+                if (pending.isEmpty()) {
+                    flushWriter();
+                    flushRequested = false;
+                    pending.notifyAll();
+                }
+            }
+        }
+    }
+    
+    private void append(String entry) {
+        try {
+            if (writer == null) {
+                log.parent().mkdirs();
+                logSize = log.exists() ? log.length() : 0;
+                writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(log.file(), true), StandardCharsets.UTF_8));
+            }
+            
+            writer.write(entry);
+            logSize += entry.length();
+            
+            if (logSize > MAX_LOG_SIZE) {
+                writer.close();
+                writer = null;
+                var rotated = log.sibling(log.nameWithoutExtension() + ".1." + log.extension());
+                rotated.delete();
+                log.moveTo(rotated);
+            }
+        } catch (IOException e) {
+            writer = null;
+            e.printStackTrace(System.err);
+        }
+    }
+    
+    private void flushWriter() {
+        try {
+            if (writer != null) writer.flush();
+        } catch (IOException e) {
+            writer = null;
+            e.printStackTrace(System.err);
+        }
     }
 }
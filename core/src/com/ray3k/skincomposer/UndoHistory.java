@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2021 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The undoables of {@link UndoableManager} without any of its UI. Consecutive changes to the same property are merged,
+ * and the oldest undoables are discarded once the history exceeds its count or memory limits.
+ */
+public class UndoHistory {
+    private final Array<Undoable> undoables = new Array<>();
+    private int undoIndex = -1;
+    private long lastAddTime;
+    
+    public void clear() {
+        undoables.clear();
+        undoIndex = -1;
+        lastAddTime = 0;
+    }
+    
+    /**
+     * Undoes the latest undoable that has not been undone yet.
+     * @return The undone undoable or null if there is nothing to undo.
+     */
+    public Undoable undo() {
+        if (undoIndex < 0) return null;
+        lastAddTime = 0;
+        var undoable = undoables.get(undoIndex--);
+        undoable.undo();
+        return undoable;
+    }
+    
+    /**
+     * Redoes the earliest undoable that has been undone.
+     * @return The redone undoable or null if there is nothing to redo.
+     */
+    public Undoable redo() {
+        if (undoIndex >= undoables.size - 1) return null;
+        lastAddTime = 0;
+        var undoable = undoables.get(++undoIndex);
+        undoable.redo();
+        return undoable;
+    }
+    
+    /**
+     * @return The undoable that {@link #undo()} would undo, or null.
+     */
+    public Undoable getUndoable() {
+        return undoIndex >= 0 ? undoables.get(undoIndex) : null;
+    }
+    
+    /**
+     * @return The undoable that {@link #redo()} would redo, or null.
+     */
+    public Undoable getRedoable() {
+        return undoIndex < undoables.size - 1 ? undoables.get(undoIndex + 1) : null;
+    }
+    
+    public int size() {
+        return undoables.size;
+    }
+    
+    /**
+     * Adds an undoable after discarding every undoable that has been undone. The undoable is merged into the latest one
+     * instead if it was added within {@link UndoableManager#MERGE_TIME} of it, nothing has been undone since, and
+     * {@link Undoable#merge(Undoable)} accepts it.
+     * @param undoable
+     * @param time The current time in milliseconds.
+     * @param maxUndos The number of undoables to keep.
+     * @param memoryBudget The approximate number of bytes the undoables may retain. The latest undoable is always kept.
+     * @return true if the undoable was merged and has not been added.
+     */
+    public boolean add(Undoable undoable, long time, int maxUndos, long memoryBudget) {
+        boolean mergeable = undoIndex >= 0 && undoIndex == undoables.size - 1 && time - lastAddTime <= UndoableManager.MERGE_TIME;
+        lastAddTime = time;
+        if (mergeable && undoables.peek().merge(undoable)) return true;
+        
+        undoIndex++;
+        if (undoIndex <= undoables.size - 1) {
+            undoables.removeRange(undoIndex, undoables.size - 1);
+        }
+        undoables.add(undoable);
+        
+        int offset = Math.max(0, undoables.size - maxUndos);
+        long memory = 0;
+        for (int i = offset; i < undoables.size; i++) {
+            memory += undoables.get(i).estimateMemory();
+        }
+        
+        while (undoables.size - offset > 1 && memory > memoryBudget) {
+            memory -= undoables.get(offset).estimateMemory();
+            offset++;
+        }
+        
+        if (offset > 0) {
+            undoIndex -= offset;
+            undoIndex = MathUtils.clamp(undoIndex, -1, undoables.size - 1);
+            undoables.removeRange(0, offset - 1);
+        }
+        return false;
+    }
+}
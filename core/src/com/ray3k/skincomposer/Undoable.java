@@ -24,7 +24,31 @@
 package com.ray3k.skincomposer;
 
 public interface Undoable {
+    /**
+     * Rough number of bytes retained by a typical undoable.
+     */
+    public static final long DEFAULT_MEMORY_ESTIMATE = 256;
+    
     public void undo();
     public void redo();
     public String getUndoText();
+    
+    /**
+     * Attempts to absorb a newer undoable that changes the same property as this one, so that a continuous edit such
+     * as dragging a spinner is undone in one step. The merged undoable must keep this undoable's original value.
+     * @param undoable The newer undoable, which has not been added to the history.
+     * @return true if the undoable was merged and should not be added to the history.
+     */
+    public default boolean merge(Undoable undoable) {
+        return false;
+    }
+    
+    /**
+     * Returns the approximate number of bytes retained by this undoable. Used to bound the memory held by the undo
+     * history.
+     * @return 
+     */
+    public default long estimateMemory() {
+        return DEFAULT_MEMORY_ESTIMATE;
+    }
 }
@@ -23,9 +23,9 @@
  ******************************************************************************/
 package com.ray3k.skincomposer;
 
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.ui.SelectBox;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.ray3k.skincomposer.data.*;
 import com.ray3k.skincomposer.data.CustomProperty.PropertyType;
 
@@ -35,99 +35,131 @@ import static com.ray3k.skincomposer.Main.*;
 import static com.ray3k.skincomposer.Main.atlasData;
 
 public class UndoableManager {
-    private final Array<Undoable> undoables;
-    private int undoIndex;
+    /**
+     * Consecutive changes to the same property within this many milliseconds are merged into one undoable.
+     */
+    public static final long MERGE_TIME = 750;
+    /**
+     * Approximate sizes in bytes of objects on a 64 bit JVM with compressed references. Used to estimate the memory of
+     * deleted styles, classes, and scene composer actors, which are only kept alive by the undo history.
+     */
+    public static final long OBJECT_MEMORY = 16;
+    public static final long REFERENCE_MEMORY = 4;
+    private final UndoHistory history;
 
     public UndoableManager(Main main) {
-        undoables = new Array<>();
-        undoIndex = -1;
+        history = new UndoHistory();
     }
     
     public void clearUndoables() {
-        undoables.clear();
-        undoIndex = -1;
-        
-        rootTable.setUndoText("Undo");
-        rootTable.setRedoText("Redo");
-        
-        rootTable.setUndoDisabled(true);
-        rootTable.setRedoDisabled(true);
-        
+        history.clear();
+        updateUndoText();
     }
     
     public void undo() {
-        if (undoIndex >= 0 && undoIndex < undoables.size) {
+        if (history.getUndoable() != null) {
             projectData.setChangesSaved(false);
-            Undoable undoable = undoables.get(undoIndex);
-            undoable.undo();
-            undoIndex--;
-
-            if (undoIndex < 0) {
-                rootTable.setUndoDisabled(true);
-                rootTable.setUndoText("Undo");
-            } else {
-                rootTable.setUndoText("Undo " + undoables.get(undoIndex).getUndoText());
-            }
-
-            rootTable.setRedoDisabled(false);
-            rootTable.setRedoText("Redo " + undoable.getUndoText());
+            history.undo();
+            updateUndoText();
         }
     }
     
     public void redo() {
-        if (undoIndex >= -1 && undoIndex < undoables.size) {
+        if (history.getRedoable() != null) {
             projectData.setChangesSaved(false);
-            if (undoIndex < undoables.size - 1) {
-                undoIndex++;
-                undoables.get(undoIndex).redo();
-            }
-
-            if (undoIndex >= undoables.size - 1) {
-                rootTable.setRedoDisabled(true);
-                rootTable.setRedoText("Redo");
-            } else {
-                rootTable.setRedoText("Redo " + undoables.get(undoIndex + 1).getUndoText());
-            }
-
-            rootTable.setUndoDisabled(false);
-            rootTable.setUndoText("Undo " + undoables.get(undoIndex).getUndoText());
+            history.redo();
+            updateUndoText();
         }
     }
     
     public void addUndoable(Undoable undoable, boolean redoImmediately) {
         projectData.setChangesSaved(false);
-        undoIndex++;
-        if (undoIndex <= undoables.size - 1) {
-            undoables.removeRange(undoIndex, undoables.size - 1);
-        }
-        undoables.add(undoable);
+        
+        //the memory budget is set in Settings and applies in addition to the limit of ProjectData.getMaxUndos()
+        boolean merged = history.add(undoable, TimeUtils.millis(), projectData.getMaxUndos(), projectData.getUndoMemory() * 1024L);
         
         if (redoImmediately) {
             undoable.redo();
         }
         
-        rootTable.setUndoDisabled(false);
-        rootTable.setRedoDisabled(true);
-        rootTable.setRedoText("Redo");
-        rootTable.setUndoText("Undo " + undoable.getUndoText());
+        if (!merged) updateUndoText();
+    }
+    
+    private void updateUndoText() {
+        var undoable = history.getUndoable();
+        rootTable.setUndoDisabled(undoable == null);
+        rootTable.setUndoText(undoable == null ? "Undo" : "Undo " + undoable.getUndoText());
         
-        if (undoables.size > projectData.getMaxUndos()) {
-            int offset = undoables.size - projectData.getMaxUndos();
-            
-            undoIndex -= offset;
-            undoIndex = MathUtils.clamp(undoIndex, -1, undoables.size - 1);
-            undoables.removeRange(0, offset - 1);
-        }
+        var redoable = history.getRedoable();
+        rootTable.setRedoDisabled(redoable == null);
+        rootTable.setRedoText(redoable == null ? "Redo" : "Redo " + redoable.getUndoText());
     }
     
     public void addUndoable(Undoable undoable) {
         addUndoable(undoable, false);
     }
     
+    public static long estimateMemory(String string) {
+        //the String and its byte array, assuming compact Latin-1 strings
+        return string == null ? 0 : OBJECT_MEMORY + 8 + OBJECT_MEMORY + string.length();
+    }
+    
+    private static long estimateValueMemory(Object value) {
+        if (value == null) return 0;
+        if (value instanceof String) return estimateMemory((String) value);
+        //boxed numbers and booleans. Other values, such as classes, are shared.
+        return OBJECT_MEMORY + 8;
+    }
+    
+    /**
+     * Estimates the memory of a style and all of its properties.
+     * @param style
+     * @return 
+     */
+    public static long estimateMemory(StyleData style) {
+        //the object and its OrderedMap with the key, value, and order tables
+        long memory = OBJECT_MEMORY + 7 * REFERENCE_MEMORY + 3 * OBJECT_MEMORY + estimateMemory(style.name) + estimateMemory(style.parent);
+        for (var property : style.properties.values()) {
+            //the property with its four fields, plus its slots in the three tables of the map
+            memory += OBJECT_MEMORY + 4 * REFERENCE_MEMORY + 3 * REFERENCE_MEMORY + estimateMemory(property.name) + estimateValueMemory(property.value);
+        }
+        return memory;
+    }
+    
+    /**
+     * Estimates the memory of a custom style and all of its properties.
+     * @param style
+     * @return 
+     */
+    public static long estimateMemory(CustomStyle style) {
+        //the object and its Array of properties
+        long memory = OBJECT_MEMORY + 4 * REFERENCE_MEMORY + 2 * OBJECT_MEMORY + estimateMemory(style.getName());
+        for (var property : style.getProperties()) {
+            //the property with its four fields, plus its slot in the array
+            memory += OBJECT_MEMORY + 5 * REFERENCE_MEMORY + estimateMemory(property.getName()) + estimateValueMemory(property.getValue());
+        }
+        return memory;
+    }
+    
+    /**
+     * Estimates the memory of a custom class with all of its styles.
+     * @param customClass
+     * @return 
+     */
+    public static long estimateMemory(CustomClass customClass) {
+        //the object and its Array of styles
+        long memory = OBJECT_MEMORY + 5 * REFERENCE_MEMORY + 2 * OBJECT_MEMORY + estimateMemory(customClass.getFullyQualifiedName()) + estimateMemory(customClass.getDisplayName());
+        if (customClass.getTemplateStyle() != null) memory += estimateMemory(customClass.getTemplateStyle());
+        for (var style : customClass.getStyles()) {
+            memory += REFERENCE_MEMORY + estimateMemory(style);
+        }
+        return memory;
+    }
+    
     public static class DoubleUndoable implements Undoable {
         private final StyleProperty property;
         private final double oldValue;
-        private final double newValue;
+        private double newValue;
         private final Main main;
 
         public DoubleUndoable(Main main, StyleProperty property, double newValue) {
@@ -136,24 +168,33 @@ public class UndoableManager {
             this.newValue = newValue;
             this.main = main;
             
-            property.value = newValue;
+            property.setValue(newValue);
             rootTable.refreshPreview();
         }
         
         @Override
         public void undo() {
-            property.value = oldValue;
+            property.setValue(oldValue);
             rootTable.refreshStyleProperties(true);
             rootTable.refreshPreview();
         }
 
         @Override
         public void redo() {
-            property.value = newValue;
+            property.setValue(newValue);
             rootTable.refreshStyleProperties(true);
             rootTable.refreshPreview();
         }
 
+        @Override
+        public boolean merge(Undoable undoable) {
+            if (undoable instanceof DoubleUndoable && ((DoubleUndoable) undoable).property == property) {
+                newValue = ((DoubleUndoable) undoable).newValue;
+                return true;
+            }
+            return false;
+        }
+
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.name;
@@ -163,7 +204,7 @@ public class UndoableManager {
     public static class CustomDoubleUndoable implements Undoable {
         private final CustomProperty property;
         private final Object oldValue;
-        private final Object newValue;
+        private Object newValue;
         private final Main main;
 
         public CustomDoubleUndoable(Main main, CustomProperty property, double newValue) {
@@ -190,6 +231,15 @@ public class UndoableManager {
             rootTable.refreshPreview();
         }
 
+        @Override
+        public boolean merge(Undoable undoable) {
+            if (undoable instanceof CustomDoubleUndoable && ((CustomDoubleUndoable) undoable).property == property) {
+                newValue = ((CustomDoubleUndoable) undoable).newValue;
+                return true;
+            }
+            return false;
+        }
+
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.getName();
@@ -199,7 +249,7 @@ public class UndoableManager {
     public static class CustomTextUndoable implements Undoable {
         private final CustomProperty property;
         private final Object oldValue;
-        private final Object newValue;
+        private Object newValue;
         private final Main main;
 
         public CustomTextUndoable(Main main, CustomProperty property, String newValue) {
@@ -226,6 +276,15 @@ public class UndoableManager {
             rootTable.refreshPreview();
         }
 
+        @Override
+        public boolean merge(Undoable undoable) {
+            if (undoable instanceof CustomTextUndoable && ((CustomTextUndoable) undoable).property == property) {
+                newValue = ((CustomTextUndoable) undoable).newValue;
+                return true;
+            }
+            return false;
+        }
+
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.getName();
@@ -316,22 +375,24 @@ public class UndoableManager {
 
         @Override
         public void undo() {
-            atlasData.produceAtlas();
             if (oldValue == null || atlasData.getDrawable((String) oldValue) != null) {
-                property.value = oldValue;
+                property.setValue(oldValue);
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
+            AtlasBuildService.requestBuild(success -> {
+                rootTable.refreshStyleProperties(true);
+                rootTable.refreshPreview();
+            });
         }
 
         @Override
         public void redo() {
-            atlasData.produceAtlas();
             if (newValue == null || atlasData.getDrawable((String) newValue) != null) {
-                property.value = newValue;
+                property.setValue(newValue);
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
+            AtlasBuildService.requestBuild(success -> {
+                rootTable.refreshStyleProperties(true);
+                rootTable.refreshPreview();
+            });
         }
 
         @Override
@@ -355,22 +416,24 @@ public class UndoableManager {
 
         @Override
         public void undo() {
-            atlasData.produceAtlas();
             if (oldValue == null || atlasData.getDrawable(oldValue) != null) {
                 property.setValue(oldValue);
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
+            AtlasBuildService.requestBuild(success -> {
+                rootTable.refreshStyleProperties(true);
+                rootTable.refreshPreview();
+            });
         }
 
         @Override
         public void redo() {
-            atlasData.produceAtlas();
             if (newValue == null || atlasData.getDrawable(newValue) != null) {
                 property.setValue(newValue);
             }
-            rootTable.refreshStyleProperties(true);
-            rootTable.refreshPreview();
+            AtlasBuildService.requestBuild(success -> {
+                rootTable.refreshStyleProperties(true);
+                rootTable.refreshPreview();
+            });
         }
 
         @Override
@@ -397,11 +460,11 @@ public class UndoableManager {
         @Override
         public void undo() {
             if (oldValue == null) {
-                property.value = oldValue;
+                property.setValue(oldValue);
             } else {
                 for (ColorData color : jsonData.getColors()) {
                     if (color.getName().equals((String) oldValue)) {
-                        property.value = oldValue;
+                        property.setValue(oldValue);
                         break;
                     }
                 }
@@ -413,11 +476,11 @@ public class UndoableManager {
         @Override
         public void redo() {
             if (newValue == null) {
-                property.value = newValue;
+                property.setValue(newValue);
             } else {
                 for (ColorData color : jsonData.getColors()) {
                     if (color.getName().equals((String) newValue)) {
-                        property.value = newValue;
+                        property.setValue(newValue);
                         break;
                     }
                 }
@@ -426,6 +489,15 @@ public class UndoableManager {
             rootTable.refreshPreview();
         }
 
+        @Override
+        public boolean merge(Undoable undoable) {
+            if (undoable instanceof ColorUndoable && ((ColorUndoable) undoable).property == property) {
+                newValue = ((ColorUndoable) undoable).newValue;
+                return true;
+            }
+            return false;
+        }
+
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.name;
@@ -434,7 +506,8 @@ public class UndoableManager {
     
     public static class CustomColorUndoable implements Undoable {
         private final CustomProperty property;
-        private final Object oldValue, newValue;
+        private final Object oldValue;
+        private Object newValue;
         private final Main main;
 
         public CustomColorUndoable(Main main, CustomProperty property, Object newValue) {
@@ -476,6 +549,15 @@ public class UndoableManager {
             rootTable.refreshPreview();
         }
 
+        @Override
+        public boolean merge(Undoable undoable) {
+            if (undoable instanceof CustomColorUndoable && ((CustomColorUndoable) undoable).property == property) {
+                newValue = ((CustomColorUndoable) undoable).newValue;
+                return true;
+            }
+            return false;
+        }
+
         @Override
         public String getUndoText() {
             return "Change Style Property " + property.getName();
@@ -499,18 +581,18 @@ public class UndoableManager {
         @Override
         public void undo() {
             if (oldValue == null) {
-                property.value = oldValue;
+                property.setValue(oldValue);
             } else {
                 for (FontData font : jsonData.getFonts()) {
                     if (font.getName().equals((String) oldValue)) {
-                        property.value = oldValue;
+                        property.setValue(oldValue);
                         break;
                     }
                 }
                 
                 for (FreeTypeFontData font : jsonData.getFreeTypeFonts()) {
                     if (font.name.equals((String) oldValue)) {
-                        property.value = oldValue;
+                        property.setValue(oldValue);
                         break;
                     }
                 }
@@ -522,18 +604,18 @@ public class UndoableManager {
         @Override
         public void redo() {
             if (newValue == null) {
-                property.value = newValue;
+                property.setValue(newValue);
             } else {
                 for (FontData font : jsonData.getFonts()) {
                     if (font.getName().equals((String) newValue)) {
-                        property.value = newValue;
+                        property.setValue(newValue);
                         break;
                     }
                 }
                 
                 for (FreeTypeFontData font : jsonData.getFreeTypeFonts()) {
                     if (font.name.equals((String) newValue)) {
-                        property.value = newValue;
+                        property.setValue(newValue);
                         break;
                     }
                 }
@@ -629,14 +711,14 @@ public class UndoableManager {
 
         @Override
         public void undo() {
-            property.value = oldValue;
+            property.setValue(oldValue);
             rootTable.refreshStyleProperties(true);
             rootTable.refreshPreview();
         }
 
         @Override
         public void redo() {
-            property.value = newValue;
+            property.setValue(newValue);
             rootTable.refreshStyleProperties(true);
             rootTable.refreshPreview();
         }
@@ -668,6 +750,7 @@ public class UndoableManager {
         @Override
         public void undo() {
             style.parent = oldValue;
+            jsonData.styleStructureChanged();
             rootTable.refreshStyleProperties(true);
             rootTable.refreshPreview();
         }
@@ -675,6 +758,7 @@ public class UndoableManager {
         @Override
         public void redo() {
             style.parent = newValue;
+            jsonData.styleStructureChanged();
             rootTable.refreshStyleProperties(true);
             rootTable.refreshPreview();
         }
@@ -766,6 +850,11 @@ public class UndoableManager {
             rootTable.refreshStyles(true);
         }
 
+        @Override
+        public long estimateMemory() {
+            return DEFAULT_MEMORY_ESTIMATE + UndoableManager.estimateMemory(styleData);
+        }
+
         @Override
         public String getUndoText() {
             return "Delete Style \"" + styleData.name + "\"";
@@ -789,12 +878,13 @@ public class UndoableManager {
         @Override
         public void undo() {
             styleData.name = oldName;
+            jsonData.styleStructureChanged();
             
             for (Array<StyleData> styles : jsonData.getClassStyleMap().values()) {
                 for (StyleData style : styles) {
                     for (StyleProperty styleProperty : style.properties.values()) {
                         if (styleProperty.type.equals(Main.basicToStyleClass(styleData.clazz)) && styleProperty.value.equals(newName)) {
-                            styleProperty.value = oldName;
+                            styleProperty.setValue(oldName);
                         }
                     }
                 }
@@ -812,12 +902,13 @@ public class UndoableManager {
         @Override
         public void redo() {
             styleData.name = newName;
+            jsonData.styleStructureChanged();
             
             for (Array<StyleData> styles : jsonData.getClassStyleMap().values()) {
                 for (StyleData style : styles) {
                     for (StyleProperty styleProperty : style.properties.values()) {
                         if (styleProperty.type.equals(Main.basicToStyleClass(styleData.clazz)) && styleProperty.value.equals(oldName)) {
-                            styleProperty.value = newName;
+                            styleProperty.setValue(newName);
                         }
                     }
                 }
@@ -856,6 +947,7 @@ public class UndoableManager {
             var styleData = styles.get(indexAfter);
             styles.removeIndex(indexAfter);
             styles.insert(indexBefore, styleData);
+            jsonData.styleStructureChanged();
         
             rootTable.refreshStyles(false);
             int classIndex;
@@ -872,6 +964,7 @@ public class UndoableManager {
             var styleData = styles.get(indexBefore);
             styles.removeIndex(indexBefore);
             styles.insert(indexAfter, styleData);
+            jsonData.styleStructureChanged();
     
             rootTable.refreshStyles(false);
             int classIndex;
@@ -1029,6 +1122,11 @@ public class UndoableManager {
             rootTable.refreshPreview();
         }
 
+        @Override
+        public long estimateMemory() {
+            return DEFAULT_MEMORY_ESTIMATE + UndoableManager.estimateMemory(customClass);
+        }
+
         @Override
         public String getUndoText() {
             return "Delete class " + customClass.getDisplayName();
@@ -1381,6 +1479,11 @@ public class UndoableManager {
             rootTable.refreshPreview();
         }
 
+        @Override
+        public long estimateMemory() {
+            return DEFAULT_MEMORY_ESTIMATE + UndoableManager.estimateMemory(style);
+        }
+
         @Override
         public String getUndoText() {
             return "Delete style " + style.getName();
@@ -0,0 +1,256 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ray3k.skincomposer;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.WidgetGroup;
+import com.badlogic.gdx.scenes.scene2d.utils.Layout;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * A grid of equally sized cells that only creates actors for the cells that are visible. Place it directly in a
+ * ScrollPane, which supplies the visible area through {@link #setCullingArea(Rectangle)}. Cells that are scrolled out
+ * of view are returned to a pool and bound to other items, so scrolling, and replacing the items, only does work
+ * proportional to the number of visible cells. Cells are sized to the preferred size of a cell bound to the first item.
+ * @author Raymond
+ * @param <T> The type of item displayed in each cell.
+ * @param <A> The type of actor used for each cell.
+ */
+public class VirtualGrid<T, A extends Actor> extends WidgetGroup {
+    private final CellAdapter<T, A> adapter;
+    private Array<T> items = new Array<>();
+    private final IntMap<A> activeCells = new IntMap<>();
+    private final Array<A> freeCells = new Array<>();
+    private float cellWidth, cellHeight;
+    private boolean sizeInvalid = true;
+    private float space, pad;
+    private boolean fillX;
+    private int firstVisibleRow = -1, lastVisibleRow = -1;
+    private float lastPrefHeight;
+    
+    public interface CellAdapter<T, A extends Actor> {
+        /**
+         * Creates a cell that is not bound to any item yet.
+         * @return
+         */
+        A newCell();
+        
+        /**
+         * Updates the cell to display the item.
+         * @param cell
+         * @param item
+         */
+        void bind(A cell, T item);
+    }
+    
+    public VirtualGrid(CellAdapter<T, A> adapter) {
+        this.adapter = adapter;
+    }
+    
+    /**
+     * Sets the items displayed by the grid. The array is not copied.
+     * @param items
+     */
+    public void setItems(Array<T> items) {
+        this.items = items;
+        sizeInvalid = true;
+        releaseAll();
+        invalidateHierarchy();
+    }
+    
+    public Array<T> getItems() {
+        return items;
+    }
+    
+    /**
+     * Sets the space between cells.
+     * @param space
+     * @return
+     */
+    public VirtualGrid<T, A> space(float space) {
+        this.space = space;
+        invalidateHierarchy();
+        return this;
+    }
+    
+    /**
+     * Sets the padding around the cells.
+     * @param pad
+     * @return
+     */
+    public VirtualGrid<T, A> pad(float pad) {
+        this.pad = pad;
+        invalidateHierarchy();
+        return this;
+    }
+    
+    /**
+     * If true, the grid has a single column and the cells are stretched to the width of the grid.
+     * @param fillX
+     * @return
+     */
+    public VirtualGrid<T, A> fillX(boolean fillX) {
+        this.fillX = fillX;
+        invalidateHierarchy();
+        return this;
+    }
+    
+    @Override
+    public void setCullingArea(Rectangle cullingArea) {
+        super.setCullingArea(cullingArea);
+        
+        //only lay out the cells again when a different row comes into view
+        if (cullingArea != null && (getFirstVisibleRow() != firstVisibleRow || getLastVisibleRow() != lastVisibleRow)) {
+            invalidate();
+        }
+    }
+    
+    @Override
+    public void layout() {
+        computeCellSize();
+        
+        float prefHeight = getPrefHeight();
+        if (prefHeight != lastPrefHeight) {
+            lastPrefHeight = prefHeight;
+            invalidateHierarchy();
+        }
+        
+        firstVisibleRow = getFirstVisibleRow();
+        lastVisibleRow = getLastVisibleRow();
+        int columns = getColumns();
+        int first = firstVisibleRow * columns;
+        int last = Math.min(items.size - 1, lastVisibleRow * columns + columns - 1);
+        
+        //release the cells that are no longer visible
+        var iterator = activeCells.iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (entry.key < first || entry.key > last) {
+                removeActor(entry.value);
+                freeCells.add(entry.value);
+                iterator.remove();
+            }
+        }
+        
+        float width = fillX ? getWidth() - pad * 2 : cellWidth;
+        for (int i = first; i <= last; i++) {
+            var cell = activeCells.get(i);
+            if (cell == null) {
+                cell = freeCells.size > 0 ? freeCells.pop() : adapter.newCell();
+                adapter.bind(cell, items.get(i));
+                activeCells.put(i, cell);
+                addActor(cell);
+            }
+            
+            int row = i / columns;
+            int column = i % columns;
+            float x = pad + column * (cellWidth + space);
+            float y = getHeight() - pad - row * (cellHeight + space) - cellHeight;
+            cell.setBounds(x, y, width, cellHeight);
+            if (cell instanceof Layout) ((Layout) cell).validate();
+        }
+    }
+    
+    @Override
+    public float getPrefWidth() {
+        computeCellSize();
+        return fillX ? pad * 2 : cellWidth + pad * 2;
+    }
+    
+    @Override
+    public float getPrefHeight() {
+        computeCellSize();
+        int rows = MathUtils.ceil((float) items.size / getColumns());
+        return rows == 0 ? pad * 2 : rows * cellHeight + (rows - 1) * space + pad * 2;
+    }
+    
+    /**
+     * Measures the preferred size of a cell. The cell is kept in the pool afterwards.
+     */
+    private void computeCellSize() {
+        if (!sizeInvalid) return;
+        sizeInvalid = false;
+        
+        if (items.size == 0) {
+            cellWidth = 0;
+            cellHeight = 0;
+            return;
+        }
+        
+        var cell = activeCells.size > 0 ? activeCells.values().next() : null;
+        if (cell == null) {
+            cell = freeCells.size > 0 ? freeCells.peek() : adapter.newCell();
+            adapter.bind(cell, items.first());
+            if (!freeCells.contains(cell, true)) freeCells.add(cell);
+        }
+        
+        if (cell instanceof Layout) {
+            cellWidth = ((Layout) cell).getPrefWidth();
+            cellHeight = ((Layout) cell).getPrefHeight();
+        } else {
+            cellWidth = cell.getWidth();
+            cellHeight = cell.getHeight();
+        }
+    }
+    
+    private int getColumns() {
+        if (fillX || cellWidth + space <= 0) return 1;
+        return Math.max(1, (int) ((getWidth() - pad * 2 + space) / (cellWidth + space)));
+    }
+    
+    private int getFirstVisibleRow() {
+        var cullingArea = getCullingArea();
+        if (cullingArea == null || cellHeight + space <= 0) return 0;
+        float top = getHeight() - pad - (cullingArea.y + cullingArea.height);
+        return Math.max(0, (int) (top / (cellHeight + space)));
+    }
+    
+    private int getLastVisibleRow() {
+        int rows = MathUtils.ceil((float) items.size / getColumns());
+        if (cellHeight + space <= 0) return rows - 1;
+        
+        var cullingArea = getCullingArea();
+        float bottom;
+        if (cullingArea != null) {
+            bottom = getHeight() - pad - cullingArea.y;
+        } else {
+            //until the ScrollPane supplies the visible area, assume the top of the grid fills the parent
+            bottom = getParent() == null ? 0 : getParent().getHeight();
+        }
+        return Math.min(rows - 1, (int) (bottom / (cellHeight + space)));
+    }
+    
+    private void releaseAll() {
+        for (var cell : activeCells.values()) {
+            removeActor(cell);
+            freeCells.add(cell);
+        }
+        activeCells.clear();
+        firstVisibleRow = -1;
+        lastVisibleRow = -1;
+    }
+}
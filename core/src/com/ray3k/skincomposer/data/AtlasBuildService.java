@@ -0,0 +1,208 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Raymond Buckley.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Builds the preview atlas without blocking the rendering thread. Images are decoded on a dedicated thread and the
+ * finished atlas and drawables are published on the rendering thread in a single step. A full pack is packed on the
+ * dedicated thread as well, one image at a time, leaving only the upload of the pages to the rendering thread. Requests
+ * made in quick succession, such as the edits made while dragging a spinner, are coalesced into one build, and a build
+ * that is superseded by a newer request is abandoned.
+ */
+public class AtlasBuildService {
+    /**
+     * Milliseconds to wait for further requests before a build starts.
+     */
+    public static final long COALESCE_DELAY = 150;
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "Atlas Builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicInteger generation = new AtomicInteger();
+    private static final Array<BuildListener> listeners = new Array<>();
+    private static ScheduledFuture<?> scheduled;
+    
+    public interface BuildListener {
+        /**
+         * Called on the rendering thread once the atlas and drawables have been published.
+         * @param success false if the drawables could not be created.
+         */
+        void finished(boolean success);
+        
+        /**
+         * Called on the rendering thread as images are decoded.
+         * @param progress A value from 0 to 1.
+         */
+        default void progress(float progress) {}
+    }
+    
+    /**
+     * Requests a rebuild of the preview atlas and drawables. Any build that has not been published yet is superseded
+     * and its listeners are notified when this build finishes instead. Must be called on the rendering thread.
+     * @param listener May be null.
+     */
+    public static void requestBuild(BuildListener listener) {
+        if (listener != null) listeners.add(listener);
+        int build = generation.incrementAndGet();
+        if (scheduled != null) scheduled.cancel(false);
+        
+        if (atlasData.atlasCurrent) {
+            //only the drawables need to be recreated
+            scheduled = executor.schedule(() -> Gdx.app.postRunnable(() -> publish(build, null, null)),
+                    COALESCE_DELAY, TimeUnit.MILLISECONDS);
+            return;
+        }
+        
+        //snapshot the state needed to decide which images must be decoded
+        var settingsFile = appFolder.child("texturepacker/atlas-internal-settings.json");
+        var files = atlasData.collectImageFiles(null);
+        var packedFingerprints = atlasData.getPackedFingerprints();
+        var packedRegionCount = atlasData.getPackedRegionCount();
+        var fullPack = atlasData.isFullPackRequired(AtlasData.fingerprint(settingsFile));
+        var saveFile = projectData.getSaveFile();
+        
+        scheduled = executor.schedule(() -> decode(build, settingsFile, files, packedFingerprints, packedRegionCount,
+                fullPack, saveFile), COALESCE_DELAY, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Returns true if a build has been requested and not published yet.
+     * @return
+     */
+    public static boolean isBuilding() {
+        return listeners.size > 0 || scheduled != null;
+    }
+    
+    private static void decode(int build, FileHandle settingsFile, Array<FileHandle> files,
+            ObjectMap<String, String> packedFingerprints, int packedRegionCount, boolean fullPack, FileHandle saveFile) {
+        var decodedImages = new ObjectMap<String, Pixmap>();
+        AtlasData.PreparedPack preparedPack = null;
+        try {
+            var resolvedFiles = new Array<FileHandle>();
+            var fingerprints = new Array<String>();
+            var changed = new Array<Boolean>();
+            int unchanged = 0;
+            for (var file : files) {
+                var resolved = AtlasData.resolveImageFile(file, saveFile);
+                var fingerprint = AtlasData.fingerprint(resolved);
+                boolean isChanged = fullPack || !fingerprint.equals(packedFingerprints.get(file.path()));
+                if (!isChanged) unchanged++;
+                resolvedFiles.add(resolved);
+                fingerprints.add(fingerprint);
+                changed.add(isChanged);
+            }
+            
+            //mirror the fragmentation check in AtlasData so a full pack does not have to decode on the rendering thread
+            int staleRegions = packedRegionCount - unchanged;
+            if (!fullPack && (float) staleRegions / (packedRegionCount + files.size - unchanged) > AtlasData.FRAGMENTATION_THRESHOLD) {
+                fullPack = true;
+            }
+            
+            var decodeIndices = new Array<Integer>();
+            for (int i = 0; i < files.size; i++) {
+                if (fullPack || changed.get(i) && resolvedFiles.get(i).exists()) decodeIndices.add(i);
+            }
+            
+            //a full pack is packed straight away so that the decoded images are not all held until it is published
+            if (fullPack) preparedPack = new AtlasData.PreparedPack(settingsFile, AtlasData.fingerprint(settingsFile));
+            
+            int lastPercent = 0;
+            for (int i = 0; i < decodeIndices.size; i++) {
+                if (generation.get() != build) {
+                    disposeAll(decodedImages);
+                    if (preparedPack != null) preparedPack.dispose();
+                    return;
+                }
+                
+                int index = decodeIndices.get(i);
+                if (preparedPack != null) {
+                    preparedPack.pack(files.get(index), resolvedFiles.get(index), fingerprints.get(index));
+                } else {
+                    decodedImages.put(AtlasData.decodedImageKey(files.get(index), fingerprints.get(index)), new Pixmap(resolvedFiles.get(index)));
+                }
+                
+                int percent = (i + 1) * 100 / decodeIndices.size;
+                if (percent != lastPercent) {
+                    lastPercent = percent;
+                    Gdx.app.postRunnable(() -> {
+                        if (generation.get() == build) {
+                            for (var listener : listeners) listener.progress(percent / 100f);
+                        }
+                    });
+                }
+            }
+        } catch (Exception e) {
+            //anything that failed to decode is decoded again when the atlas is published, which reports the error
+            Gdx.app.error(AtlasBuildService.class.getName(), "Error while decoding images for the texture atlas", e);
+            if (preparedPack != null) {
+                preparedPack.dispose();
+                preparedPack = null;
+            }
+        }
+        
+        var pack = preparedPack;
+        Gdx.app.postRunnable(() -> publish(build, decodedImages, pack));
+    }
+    
+    private static void publish(int build, ObjectMap<String, Pixmap> decodedImages, AtlasData.PreparedPack preparedPack) {
+        if (generation.get() != build) {
+            if (decodedImages != null) disposeAll(decodedImages);
+            if (preparedPack != null) preparedPack.dispose();
+            return;
+        }
+        
+        scheduled = null;
+        boolean success = atlasData.produceAtlas(decodedImages, preparedPack);
+        if (decodedImages != null) disposeAll(decodedImages);
+        if (preparedPack != null) preparedPack.dispose();
+        
+        var finished = new Array<>(listeners);
+        listeners.clear();
+        for (var listener : finished) {
+            listener.finished(success);
+        }
+    }
+    
+    private static void disposeAll(ObjectMap<String, Pixmap> pixmaps) {
+        for (var pixmap : pixmaps.values()) {
+            pixmap.dispose();
+        }
+        pixmaps.clear();
+    }
+}
@@ -29,15 +29,24 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.PixmapIO;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData.Page;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData.Region;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.utils.*;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IdentityMap;
 import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.TenPatchAnimator;
 import com.ray3k.skincomposer.data.DrawableData.DrawableType;
 import com.ray3k.skincomposer.utils.Utils;
 import com.ray3k.tenpatch.TenPatchDrawable;
@@ -45,26 +54,46 @@ import com.ray3k.tenpatch.TenPatchDrawable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.ray3k.skincomposer.Main.*;
 
 public class AtlasData implements Json.Serializable {
+    /**
+     * The fraction of stale regions allowed in the preview atlas before incremental packing falls back to a full pack.
+     */
+    public static final float FRAGMENTATION_THRESHOLD = .25f;
     public boolean atlasCurrent = false;
-    private Array<DrawableData> drawables;
-    private Array<DrawableData> fontDrawables;
+    private final IndexedArray<DrawableData> drawables;
+    private final IndexedArray<DrawableData> fontDrawables;
     private TextureAtlas atlas;
+    /**
+     * Keyed by identity because DrawableData hashes on its name, which changes when a drawable is renamed in place.
+     */
     public ObjectMap<DrawableData, Drawable> drawablePairs;
+    private int drawablesVersion;
+    private PixmapPacker previewPacker;
+    private TextureFilter previewFilterMin;
+    private TextureFilter previewFilterMag;
+    private final ObjectMap<String, PackedImage> packedImages;
+    private String packedSettingsFingerprint;
+    private int packedRegionCount;
     
     public AtlasData() {
-        drawables = new Array<>();
-        fontDrawables = new Array<>();
-        drawablePairs = new ObjectMap<>();
+        drawables = new IndexedArray<>(drawable -> drawable.name);
+        fontDrawables = new IndexedArray<>(drawable -> drawable.name);
+        drawablePairs = new IdentityMap<>();
+        packedImages = new ObjectMap<>();
     }
     
     public void clear() {
         drawables.clear();
         fontDrawables.clear();
         atlasCurrent = false;
+        invalidatePackedImages();
     }
 
     public Array<DrawableData> getDrawables() {
@@ -72,15 +101,7 @@ public class AtlasData implements Json.Serializable {
     }
     
     public DrawableData getDrawable(String name) {
-        DrawableData returnValue = null;
-        for (DrawableData data : drawables) {
-            if (data.name.equals(name)) {
-                returnValue = data;
-                break;
-            }
-        }
-        
-        return returnValue;
+        return drawables.get(name);
     }
 
     public Array<DrawableData> getFontDrawables() {
@@ -88,18 +109,53 @@ public class AtlasData implements Json.Serializable {
     }
     
     public DrawableData getFontDrawable(String name) {
-        DrawableData returnValue = null;
-        for (DrawableData data : fontDrawables) {
-            if (data.name.equals(name)) {
-                returnValue = data;
-                break;
-            }
-        }
-        
-        return returnValue;
+        return fontDrawables.get(name);
+    }
+    
+    /**
+     * Updates the name index of the drawables. Call this after renaming a drawable in place.
+     */
+    public void drawableRenamed() {
+        drawables.invalidate();
+        fontDrawables.invalidate();
+    }
+    
+    public interface ReadAtlasListener {
+        /**
+         * Called on the thread that called {@link #extractAtlas(FileHandle, ReadAtlasListener)} as region images are
+         * written.
+         * @param completed The number of images written so far.
+         * @param total The number of regions in the atlas.
+         */
+        void progress(int completed, int total);
     }
     
     public void readAtlas(FileHandle fileHandle) throws Exception {
+        readAtlas(fileHandle, null);
+    }
+    
+    /**
+     * Extracts every region of a texture atlas to an image in the project's data folder and adds it as a drawable.
+     * @param fileHandle
+     * @param listener May be null.
+     * @throws Exception 
+     * @see #extractAtlas(FileHandle, ReadAtlasListener)
+     */
+    public void readAtlas(FileHandle fileHandle, ReadAtlasListener listener) throws Exception {
+        addAtlasImages(extractAtlas(fileHandle, listener));
+    }
+    
+    /**
+     * Extracts every region of a texture atlas to an image in the project's data folder. Each page is decoded once
+     * without creating textures, regions are copied out of the page in bulk, and the images are encoded in parallel.
+     * Nothing in the project is changed, so this can be called off the rendering thread to report progress while the
+     * images are written.
+     * @param fileHandle
+     * @param listener May be null.
+     * @return The extracted images in atlas order, to be passed to {@link #addAtlasImages(Array)}.
+     * @throws Exception 
+     */
+    public Array<FileHandle> extractAtlas(FileHandle fileHandle, ReadAtlasListener listener) throws Exception {
         if (fileHandle.exists()) {
             FileHandle saveFile = projectData.getSaveFile();
             FileHandle targetDirectory;
@@ -111,106 +167,313 @@ public class AtlasData implements Json.Serializable {
             
             targetDirectory.mkdirs();
             
-            TextureAtlas atlas = new TextureAtlas(fileHandle);
-            Array<AtlasRegion> regions = atlas.getRegions();
+            TextureAtlasData textureAtlasData = new TextureAtlasData(fileHandle, fileHandle.parent(), false);
+            Array<Region> regions = textureAtlasData.getRegions();
+            ObjectMap<Page, Pixmap> pagePixmaps = new ObjectMap<>();
+            Array<FileHandle> outputFiles = new Array<>();
+            Array<Future<?>> writes = new Array<>();
             
-            for (AtlasRegion region : regions) {
-                Texture texture = region.getTexture();
-                if (!texture.getTextureData().isPrepared()) {
-                    texture.getTextureData().prepare();
-                }
-                
-                Pixmap pixmap = texture.getTextureData().consumePixmap();
-                pixmap.setBlending(Pixmap.Blending.None);
-                Pixmap savePixmap;
-                String name;
-                
-                if (region.findValue("split") == null && region.findValue("pad") == null) {
-                    name = region.name + ".png";
-                    savePixmap = new Pixmap(region.getRegionWidth(), region.getRegionHeight(), Pixmap.Format.RGBA8888);
-                    savePixmap.setBlending(Pixmap.Blending.None);
-                    for (int x = 0; x < region.getRegionWidth(); x++) {
-                        for (int y = 0; y < region.getRegionHeight(); y++) {
-                            int colorInt = pixmap.getPixel(region.getRegionX() + x, region.getRegionY() + y);
-                            savePixmap.drawPixel(x, y, colorInt);
-                        }
-                    }
-                } else {
-                    name = region.name + ".9.png";
-                    savePixmap = new Pixmap(region.getRegionWidth() + 2, region.getRegionHeight() + 2, pixmap.getFormat());
-                    savePixmap.setBlending(Pixmap.Blending.None);
-                    int x;
-                    int y;
+            int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), regions.size));
+            ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+                var thread = new Thread(runnable, "Atlas Import Writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            
+            //indexed regions, such as animation frames, share a name and are written to the same file. Only the last
+            //one is written so two threads never write the same file.
+            ObjectMap<String, Region> lastRegions = new ObjectMap<>();
+            for (Region region : regions) {
+                lastRegions.put(getRegionFileName(region), region);
+            }
+            
+            try {
+                for (Region region : regions) {
+                    String fileName = getRegionFileName(region);
+                    if (lastRegions.get(fileName) != region) continue;
                     
-                    //draw 9 patch lines
-                    savePixmap.setColor(Color.BLACK);
-
-                    if (region.findValue("split") != null) {
-                        int[] splits = region.findValue("split");
-                        
-                        x = 0;
-                        for (y = splits[2] + 1; y < savePixmap.getHeight() - splits[3] - 1; y++) {
-                            savePixmap.drawPixel(x, y);
-                        }
-                        
-                        y = 0;
-                        for (x = splits[0] + 1; x < savePixmap.getWidth() - splits[1] - 1; x++) {
-                            savePixmap.drawPixel(x, y);
-                        }
+                    Pixmap pagePixmap = pagePixmaps.get(region.page);
+                    if (pagePixmap == null) {
+                        pagePixmap = new Pixmap(region.page.textureFile);
+                        pagePixmap.setBlending(Pixmap.Blending.None);
+                        pagePixmaps.put(region.page, pagePixmap);
                     }
                     
-                    if (region.findValue("pad") != null) {
-                        int[] pads = region.findValue("pad");
-                        
-                        x = savePixmap.getWidth() - 1;
-                        for (y = pads[2] + 1; y < savePixmap.getHeight() - pads[3] - 1; y++) {
-                            savePixmap.drawPixel(x, y);
-                        }
-                        
-                        y = savePixmap.getHeight() - 1;
-                        for (x = pads[0] + 1; x < savePixmap.getWidth() - pads[1] - 1; x++) {
-                            savePixmap.drawPixel(x, y);
+                    FileHandle outputFile = targetDirectory.child(fileName);
+                    Pixmap savePixmap = extractRegion(pagePixmap, region, isNinePatch(region));
+                    outputFiles.add(outputFile);
+                    writes.add(executor.submit(() -> {
+                        try {
+                            PixmapIO.writePNG(outputFile, savePixmap);
+                        } finally {
+                            savePixmap.dispose();
                         }
-                    }
-
-                    for (x = 0; x < region.getRegionWidth(); x++) {
-                        for (y = 0; y < region.getRegionHeight(); y++) {
-                            int colorInt = pixmap.getPixel(region.getRegionX() + x, region.getRegionY() + y);
-                            savePixmap.drawPixel(x + 1, y + 1, colorInt);
-                        }
-                    }
+                    }));
                 }
-                FileHandle outputFile = targetDirectory.child(name);
-                PixmapIO.writePNG(outputFile, savePixmap);
-                DrawableData drawable = new DrawableData(outputFile);
-                if (Utils.isNinePatch(outputFile.name())) {
-                    drawable.type = DrawableType.NINE_PATCH;
-                } else {
-                    drawable.type = DrawableType.TEXTURE;
+                
+                for (Pixmap pixmap : pagePixmaps.values()) {
+                    pixmap.dispose();
                 }
+                pagePixmaps.clear();
                 
-                //delete drawables with the same name
-                for (DrawableData originalData : new Array<>(projectData.getAtlasData().getDrawables())) {
-                    if (originalData.name.equals(drawable.name)) {
-                        projectData.getAtlasData().getDrawables().removeValue(originalData, true);
+                for (int i = 0; i < writes.size; i++) {
+                    try {
+                        writes.get(i).get();
+                    } catch (ExecutionException e) {
+                        throw new Exception("Error writing image " + outputFiles.get(i).path(), e.getCause());
                     }
+                    if (listener != null) listener.progress(i + 1, writes.size);
+                }
+            } finally {
+                executor.shutdownNow();
+                for (Pixmap pixmap : pagePixmaps.values()) {
+                    pixmap.dispose();
                 }
-                    
-                drawables.add(drawable);
             }
             
-            
+            return outputFiles;
         } else {
             throw new FileNotFoundException();
         }
     }
     
+    /**
+     * Adds the images extracted by {@link #extractAtlas(FileHandle, ReadAtlasListener)} as drawables, replacing
+     * drawables with the same name.
+     * @param outputFiles
+     */
+    public void addAtlasImages(Array<FileHandle> outputFiles) {
+        for (FileHandle outputFile : outputFiles) {
+            DrawableData drawable = new DrawableData(outputFile);
+            if (Utils.isNinePatch(outputFile.name())) {
+                drawable.type = DrawableType.NINE_PATCH;
+            } else {
+                drawable.type = DrawableType.TEXTURE;
+            }
+            
+            //delete drawables with the same name
+            for (DrawableData originalData : new Array<>(projectData.getAtlasData().getDrawables())) {
+                if (originalData.name.equals(drawable.name)) {
+                    projectData.getAtlasData().getDrawables().removeValue(originalData, true);
+                }
+            }
+                
+            drawables.add(drawable);
+        }
+    }
+    
+    private static boolean isNinePatch(Region region) {
+        return region.findValue("split") != null || region.findValue("pad") != null;
+    }
+    
+    private static String getRegionFileName(Region region) {
+        return region.name + (isNinePatch(region) ? ".9.png" : ".png");
+    }
+    
+    /**
+     * Copies a region out of its decoded page. Nine patches are given a one pixel border with the split and pad guide
+     * lines.
+     * @param pagePixmap
+     * @param region
+     * @param ninePatch
+     * @return A new Pixmap that must be disposed by the caller.
+     */
+    private static Pixmap extractRegion(Pixmap pagePixmap, Region region, boolean ninePatch) {
+        //rotated regions are copied as they are stored in the page
+        int regionWidth = region.rotate ? region.height : region.width;
+        int regionHeight = region.rotate ? region.width : region.height;
+        int border = ninePatch ? 1 : 0;
+        Pixmap savePixmap = new Pixmap(regionWidth + border * 2, regionHeight + border * 2, Pixmap.Format.RGBA8888);
+        savePixmap.setBlending(Pixmap.Blending.None);
+        savePixmap.drawPixmap(pagePixmap, region.left, region.top, regionWidth, regionHeight, border, border, regionWidth, regionHeight);
+        
+        if (ninePatch) {
+            //draw 9 patch lines
+            savePixmap.setColor(Color.BLACK);
+            int width = savePixmap.getWidth();
+            int height = savePixmap.getHeight();
+            
+            int[] splits = region.findValue("split");
+            if (splits != null) {
+                savePixmap.fillRectangle(0, splits[2] + 1, 1, height - splits[3] - splits[2] - 2);
+                savePixmap.fillRectangle(splits[0] + 1, 0, width - splits[1] - splits[0] - 2, 1);
+            }
+            
+            int[] pads = region.findValue("pad");
+            if (pads != null) {
+                savePixmap.fillRectangle(width - 1, pads[2] + 1, 1, height - pads[3] - pads[2] - 2);
+                savePixmap.fillRectangle(pads[0] + 1, height - 1, width - pads[1] - pads[0] - 2, 1);
+            }
+        }
+        
+        return savePixmap;
+    }
+    
+    /**
+     * Packs the preview atlas in memory. Images are decoded straight into a PixmapPacker and only the pages that
+     * changed are uploaded to the GPU. Only images that were added or modified since the last pack are decoded and
+     * inserted into pages that still have free space. Regions of removed or modified images are left behind as stale
+     * regions, and a full pack is performed once they exceed {@link #FRAGMENTATION_THRESHOLD}. Must be called on the
+     * rendering thread.
+     * @param settingsFile
+     * @return
+     * @throws Exception 
+     */
     public Array<String> writeAtlas(FileHandle settingsFile) throws Exception {
-        return writeAtlas(Main.appFolder.child("temp/" + projectData.getId() + ".atlas"), settingsFile);
+        return packPreviewAtlas(settingsFile, null, null);
+    }
+    
+    /**
+     * Packs the preview atlas, using images already decoded by {@link AtlasBuildService} where their fingerprint still
+     * matches the file. Used pixmaps are removed from the map and disposed. A full pack prepared by the service is
+     * adopted as is if it was made from the current files and settings.
+     * @param settingsFile
+     * @param decodedImages Pixmaps keyed by {@link #decodedImageKey(FileHandle, String)}. May be null.
+     * @param preparedPack May be null.
+     * @return
+     * @throws Exception 
+     */
+    private Array<String> packPreviewAtlas(FileHandle settingsFile, ObjectMap<String, Pixmap> decodedImages,
+            PreparedPack preparedPack) throws Exception {
+        Array<String> warnings = new Array<>();
+        Array<FileHandle> files = collectImageFiles(warnings);
+        
+        String settingsFingerprint = fingerprint(settingsFile);
+        if (preparedPack != null && preparedPack.matches(settingsFingerprint, files, projectData.getSaveFile())) {
+            adoptPreparedPack(preparedPack);
+            return warnings;
+        }
+        
+        boolean fullPack = isFullPackRequired(settingsFingerprint);
+        
+        Array<FileHandle> addedFiles = new Array<>();
+        if (!fullPack) {
+            ObjectMap<String, String> fingerprints = new ObjectMap<>();
+            for (FileHandle file : files) {
+                FileHandle resolved = resolveImageFile(file);
+                String fingerprint = fingerprint(resolved);
+                fingerprints.put(file.path(), fingerprint);
+                
+                PackedImage packedImage = packedImages.get(file.path());
+                if (packedImage == null || !packedImage.fingerprint.equals(fingerprint)) {
+                    addedFiles.add(file);
+                }
+            }
+            
+            //images that were removed or modified leave a stale region behind
+            for (String path : packedImages.keys().toArray()) {
+                String fingerprint = fingerprints.get(path);
+                PackedImage packedImage = packedImages.get(path);
+                if (fingerprint == null || !fingerprint.equals(packedImage.fingerprint)) {
+                    packedImages.remove(path);
+                    if (packedImage.region != null) atlas.getRegions().removeValue(packedImage.region, true);
+                }
+            }
+            
+            int staleRegions = packedRegionCount - packedImages.size;
+            fullPack = (float) staleRegions / (packedRegionCount + addedFiles.size) > FRAGMENTATION_THRESHOLD;
+        }
+        
+        if (fullPack) {
+            if (atlas != null) atlas.dispose();
+            if (previewPacker != null) previewPacker.dispose();
+            
+            JsonValue settings = new JsonReader().parse(settingsFile);
+            previewPacker = createPreviewPacker(settings);
+            previewFilterMin = TextureFilter.valueOf(settings.getString("filterMin", "Linear"));
+            previewFilterMag = TextureFilter.valueOf(settings.getString("filterMag", "Linear"));
+            atlas = new TextureAtlas();
+            
+            packedImages.clear();
+            packedRegionCount = 0;
+            packedSettingsFingerprint = settingsFingerprint;
+            addedFiles = files;
+        }
+        
+        ObjectMap<String, PackedImage> newImages = new ObjectMap<>();
+        for (FileHandle file : addedFiles) {
+            FileHandle resolved = resolveImageFile(file);
+            if (resolved.exists()) {
+                PackedImage packedImage = new PackedImage();
+                packedImage.fingerprint = fingerprint(resolved);
+                packedImage.regionName = DrawableData.proper(file.name());
+                
+                //PixmapPacker truncates names at the first period, so pack under a unique key and rename afterwards
+                String key = "region" + packedRegionCount;
+                Pixmap pixmap = decodedImages == null ? null : decodedImages.remove(decodedImageKey(file, packedImage.fingerprint));
+                if (pixmap == null) pixmap = new Pixmap(resolved);
+                previewPacker.pack(Utils.isNinePatch(file.name()) ? key + ".9" : key, pixmap);
+                pixmap.dispose();
+                
+                packedImages.put(file.path(), packedImage);
+                newImages.put(key, packedImage);
+                packedRegionCount++;
+            } else {
+                Gdx.app.error(getClass().getName(), "File does not exist error while creating texture atlas: " + file.path());
+            }
+        }
+        
+        updatePreviewAtlas(newImages);
+        return warnings;
+    }
+    
+    /**
+     * Uploads the pages of the preview packer and gives the new regions their drawable names.
+     * @param newImages The images packed since the last update, keyed by the name they were packed under.
+     */
+    private void updatePreviewAtlas(ObjectMap<String, PackedImage> newImages) {
+        int firstNewRegion = atlas.getRegions().size;
+        previewPacker.updateTextureAtlas(atlas, previewFilterMin, previewFilterMag, false);
+        for (int i = firstNewRegion; i < atlas.getRegions().size; i++) {
+            AtlasRegion region = atlas.getRegions().get(i);
+            PackedImage packedImage = newImages.get(region.name);
+            if (packedImage != null) {
+                packedImage.region = region;
+                region.name = packedImage.regionName;
+            }
+        }
+    }
+    
+    /**
+     * Replaces the preview atlas with a full pack prepared by {@link AtlasBuildService}. Must be called on the rendering
+     * thread.
+     * @param preparedPack
+     */
+    private void adoptPreparedPack(PreparedPack preparedPack) {
+        if (atlas != null) atlas.dispose();
+        if (previewPacker != null) previewPacker.dispose();
+        
+        previewPacker = preparedPack.packer;
+        previewFilterMin = preparedPack.filterMin;
+        previewFilterMag = preparedPack.filterMag;
+        atlas = new TextureAtlas();
+        preparedPack.adopted = true;
+        
+        packedImages.clear();
+        packedImages.putAll(preparedPack.packedImages);
+        packedRegionCount = preparedPack.regionCount;
+        packedSettingsFingerprint = preparedPack.settingsFingerprint;
+        updatePreviewAtlas(preparedPack.newImages);
+    }
+    
+    /**
+     * Creates the packer for the preview atlas from the texture packer settings. PixmapPacker has a single padding for
+     * both axes, so the larger of paddingX and paddingY is used. bleed and edgePadding have no PixmapPacker equivalent
+     * and are left out, which only affects the filtering at the edges of regions in the preview. The exported atlas is
+     * made by TexturePacker with every setting.
+     * @param settings
+     * @return
+     */
+    private static PixmapPacker createPreviewPacker(JsonValue settings) {
+        int padding = Math.max(settings.getInt("paddingX", 2), settings.getInt("paddingY", 2));
+        return new PixmapPacker(settings.getInt("maxWidth", 2048), settings.getInt("maxHeight", 2048),
+                Pixmap.Format.RGBA8888, padding, settings.getBoolean("duplicatePadding", true),
+                new PixmapPacker.SkylineStrategy());
     }
     
     public Array<String> writeAtlas(FileHandle targetFile, FileHandle settingsFile) throws Exception {
         Array<String> warnings = new Array<>();
+        Array<FileHandle> files = collectImageFiles(warnings);
         targetFile.parent().mkdirs();
         FileHandle[] oldFiles = targetFile.parent().list(new FilenameFilter() {
             @Override
@@ -223,15 +486,55 @@ public class AtlasData implements Json.Serializable {
         }
         targetFile.sibling(targetFile.nameWithoutExtension() + ".atlas").delete();
         
+        desktopWorker.texturePack(files, projectData.getSaveFile(), targetFile, settingsFile, projectData.getExportThreads());
+        return warnings;
+    }
+    
+    /**
+     * Forces the next call to {@link #writeAtlas(FileHandle)} to perform a full pack.
+     */
+    public void invalidatePackedImages() {
+        packedSettingsFingerprint = null;
+    }
+    
+    boolean isFullPackRequired(String settingsFingerprint) {
+        return previewPacker == null || !settingsFingerprint.equals(packedSettingsFingerprint);
+    }
+    
+    /**
+     * Returns a copy of the fingerprints of the images currently in the preview atlas, keyed by drawable file path.
+     * @return 
+     */
+    ObjectMap<String, String> getPackedFingerprints() {
+        ObjectMap<String, String> fingerprints = new ObjectMap<>(packedImages.size);
+        for (ObjectMap.Entry<String, PackedImage> entry : packedImages) {
+            fingerprints.put(entry.key, entry.value.fingerprint);
+        }
+        return fingerprints;
+    }
+    
+    int getPackedRegionCount() {
+        return packedRegionCount;
+    }
+    
+    static String decodedImageKey(FileHandle file, String fingerprint) {
+        return file.path() + "|" + fingerprint;
+    }
+    
+    /**
+     * Lists the image files that make up the atlas.
+     * @param warnings Missing files are reported here. If null, the files are not checked for existence.
+     * @return 
+     */
+    Array<FileHandle> collectImageFiles(Array<String> warnings) {
         Array<FileHandle> files = new Array<>();
         
-        
         for (DrawableData drawable : fontDrawables) {
             if (!files.contains(drawable.file, false)) {
                 files.add(drawable.file);
             }
             
-            if (!projectData.resourceExists(drawable.file)) {
+            if (warnings != null && !projectData.resourceExists(drawable.file)) {
                 warnings.add("[RED]ERROR:[] Drawable file [BLACK]" + drawable.file + "[] does not exist.");
             }
         }
@@ -244,7 +547,7 @@ public class AtlasData implements Json.Serializable {
                     files.add(drawable.file);
                 }
 
-                if (!projectData.resourceExists(drawable.file)) {
+                if (warnings != null && !projectData.resourceExists(drawable.file)) {
                     warnings.add("[RED]ERROR:[] Drawable file [BLACK]" + drawable.file + "[] does not exist.");
                 }
             }
@@ -255,22 +558,43 @@ public class AtlasData implements Json.Serializable {
             files.add(fileHandle);
         }
         
-        desktopWorker.texturePack(files, projectData.getSaveFile(), targetFile, settingsFile);
-        return warnings;
+        return files;
     }
     
-    public TextureAtlas getAtlas() {
-        TextureAtlas atlas = null;
-        FileHandle atlasFile = Main.appFolder.child("temp/" + projectData.getId() + ".atlas");
-        if (atlasFile.exists()) {
-            atlas = new TextureAtlas(atlasFile);
+    /**
+     * Finds the image in the project's data folder if it does not exist at its original location. This matches the
+     * lookup done by {@link com.ray3k.skincomposer.DesktopWorker#texturePack(Array, FileHandle, FileHandle, FileHandle, int)}.
+     * @param file
+     * @return 
+     */
+    private FileHandle resolveImageFile(FileHandle file) {
+        return resolveImageFile(file, projectData.getSaveFile());
+    }
+    
+    static FileHandle resolveImageFile(FileHandle file, FileHandle saveFile) {
+        if (!file.exists() && saveFile != null) {
+            return saveFile.sibling(saveFile.nameWithoutExtension() + "_data/" + file.name());
         }
+        return file;
+    }
+    
+    static String fingerprint(FileHandle file) {
+        return file.exists() ? file.length() + ":" + file.lastModified() : "missing";
+    }
+    
+    /**
+     * Returns the in-memory preview atlas created by {@link #writeAtlas(FileHandle)}. The atlas is owned by AtlasData
+     * and must not be disposed by the caller.
+     * @return 
+     */
+    public TextureAtlas getAtlas() {
         return atlas;
     }
     
     public void clearTempData() {
         FileHandle tempFolder = Main.appFolder.child("temp/");
         tempFolder.deleteDirectory();
+        invalidatePackedImages();
     }
     
     public void set(AtlasData atlasData) {
@@ -284,15 +608,17 @@ public class AtlasData implements Json.Serializable {
     @Override
     public void write(Json json) {
         json.writeValue("atlasCurrent", atlasCurrent);
-        json.writeValue("drawables", drawables, Array.class, DrawableData.class);
-        json.writeValue("fontDrawables", fontDrawables, Array.class, DrawableData.class);
+        json.writeValue("drawables", new Array<>(drawables), Array.class, DrawableData.class);
+        json.writeValue("fontDrawables", new Array<>(fontDrawables), Array.class, DrawableData.class);
     }
 
     @Override
     public void read(Json json, JsonValue jsonData) {
         atlasCurrent = json.readValue("atlasCurrent", Boolean.TYPE, jsonData);
-        drawables = json.readValue("drawables", Array.class, DrawableData.class, jsonData);
-        fontDrawables = json.readValue("fontDrawables", Array.class, DrawableData.class, new Array<DrawableData>(),jsonData);
+        drawables.clear();
+        drawables.addAll(json.readValue("drawables", Array.class, DrawableData.class, new Array<DrawableData>(), jsonData));
+        fontDrawables.clear();
+        fontDrawables.addAll(json.readValue("fontDrawables", Array.class, DrawableData.class, new Array<DrawableData>(),jsonData));
         assignDrawableTypes();
     }
     
@@ -334,16 +660,7 @@ public class AtlasData implements Json.Serializable {
      * @return
      */
     public boolean checkIfDrawableNameExists(String name) {
-        boolean returnValue = false;
-        
-        for (DrawableData drawable : getDrawables()) {
-            if (drawable.name.equals(name)) {
-                returnValue = true;
-                break;
-            }
-        }
-        
-        return returnValue;
+        return drawables.contains(name);
     }
     
     /**
@@ -352,34 +669,40 @@ public class AtlasData implements Json.Serializable {
      * @return
      */
     public boolean checkIfFontDrawableNameExists(String name) {
-        boolean returnValue = false;
-        
-        for (DrawableData drawable : getFontDrawables()) {
-            if (drawable.name.equals(name)) {
-                returnValue = true;
-                break;
-            }
-        }
-        
-        return returnValue;
+        return fontDrawables.contains(name);
     }
     
     /**
      * Writes a TextureAtlas based on drawables list. Creates drawables to be
-     * displayed on screen
+     * displayed on screen. This blocks the rendering thread, so edits should
+     * use {@link AtlasBuildService#requestBuild(AtlasBuildService.BuildListener)}
+     * instead. It is only called where the drawables are read straight
+     * afterwards and a deferred build would show stale or missing drawables:
+     * when a project is loaded, imported, or cleared before the UI is
+     * populated, when the drawables and fonts dialogs open, when the regions of
+     * a new font or of ten patch animation frames are looked up, and when
+     * changes are rolled back after a failed build.
      * @return
+     * @see AtlasBuildService#requestBuild(AtlasBuildService.BuildListener) 
      */
     public boolean produceAtlas() {
+        return produceAtlas(null, null);
+    }
+    
+    /**
+     * Writes a TextureAtlas based on drawables list, using images decoded or packed in advance where possible. The
+     * drawables replace the contents of {@link #drawablePairs} only once they have all been created.
+     * @param decodedImages May be null.
+     * @param preparedPack May be null. Disposed by the caller if it was not adopted.
+     * @return 
+     */
+    boolean produceAtlas(ObjectMap<String, Pixmap> decodedImages, PreparedPack preparedPack) {
         try {
-            drawablePairs.clear();
+            var newPairs = new IdentityMap<DrawableData, Drawable>();
             
             if (!atlasData.atlasCurrent) {
-                if (atlas != null) {
-                    atlas.dispose();
-                    atlas = null;
-                }
                 FileHandle defaultsFile = Main.appFolder.child("texturepacker/atlas-internal-settings.json");
-                atlasData.writeAtlas(defaultsFile);
+                atlasData.packPreviewAtlas(defaultsFile, decodedImages, preparedPack);
                 atlasData.atlasCurrent = true;
                 
                 //clear all regions in any tenPatchData
@@ -389,7 +712,6 @@ public class AtlasData implements Json.Serializable {
                     }
                 }
             }
-            atlas = atlasData.getAtlas();
             
             var combined = new Array<>(getDrawables());
             combined.addAll(getFontDrawables());
@@ -489,10 +811,18 @@ public class AtlasData implements Json.Serializable {
                     if (!MathUtils.isEqual(data.minHeight, -1)) drawable.setMinHeight(data.minHeight);
                 }
                 
-                drawablePairs.put(data, drawable);
+                newPairs.put(data, drawable);
             }
+            
+            drawablePairs.clear();
+            drawablePairs.putAll(newPairs);
+            drawablesVersion++;
+            TenPatchAnimator.setProjectDrawables(drawablePairs);
             return true;
         } catch (Exception e) {
+            drawablePairs.clear();
+            drawablesVersion++;
+            TenPatchAnimator.setProjectDrawables(drawablePairs);
             Gdx.app.error(getClass().getName(), "Error while attempting to generate drawables.", e);
             dialogFactory.showDialogError("Atlas Error...","Error while attempting to generate drawables.\n\nOpen log?");
             return false;
@@ -502,4 +832,101 @@ public class AtlasData implements Json.Serializable {
     public ObjectMap<DrawableData, Drawable> getDrawablePairs() {
         return drawablePairs;
     }
+    
+    /**
+     * Returns a counter that changes every time the contents of {@link #drawablePairs} are replaced. Colors and fonts
+     * are edited together with a rebuild of the atlas, so this also changes after those edits.
+     * @return
+     */
+    public int getDrawablesVersion() {
+        return drawablesVersion;
+    }
+    
+    private static class PackedImage {
+        private String fingerprint;
+        private String regionName;
+        private AtlasRegion region;
+    }
+    
+    /**
+     * A full pack of the preview atlas made off the rendering thread by {@link AtlasBuildService}. Each image is packed
+     * into the pages as soon as it is decoded and disposed straight away, so only one image is held in memory at a time.
+     * The pages are uploaded to the GPU when the pack is adopted on the rendering thread.
+     */
+    static class PreparedPack implements Disposable {
+        private final PixmapPacker packer;
+        private final TextureFilter filterMin;
+        private final TextureFilter filterMag;
+        private final String settingsFingerprint;
+        private final Array<String> paths = new Array<>();
+        private final Array<String> fingerprints = new Array<>();
+        private final ObjectMap<String, PackedImage> packedImages = new ObjectMap<>();
+        private final ObjectMap<String, PackedImage> newImages = new ObjectMap<>();
+        private int regionCount;
+        private boolean adopted;
+        
+        PreparedPack(FileHandle settingsFile, String settingsFingerprint) {
+            JsonValue settings = new JsonReader().parse(settingsFile);
+            packer = createPreviewPacker(settings);
+            filterMin = TextureFilter.valueOf(settings.getString("filterMin", "Linear"));
+            filterMag = TextureFilter.valueOf(settings.getString("filterMag", "Linear"));
+            this.settingsFingerprint = settingsFingerprint;
+        }
+        
+        /**
+         * Decodes the image and packs it. Files that do not exist are recorded as part of the pack but not packed, which
+         * is reported when the atlas is published.
+         * @param file The drawable file.
+         * @param resolved The file to read the image from.
+         * @param fingerprint The fingerprint of the resolved file when it was read. The pack is only adopted if the file
+         *                    still has it.
+         */
+        void pack(FileHandle file, FileHandle resolved, String fingerprint) {
+            paths.add(file.path());
+            fingerprints.add(fingerprint);
+            if (!resolved.exists()) return;
+            
+            var packedImage = new PackedImage();
+            packedImage.fingerprint = fingerprint;
+            packedImage.regionName = DrawableData.proper(file.name());
+            
+            String key = "region" + regionCount;
+            var pixmap = new Pixmap(resolved);
+            try {
+                packer.pack(Utils.isNinePatch(file.name()) ? key + ".9" : key, pixmap);
+            } finally {
+                pixmap.dispose();
+            }
+            
+            packedImages.put(file.path(), packedImage);
+            newImages.put(key, packedImage);
+            regionCount++;
+        }
+        
+        /**
+         * Returns true if the pack was made from the same settings and the same files, unchanged since they were
+         * decoded.
+         * @param settingsFingerprint
+         * @param files
+         * @param saveFile
+         * @return
+         */
+        private boolean matches(String settingsFingerprint, Array<FileHandle> files, FileHandle saveFile) {
+            if (!this.settingsFingerprint.equals(settingsFingerprint) || paths.size != files.size) return false;
+            for (int i = 0; i < files.size; i++) {
+                var file = files.get(i);
+                if (!paths.get(i).equals(file.path())) return false;
+                if (!fingerprints.get(i).equals(fingerprint(resolveImageFile(file, saveFile)))) return false;
+            }
+            return true;
+        }
+        
+        /**
+         * Disposes the pages unless the pack has been adopted as the preview atlas.
+         */
+        @Override
+        public void dispose() {
+            if (!adopted) packer.dispose();
+        }
+    }
 }
\ No newline at end of file
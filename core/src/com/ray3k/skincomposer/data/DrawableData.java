@@ -26,6 +26,7 @@ package com.ray3k.skincomposer.data;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.ray3k.skincomposer.dialog.DialogTenPatch;
+import com.ray3k.skincomposer.utils.ImageMetadataCache;
 import com.ray3k.skincomposer.utils.Utils;
 
 public class DrawableData {
@@ -63,12 +64,14 @@ public class DrawableData {
 
     public DrawableData(FileHandle file) {
         this.file = file;
-        Color temp = Utils.averageEdgeColor(file);
-        if (Utils.brightness(temp) > .5f) {
-            bgColor = Color.BLACK;
-        } else {
-            bgColor = Color.WHITE;
-        }
+        bgColor = Color.WHITE;
+        ImageMetadataCache.requestEdgeColor(file, edgeColor -> {
+            if (Utils.brightness(edgeColor) > .5f) {
+                bgColor = Color.BLACK;
+            } else {
+                bgColor = Color.WHITE;
+            }
+        });
         this.name = proper(file.name());
         customized = false;
         minWidth = -1;
@@ -131,6 +134,11 @@ public class DrawableData {
         return false;
     }
     
+    @Override
+    public int hashCode() {
+        return name != null ? name.hashCode() : 0;
+    }
+    
     public static String proper(String name) {
         return name.replaceFirst("(\\.9)?\\.[a-zA-Z0-9]*$", "");
     }
@@ -0,0 +1,412 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Caches rasterized FreeType fonts on disk so that fonts don't have to be generated again every time a project is
+ * loaded or a preview is refreshed. Entries are addressed by a hash of the TTF file contents and every
+ * FreeTypeFontParameter value that affects the result. An entry consists of the glyph pages as PNG files and a JSON
+ * file with the font metrics and glyphs. The JSON file is written last, so an entry is only used once it is complete.
+ */
+public class FreeTypeFontCache {
+    /**
+     * Increment when the layout of the cache files changes so that old entries are ignored.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The number of entries kept on disk. The least recently used entries are deleted beyond this.
+     */
+    public static final int MAX_ENTRIES = 256;
+    private static final int PAGE_SIZE = 1024;
+    /**
+     * The largest page fonts are generated into when a glyph does not fit on a page of {@link #PAGE_SIZE}.
+     */
+    private static final int MAX_PAGE_SIZE = 16384;
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "Font Cache Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ObjectMap<String, String> fileHashes = new ObjectMap<>();
+    
+    public static class CachedFont {
+        public int pages;
+        public boolean flipped;
+        public float lineHeight, capHeight, ascent, descent, down, xHeight, spaceXadvance, blankLineScale;
+        public float padTop, padRight, padBottom, padLeft;
+        public int missingGlyph = -1;
+        /**
+         * id, srcX, srcY, width, height, xoffset, yoffset, xadvance, and page for every glyph.
+         */
+        public int[] glyphs;
+        /**
+         * first, second, and amount for every kerning pair.
+         */
+        public int[] kerning;
+    }
+    
+    /**
+     * The result of {@link #prepare(FileHandle, FreeTypeFontParameter)}. The glyph pages are held as pixmaps until the
+     * font is created with {@link #createFont(PreparedFont)} or the result is discarded with
+     * {@link #dispose(PreparedFont)}.
+     */
+    public static class PreparedFont {
+        private BitmapFontData data;
+        private final Array<Pixmap> pixmaps = new Array<>();
+        private FreeTypeFontParameter parameter;
+        private FileHandle folder;
+        private String key;
+        /**
+         * The packer the font was generated into. Null if the font was read from the cache.
+         */
+        private PixmapPacker packer;
+        private CachedFont cachedFont;
+    }
+    
+    /**
+     * Generates a BitmapFont from the TTF file or loads it from the cache if it was generated with the same file
+     * contents and parameters before. The returned font owns its textures.
+     * @param ttf
+     * @param parameter The packer and incremental values are ignored.
+     * @return
+     * @throws com.badlogic.gdx.utils.GdxRuntimeException if the font can't be generated.
+     */
+    public static BitmapFont generateFont(FileHandle ttf, FreeTypeFontParameter parameter) {
+        return createFont(prepare(ttf, parameter));
+    }
+    
+    /**
+     * Rasterizes the font or reads it from the cache without creating any textures. This does not require the GL
+     * context and may be called on any thread, each call using its own FreeTypeFontGenerator.
+     * @param ttf
+     * @param parameter The packer and incremental values are ignored.
+     * @return
+     * @throws com.badlogic.gdx.utils.GdxRuntimeException if the font can't be generated.
+     */
+    public static PreparedFont prepare(FileHandle ttf, FreeTypeFontParameter parameter) {
+        var prepared = new PreparedFont();
+        prepared.parameter = parameter;
+        prepared.folder = appFolder.child("font cache/");
+        try {
+            prepared.key = createKey(ttf, parameter);
+            if (load(prepared)) return prepared;
+        } catch (Exception e) {
+            //a damaged entry is replaced by generating the font again
+            dispose(prepared);
+            Gdx.app.error(FreeTypeFontCache.class.getName(), "Error while reading the font cache for " + ttf.path(), e);
+        }
+        
+        var generator = new FreeTypeFontGenerator(ttf);
+        try {
+            //large sizes and borders can produce glyphs that don't fit on a page, so grow the page until they do
+            int pageSize = PAGE_SIZE;
+            while (true) {
+                var packer = new PixmapPacker(pageSize, pageSize, Pixmap.Format.RGBA8888, 1, false, new PixmapPacker.SkylineStrategy());
+                try {
+                    //clear the pages to the glyph color like FreeTypeFontGenerator does, so filtering doesn't darken the edges
+                    var transparentColor = new Color(parameter.borderWidth > 0 ? parameter.borderColor : parameter.color);
+                    transparentColor.a = 0;
+                    packer.setTransparentColor(transparentColor);
+                    parameter.packer = packer;
+                    parameter.incremental = false;
+                    prepared.data = generator.generateData(parameter);
+                    
+                    prepared.packer = packer;
+                    for (var page : packer.getPages()) {
+                        prepared.pixmaps.add(page.getPixmap());
+                    }
+                    prepared.cachedFont = toCachedFont(prepared.data, prepared.pixmaps.size);
+                    return prepared;
+                } catch (GdxRuntimeException e) {
+                    packer.dispose();
+                    if (pageSize >= MAX_PAGE_SIZE || e.getMessage() == null || !e.getMessage().startsWith("Page size too small")) throw e;
+                    pageSize *= 2;
+                } catch (RuntimeException e) {
+                    packer.dispose();
+                    throw e;
+                } finally {
+                    parameter.packer = null;
+                }
+            }
+        } finally {
+            generator.dispose();
+        }
+    }
+    
+    /**
+     * Uploads the glyph pages of a prepared font and creates the BitmapFont. Newly generated fonts are written to the
+     * cache afterwards. Must be called on the rendering thread.
+     * @param prepared
+     * @return A font that owns its textures.
+     */
+    public static BitmapFont createFont(PreparedFont prepared) {
+        try {
+            var regions = new Array<TextureRegion>();
+            for (var pixmap : prepared.pixmaps) {
+                var texture = new Texture(pixmap, prepared.parameter.genMipMaps);
+                texture.setFilter(prepared.parameter.minFilter, prepared.parameter.magFilter);
+                regions.add(new TextureRegion(texture));
+            }
+            var font = new BitmapFont(prepared.data, regions, true);
+            font.setOwnsTexture(true);
+            return font;
+        } finally {
+            if (prepared.packer != null && prepared.key != null) {
+                //the packer owns the pixmaps, so it is disposed once the entry has been written
+                var packer = prepared.packer;
+                prepared.packer = null;
+                prepared.pixmaps.clear();
+                executor.execute(() -> write(prepared.folder, prepared.key, prepared.cachedFont, packer));
+            } else {
+                dispose(prepared);
+            }
+        }
+    }
+    
+    /**
+     * Releases the pixmaps of a prepared font that will not be created.
+     * @param prepared
+     */
+    public static void dispose(PreparedFont prepared) {
+        if (prepared.packer != null) {
+            prepared.packer.dispose();
+            prepared.packer = null;
+        } else {
+            for (var pixmap : prepared.pixmaps) pixmap.dispose();
+        }
+        prepared.pixmaps.clear();
+    }
+    
+    private static String createKey(FileHandle ttf, FreeTypeFontParameter parameter) throws NoSuchAlgorithmException {
+        var builder = new StringBuilder();
+        builder.append(VERSION).append('|').append(hashFile(ttf));
+        builder.append('|').append(parameter.size).append('|').append(parameter.mono).append('|').append(parameter.hinting);
+        builder.append('|').append(parameter.color).append('|').append(parameter.gamma).append('|').append(parameter.renderCount);
+        builder.append('|').append(parameter.borderWidth).append('|').append(parameter.borderColor);
+        builder.append('|').append(parameter.borderStraight).append('|').append(parameter.borderGamma);
+        builder.append('|').append(parameter.shadowOffsetX).append('|').append(parameter.shadowOffsetY);
+        builder.append('|').append(parameter.shadowColor).append('|').append(parameter.spaceX).append('|').append(parameter.spaceY);
+        builder.append('|').append(parameter.padTop).append('|').append(parameter.padRight);
+        builder.append('|').append(parameter.padBottom).append('|').append(parameter.padLeft);
+        builder.append('|').append(parameter.kerning).append('|').append(parameter.flip);
+        builder.append('|').append(parameter.characters);
+        return hash(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Hashes the contents of the file. The hash is remembered for as long as the file isn't modified.
+     * @param file
+     * @return
+     * @throws NoSuchAlgorithmException
+     */
+    private static synchronized String hashFile(FileHandle file) throws NoSuchAlgorithmException {
+        var fingerprint = file.path() + ":" + AtlasData.fingerprint(file);
+        var hash = fileHashes.get(fingerprint);
+        if (hash == null) {
+            hash = hash(file.readBytes());
+            fileHashes.put(fingerprint, hash);
+        }
+        return hash;
+    }
+    
+    private static String hash(byte[] bytes) throws NoSuchAlgorithmException {
+        var digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+        var builder = new StringBuilder();
+        for (var b : digest) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+    
+    /**
+     * Reads the entry for the prepared font into it.
+     * @param prepared
+     * @return false if there is no entry.
+     */
+    private static boolean load(PreparedFont prepared) {
+        var dataFile = prepared.folder.child(prepared.key + ".json");
+        if (!dataFile.exists()) return false;
+        
+        var cachedFont = new Json().fromJson(CachedFont.class, dataFile);
+        var data = new BitmapFontData();
+        data.flipped = cachedFont.flipped;
+        data.lineHeight = cachedFont.lineHeight;
+        data.capHeight = cachedFont.capHeight;
+        data.ascent = cachedFont.ascent;
+        data.descent = cachedFont.descent;
+        data.down = cachedFont.down;
+        data.xHeight = cachedFont.xHeight;
+        data.spaceXadvance = cachedFont.spaceXadvance;
+        data.blankLineScale = cachedFont.blankLineScale;
+        data.padTop = cachedFont.padTop;
+        data.padRight = cachedFont.padRight;
+        data.padBottom = cachedFont.padBottom;
+        data.padLeft = cachedFont.padLeft;
+        
+        var glyphs = new IntMap<Glyph>();
+        for (int i = 0; i < cachedFont.glyphs.length; i += 9) {
+            var glyph = new Glyph();
+            glyph.id = cachedFont.glyphs[i];
+            glyph.srcX = cachedFont.glyphs[i + 1];
+            glyph.srcY = cachedFont.glyphs[i + 2];
+            glyph.width = cachedFont.glyphs[i + 3];
+            glyph.height = cachedFont.glyphs[i + 4];
+            glyph.xoffset = cachedFont.glyphs[i + 5];
+            glyph.yoffset = cachedFont.glyphs[i + 6];
+            glyph.xadvance = cachedFont.glyphs[i + 7];
+            glyph.page = cachedFont.glyphs[i + 8];
+            data.setGlyph(glyph.id, glyph);
+            glyphs.put(glyph.id, glyph);
+        }
+        for (int i = 0; i < cachedFont.kerning.length; i += 3) {
+            var glyph = glyphs.get(cachedFont.kerning[i]);
+            if (glyph != null) glyph.setKerning(cachedFont.kerning[i + 1], cachedFont.kerning[i + 2]);
+        }
+        if (cachedFont.missingGlyph != -1) data.missingGlyph = glyphs.get(cachedFont.missingGlyph);
+        
+        for (int i = 0; i < cachedFont.pages; i++) {
+            prepared.pixmaps.add(new Pixmap(prepared.folder.child(prepared.key + "_" + i + ".png")));
+        }
+        prepared.data = data;
+        
+        //mark the entry as recently used
+        dataFile.file().setLastModified(System.currentTimeMillis());
+        return true;
+    }
+    
+    private static CachedFont toCachedFont(BitmapFontData data, int pages) {
+        var cachedFont = new CachedFont();
+        cachedFont.pages = pages;
+        cachedFont.flipped = data.flipped;
+        cachedFont.lineHeight = data.lineHeight;
+        cachedFont.capHeight = data.capHeight;
+        cachedFont.ascent = data.ascent;
+        cachedFont.descent = data.descent;
+        cachedFont.down = data.down;
+        cachedFont.xHeight = data.xHeight;
+        cachedFont.spaceXadvance = data.spaceXadvance;
+        cachedFont.blankLineScale = data.blankLineScale;
+        cachedFont.padTop = data.padTop;
+        cachedFont.padRight = data.padRight;
+        cachedFont.padBottom = data.padBottom;
+        cachedFont.padLeft = data.padLeft;
+        if (data.missingGlyph != null) cachedFont.missingGlyph = data.missingGlyph.id;
+        
+        var glyphs = new IntArray();
+        var kerning = new IntArray();
+        for (var page : data.glyphs) {
+            if (page == null) continue;
+            for (var glyph : page) {
+                if (glyph == null) continue;
+                glyphs.addAll(glyph.id, glyph.srcX, glyph.srcY, glyph.width, glyph.height, glyph.xoffset, glyph.yoffset, glyph.xadvance, glyph.page);
+                
+                if (glyph.kerning == null) continue;
+                for (int i = 0; i < glyph.kerning.length; i++) {
+                    var kerningPage = glyph.kerning[i];
+                    if (kerningPage == null) continue;
+                    for (int j = 0; j < kerningPage.length; j++) {
+                        if (kerningPage[j] != 0) kerning.addAll(glyph.id, i * kerningPage.length + j, kerningPage[j]);
+                    }
+                }
+            }
+        }
+        cachedFont.glyphs = glyphs.toArray();
+        cachedFont.kerning = kerning.toArray();
+        return cachedFont;
+    }
+    
+    /**
+     * Writes the entry on the cache writer thread and disposes the packer afterwards.
+     * @param folder
+     * @param key
+     * @param cachedFont
+     * @param packer
+     */
+    private static void write(FileHandle folder, String key, CachedFont cachedFont, PixmapPacker packer) {
+        try {
+            var pages = packer.getPages();
+            for (int i = 0; i < pages.size; i++) {
+                PixmapIO.writePNG(folder.child(key + "_" + i + ".png"), pages.get(i).getPixmap());
+            }
+            
+            var json = new Json(JsonWriter.OutputType.minimal);
+            json.setUsePrototypes(false);
+            folder.child(key + ".json").writeString(json.toJson(cachedFont), false, "UTF-8");
+            
+            trim(folder);
+        } catch (Exception e) {
+            Gdx.app.error(FreeTypeFontCache.class.getName(), "Error while writing the font cache", e);
+        } finally {
+            packer.dispose();
+        }
+    }
+    
+    /**
+     * Deletes the least recently used entries beyond {@link #MAX_ENTRIES}.
+     * @param folder
+     */
+    private static void trim(FileHandle folder) {
+        var dataFiles = new Array<>(folder.list(".json"));
+        if (dataFiles.size <= MAX_ENTRIES) return;
+        
+        dataFiles.sort((a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+        for (int i = MAX_ENTRIES; i < dataFiles.size; i++) {
+            var key = dataFiles.get(i).nameWithoutExtension();
+            dataFiles.get(i).delete();
+            for (var file : folder.list((dir, name) -> name.startsWith(key + "_"))) {
+                file.delete();
+            }
+        }
+    }
+}
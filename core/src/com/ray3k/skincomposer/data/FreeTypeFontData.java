@@ -109,69 +109,81 @@ public class FreeTypeFontData implements Json.Serializable {
             bitmapFont = null;
         }
         
+        var ttf = getPreviewFile();
+        if (ttf == null) return;
+        try {
+            bitmapFont = FreeTypeFontCache.generateFont(ttf, createParameter());
+        } catch (GdxRuntimeException e) {
+            bitmapFont = null;
+        }
+    }
+    
+    /**
+     * Returns the TTF file that the preview font is generated from.
+     * @return null if the file doesn't exist.
+     */
+    public FileHandle getPreviewFile() {
         if (!useCustomSerializer) {
-            if (previewTTF == null) return;
-            FreeTypeFontParameter parameter = new FreeTypeFontParameter();
-            parameter.color = Color.BLACK;
-            
+            if (previewTTF == null) return null;
             FileHandle previewFontPath = appFolder.child("preview fonts/" + previewTTF + ".ttf");
-            if (previewFontPath.exists()) {
-                FreeTypeFontGenerator generator = new FreeTypeFontGenerator(previewFontPath);
-                generator.setMaxTextureSize(FreeTypeFontGenerator.NO_MAXIMUM);
-                bitmapFont = generator.generateFont(parameter);
-                generator.dispose();
-            }
+            return previewFontPath.exists() ? previewFontPath : null;
         } else {
-            if (file == null || !file.exists()) return;
-            FreeTypeFontGenerator generator = new FreeTypeFontGenerator(file);
-            generator.setMaxTextureSize(FreeTypeFontGenerator.NO_MAXIMUM);
+            return file == null || !file.exists() ? null : file;
+        }
+    }
+    
+    /**
+     * Creates the parameter used to generate the preview font. Colors are resolved from the project's colors, so this
+     * must be called on the rendering thread. The colors are copied so that the parameter can be used on another thread.
+     * @return
+     */
+    public FreeTypeFontParameter createParameter() {
+        if (!useCustomSerializer) {
             FreeTypeFontParameter parameter = new FreeTypeFontParameter();
+            parameter.color = Color.BLACK;
+            return parameter;
+        }
+        
+        FreeTypeFontParameter parameter = new FreeTypeFontParameter();
 
-            if (borderColor != null) for (ColorData colorData : jsonData.getColors()) {
-                if (colorData.getName().equals(borderColor)) {
-                    parameter.borderColor = colorData.color;
-                    break;
-                }
-            }
-            parameter.borderGamma = borderGamma;
-            parameter.borderStraight = borderStraight;
-            parameter.borderWidth = borderWidth;
-            parameter.characters = characters.equals("") ? DEFAULT_CHARS : characters;
-            if (color != null) for (ColorData colorData : jsonData.getColors()) {
-                if (colorData.getName().equals(color)) {
-                    parameter.color = colorData.color;
-                    break;
-                }
+        if (borderColor != null) for (ColorData colorData : jsonData.getColors()) {
+            if (colorData.getName().equals(borderColor)) {
+                parameter.borderColor = new Color(colorData.color);
+                break;
             }
-            parameter.flip = flip;
-            parameter.gamma = gamma;
-            parameter.genMipMaps = genMipMaps;
-            parameter.hinting = hinting == null ? Hinting.AutoMedium : Hinting.valueOf(hinting);
-            parameter.incremental = false;
-            parameter.kerning = kerning;
-            parameter.magFilter = magFilter == null ? TextureFilter.Nearest : TextureFilter.valueOf(magFilter);
-            parameter.minFilter = minFilter == null ? TextureFilter.Nearest : TextureFilter.valueOf(minFilter);
-            parameter.mono = mono;
-            parameter.renderCount = renderCount;
-            if (shadowColor != null) for (ColorData colorData : jsonData.getColors()) {
-                if (colorData.getName().equals(shadowColor)) {
-                    parameter.shadowColor = colorData.color;
-                    break;
-                }
+        }
+        parameter.borderGamma = borderGamma;
+        parameter.borderStraight = borderStraight;
+        parameter.borderWidth = borderWidth;
+        parameter.characters = characters.equals("") ? DEFAULT_CHARS : characters;
+        if (color != null) for (ColorData colorData : jsonData.getColors()) {
+            if (colorData.getName().equals(color)) {
+                parameter.color = new Color(colorData.color);
+                break;
             }
-            parameter.shadowOffsetX = shadowOffsetX;
-            parameter.shadowOffsetY = shadowOffsetY;
-            parameter.size = size;
-            parameter.spaceX = spaceX;
-            parameter.spaceY = spaceY;
-            
-            try {
-                bitmapFont = generator.generateFont(parameter);
-            } catch (GdxRuntimeException e) {
-                bitmapFont = null;
+        }
+        parameter.flip = flip;
+        parameter.gamma = gamma;
+        parameter.genMipMaps = genMipMaps;
+        parameter.hinting = hinting == null ? Hinting.AutoMedium : Hinting.valueOf(hinting);
+        parameter.incremental = false;
+        parameter.kerning = kerning;
+        parameter.magFilter = magFilter == null ? TextureFilter.Nearest : TextureFilter.valueOf(magFilter);
+        parameter.minFilter = minFilter == null ? TextureFilter.Nearest : TextureFilter.valueOf(minFilter);
+        parameter.mono = mono;
+        parameter.renderCount = renderCount;
+        if (shadowColor != null) for (ColorData colorData : jsonData.getColors()) {
+            if (colorData.getName().equals(shadowColor)) {
+                parameter.shadowColor = new Color(colorData.color);
+                break;
             }
-            generator.dispose();
         }
+        parameter.shadowOffsetX = shadowOffsetX;
+        parameter.shadowOffsetY = shadowOffsetY;
+        parameter.size = size;
+        parameter.spaceX = spaceX;
+        parameter.spaceY = spaceY;
+        return parameter;
     }
     
     public void writeFontToFile(Main main, FileHandle target) {
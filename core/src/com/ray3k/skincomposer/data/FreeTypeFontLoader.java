@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.ray3k.skincomposer.data.FreeTypeFontCache.PreparedFont;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Creates the preview fonts of FreeTypeFontDatas without blocking the rendering thread. Fonts are rasterized in
+ * parallel on a pool of worker threads and their glyph pages are uploaded on the rendering thread as each one
+ * finishes. The preview is refreshed once every font of the current request has been created.
+ */
+public class FreeTypeFontLoader {
+    private static final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()), runnable -> {
+        var thread = new Thread(runnable, "FreeType Rasterizer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Array<Job> jobs = new Array<>();
+    private static int generation;
+    
+    private static class Job {
+        private FreeTypeFontData font;
+        private Future<PreparedFont> future;
+        private int generation;
+    }
+    
+    /**
+     * Disposes the current preview fonts and starts creating new ones. Fonts that are still being created by an
+     * earlier request are discarded. Must be called on the rendering thread.
+     * @param fonts
+     */
+    public static void load(Array<FreeTypeFontData> fonts) {
+        cancel();
+        
+        for (var font : fonts) {
+            if (font.bitmapFont != null) {
+                font.bitmapFont.dispose();
+                font.bitmapFont = null;
+            }
+            
+            var ttf = font.getPreviewFile();
+            if (ttf == null) continue;
+            
+            var parameter = font.createParameter();
+            var job = new Job();
+            job.font = font;
+            job.generation = generation;
+            var task = new FutureTask<>(() -> FreeTypeFontCache.prepare(ttf, parameter)) {
+                @Override
+                protected void done() {
+                    Gdx.app.postRunnable(FreeTypeFontLoader::update);
+                }
+            };
+            job.future = task;
+            jobs.add(job);
+            executor.execute(task);
+        }
+    }
+    
+    /**
+     * Discards every font that has not been created yet. Must be called on the rendering thread.
+     */
+    public static void cancel() {
+        generation++;
+        for (int i = jobs.size - 1; i >= 0; i--) {
+            //fonts that are already being rasterized are disposed when they finish
+            if (jobs.get(i).future.cancel(false)) jobs.removeIndex(i);
+        }
+    }
+    
+    /**
+     * Returns true if fonts of the current request have not been created yet.
+     * @return
+     */
+    public static boolean isLoading() {
+        for (var job : jobs) {
+            if (job.generation == generation) return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Blocks until every font of the current request has been created. Use this before showing anything that requires
+     * the preview fonts. Must be called on the rendering thread.
+     */
+    public static void finishLoading() {
+        for (var job : jobs) {
+            try {
+                job.future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                //the error is reported by update()
+            }
+        }
+        update();
+    }
+    
+    /**
+     * Creates the fonts that have finished rasterizing.
+     */
+    private static void update() {
+        boolean loading = isLoading();
+        
+        for (int i = jobs.size - 1; i >= 0; i--) {
+            var job = jobs.get(i);
+            if (!job.future.isDone()) continue;
+            jobs.removeIndex(i);
+            
+            PreparedFont prepared;
+            try {
+                prepared = job.future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                Gdx.app.error(FreeTypeFontLoader.class.getName(), "Error while creating the preview font " + job.font.name, e);
+                continue;
+            }
+            
+            //the font may have been recreated or removed while it was being rasterized
+            if (job.generation != generation || job.font.bitmapFont != null || !jsonData.getFreeTypeFonts().contains(job.font, true)) {
+                FreeTypeFontCache.dispose(prepared);
+            } else {
+                job.font.bitmapFont = FreeTypeFontCache.createFont(prepared);
+            }
+        }
+        
+        if (loading && !isLoading() && rootTable != null) rootTable.refreshPreview();
+    }
+}
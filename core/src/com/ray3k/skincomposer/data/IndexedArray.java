@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2021 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * An Array that keeps an index of its items by name for constant time lookups. Items appended with {@link #add(Object)}
+ * are indexed immediately. Any other structural change marks the index dirty and it is rebuilt on the next lookup.
+ * Items that are renamed in place should be reported with {@link #invalidate()}. Lookups still find them by their new
+ * name without it, but a lookup that misses or finds a renamed item has to rebuild the index, which costs as much as a
+ * linear search. If multiple items share a name, the first one in the array is returned, matching a linear search.
+ * @param <T>
+ */
+public class IndexedArray<T> extends Array<T> {
+    private final Function<T, String> nameFunction;
+    private final ObjectMap<String, T> index = new ObjectMap<>();
+    private boolean dirty;
+    
+    public IndexedArray(Function<T, String> nameFunction) {
+        this.nameFunction = nameFunction;
+    }
+    
+    /**
+     * Returns the first item with the given name or null if there is none.
+     * @param name
+     * @return 
+     */
+    public T get(String name) {
+        if (name == null) return null;
+        boolean rebuilt = dirty;
+        if (dirty) rebuild();
+        
+        T item = index.get(name);
+        if (!rebuilt && (item == null || !name.equals(nameFunction.apply(item)))) {
+            //an item may have been renamed to or from this name without invalidating the index
+            rebuild();
+            item = index.get(name);
+        }
+        return item;
+    }
+    
+    public boolean contains(String name) {
+        return get(name) != null;
+    }
+    
+    /**
+     * Marks the index dirty. Call this after renaming an item in place.
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+    
+    private void rebuild() {
+        index.clear();
+        for (int i = size - 1; i >= 0; i--) {
+            String name = nameFunction.apply(items[i]);
+            if (name != null) index.put(name, items[i]);
+        }
+        dirty = false;
+    }
+    
+    @Override
+    public void add(T value) {
+        super.add(value);
+        if (!dirty) {
+            String name = nameFunction.apply(value);
+            if (name != null && !index.containsKey(name)) index.put(name, value);
+        }
+    }
+    
+    @Override
+    public void add(T value1, T value2) {
+        super.add(value1, value2);
+        dirty = true;
+    }
+    
+    @Override
+    public void add(T value1, T value2, T value3) {
+        super.add(value1, value2, value3);
+        dirty = true;
+    }
+    
+    @Override
+    public void add(T value1, T value2, T value3, T value4) {
+        super.add(value1, value2, value3, value4);
+        dirty = true;
+    }
+    
+    @Override
+    public void addAll(Array<? extends T> array, int start, int count) {
+        super.addAll(array, start, count);
+        dirty = true;
+    }
+    
+    @Override
+    public void addAll(T[] array, int start, int count) {
+        super.addAll(array, start, count);
+        dirty = true;
+    }
+    
+    @Override
+    public void set(int index, T value) {
+        super.set(index, value);
+        dirty = true;
+    }
+    
+    @Override
+    public void insert(int index, T value) {
+        super.insert(index, value);
+        dirty = true;
+    }
+    
+    @Override
+    public void insertRange(int index, int count) {
+        super.insertRange(index, count);
+        dirty = true;
+    }
+    
+    @Override
+    public void swap(int first, int second) {
+        super.swap(first, second);
+        dirty = true;
+    }
+    
+    @Override
+    public boolean removeValue(T value, boolean identity) {
+        dirty = true;
+        return super.removeValue(value, identity);
+    }
+    
+    @Override
+    public T removeIndex(int index) {
+        dirty = true;
+        return super.removeIndex(index);
+    }
+    
+    @Override
+    public void removeRange(int start, int end) {
+        super.removeRange(start, end);
+        dirty = true;
+    }
+    
+    @Override
+    public boolean removeAll(Array<? extends T> array, boolean identity) {
+        dirty = true;
+        return super.removeAll(array, identity);
+    }
+    
+    @Override
+    public T pop() {
+        dirty = true;
+        return super.pop();
+    }
+    
+    @Override
+    public void clear() {
+        super.clear();
+        index.clear();
+        dirty = false;
+    }
+    
+    @Override
+    public void truncate(int newSize) {
+        super.truncate(newSize);
+        dirty = true;
+    }
+    
+    @Override
+    public T[] setSize(int newSize) {
+        dirty = true;
+        return super.setSize(newSize);
+    }
+    
+    @Override
+    public void sort() {
+        super.sort();
+        dirty = true;
+    }
+    
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        super.sort(comparator);
+        dirty = true;
+    }
+    
+    @Override
+    public void reverse() {
+        super.reverse();
+        dirty = true;
+    }
+    
+    @Override
+    public void shuffle() {
+        super.shuffle();
+        dirty = true;
+    }
+}
@@ -32,7 +32,6 @@ import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin.TintedDrawable;
-import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.scenes.scene2d.utils.NinePatchDrawable;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.scenes.scene2d.utils.TiledDrawable;
@@ -43,8 +42,10 @@ import com.badlogic.gdx.utils.reflect.ReflectionException;
 import com.ray3k.skincomposer.Main;
 import com.ray3k.skincomposer.data.CustomProperty.PropertyType;
 import com.ray3k.skincomposer.data.DrawableData.DrawableType;
+import com.ray3k.skincomposer.data.ReferenceIndex.ResourceType;
 import com.ray3k.skincomposer.dialog.DialogFactory;
 import com.ray3k.skincomposer.dialog.DialogTenPatch;
+import com.ray3k.skincomposer.utils.PrettyJsonWriter;
 import com.ray3k.skincomposer.utils.Utils;
 import com.ray3k.tenpatch.TenPatchDrawable;
 import com.ray3k.tenpatch.TenPatchDrawable.CrushMode;
@@ -52,15 +53,19 @@ import com.ray3k.tenpatch.TenPatchDrawable.CrushMode;
 import static com.ray3k.skincomposer.Main.*;
 import static com.ray3k.skincomposer.data.DrawableData.DrawableType.*;
 
-import java.io.StringWriter;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
 
 public class JsonData implements Json.Serializable {
-    private Array<ColorData> colors;
+    private final IndexedArray<ColorData> colors;
     private Array<FontData> fonts;
     private Array<FreeTypeFontData> freeTypeFonts;
     private OrderedMap<Class, Array<StyleData>> classStyleMap;
     private Array<CustomClass> customClasses;
+    private final PreviewFontCache previewFontCache = new PreviewFontCache();
+    private int styleStructureVersion;
     
     public static enum ExportFormat {
         MINIMAL("Minimal", JsonWriter.OutputType.minimal), JAVASCRIPT("JavaScript", JsonWriter.OutputType.javascript), JSON("JSON", JsonWriter.OutputType.json);
@@ -84,7 +89,7 @@ public class JsonData implements Json.Serializable {
     }
 
     public JsonData() {
-        colors = new Array<>();
+        colors = new IndexedArray<>(ColorData::getName);
         fonts = new Array<>();
         freeTypeFonts = new Array<>();
 
@@ -95,6 +100,8 @@ public class JsonData implements Json.Serializable {
     public void clear() {
         colors.clear();
         fonts.clear();
+        previewFontCache.clear();
+        FreeTypeFontLoader.cancel();
         for (FreeTypeFontData font : freeTypeFonts) {
             if (font.bitmapFont != null) font.bitmapFont.dispose();
         }
@@ -110,13 +117,28 @@ public class JsonData implements Json.Serializable {
      * @throws Exception 
      */
     public Array<String> readFile(FileHandle fileHandle) throws Exception {
+        return readFile(fileHandle, null);
+    }
+    
+    /**
+     * Imports skin data from a JSON file. Supports skins from LibGDX 1.9.10
+     * @param fileHandle
+     * @param atlasImages The images already extracted from the skin's atlas with
+     *                    {@link AtlasData#extractAtlas(FileHandle, AtlasData.ReadAtlasListener)}. If null, the atlas is
+     *                    extracted here.
+     * @return
+     * @throws Exception 
+     */
+    public Array<String> readFile(FileHandle fileHandle, Array<FileHandle> atlasImages) throws Exception {
         Array<String> warnings = new Array<>();
         
         projectData.setChangesSaved(false);
         
         //read drawables from texture atlas file
-        FileHandle atlasHandle = fileHandle.sibling(fileHandle.nameWithoutExtension() + ".atlas");
-        if (atlasHandle.exists()) {
+        FileHandle atlasHandle = getAtlasFile(fileHandle);
+        if (atlasImages != null) {
+            projectData.getAtlasData().addAtlasImages(atlasImages);
+        } else if (atlasHandle.exists()) {
             projectData.getAtlasData().readAtlas(atlasHandle);
         } else {
             warnings.add("[RED]ERROR:[] Atlas file [BLACK]" + atlasHandle.name() + "[] does not exist.");
@@ -156,6 +178,7 @@ public class JsonData implements Json.Serializable {
                         for (FontData originalData : new Array<>(fonts)) {
                             if (originalData.getName().equals(fontData.getName())) {
                                 fonts.removeValue(originalData, true);
+                                previewFontCache.evict(originalData);
                             }
                         }
 
@@ -221,6 +244,7 @@ public class JsonData implements Json.Serializable {
                             for (FontData duplicate : new Array<>(fonts)) {
                                 if (duplicate.getName().equals(data.name)) {
                                     fonts.removeValue(duplicate, false);
+                                    previewFontCache.evict(duplicate);
                                 }
                             }
 
@@ -374,20 +398,21 @@ public class JsonData implements Json.Serializable {
                         for (JsonValue property : style.iterator()) {
                             if (property.name.equals("parent")) {
                                 data.parent = property.asString();
+                                styleStructureChanged();
                             } else {
                                 StyleProperty styleProperty = data.properties.get(property.name);
                                 if (styleProperty.type.equals(Float.TYPE)) {
-                                    styleProperty.value = (double) property.asFloat();
+                                    styleProperty.setValue((double) property.asFloat());
                                 } else if (styleProperty.type.equals(Color.class)) {
                                     if (property.isString()) {
-                                        styleProperty.value = property.asString();
+                                        styleProperty.setValue(property.asString());
                                     } else {
                                         Gdx.app.error(getClass().getName(), "Can't import JSON files that do not use predefined colors.");
                                         warnings.add("Property [BLACK]" + styleProperty.name + "[] value cleared for [BLACK]" + clazz.getSimpleName() + ": " + data.name + "[] (Unsupported color definition)");
                                     }
                                 } else {
                                     if (property.isString()) {
-                                        styleProperty.value = property.asString();
+                                        styleProperty.setValue(property.asString());
                                     } else {
                                         Gdx.app.error(getClass().getName(), "Can't import JSON files that do not use String names for field values.");
                                         warnings.add("Property [BLACK]" + styleProperty.name + "[] value cleared for [BLACK]" + clazz.getSimpleName() + ": " + data.name + "[] (Unsupported propety value)");
@@ -490,55 +515,53 @@ public class JsonData implements Json.Serializable {
         return warnings;
     }
     
+    /**
+     * Returns the texture atlas file that is imported with a skin's JSON file.
+     * @param fileHandle
+     * @return
+     */
+    public static FileHandle getAtlasFile(FileHandle fileHandle) {
+        return fileHandle.sibling(fileHandle.nameWithoutExtension() + ".atlas");
+    }
+    
     public void checkForPropertyConsistency() {
-        for (Class clazz : classStyleMap.keys()) {
-            for (StyleData styleData : classStyleMap.get(clazz)) {
-                for (StyleProperty property : styleData.properties.values()) {
-                    if (property.value != null) {
-                        boolean keep = false;
-                        if (property.type == Color.class) {
-                            for (ColorData color : colors) {
-                                if (property.value.equals(color.getName())) {
-                                    keep = true;
-                                    break;
-                                }
-                            }
-                        } else if (property.type == BitmapFont.class) {
-                            for (FontData font : fonts) {
-                                if (property.value.equals(font.getName())) {
-                                    keep = true;
-                                    break;
-                                }
-                            }
-                            for (FreeTypeFontData font : freeTypeFonts) {
-                                if (property.value.equals(font.name)) {
-                                    keep = true;
-                                    break;
-                                }
-                            }
-                        } else if (property.type == Drawable.class) {
-                            for (DrawableData drawable : atlasData.getDrawables()) {
-                                if (property.value.equals(drawable.name)) {
-                                    keep = true;
-                                    break;
-                                }
-                            }
-                            
-                            if (!keep) {
-                                keep = true;
-                                DrawableData customDrawable = new DrawableData((String) property.value);
-                                customDrawable.type = DrawableType.CUSTOM;
-                                atlasData.getDrawables().add(customDrawable);
-                            }
-                        } else {
-                            keep = true;
-                        }
-
-                        if (!keep) {
-                            property.value = null;
-                        }
-                    }
-                }
+        //collect the names once so each property is checked in constant time
+        var colorNames = new ObjectSet<String>();
+        for (ColorData color : colors) {
+            colorNames.add(color.getName());
+        }
+        
+        var bitmapFontNames = new ObjectSet<String>();
+        for (FontData font : fonts) {
+            bitmapFontNames.add(font.getName());
+        }
+        
+        var fontNames = new ObjectSet<String>(bitmapFontNames);
+        for (FreeTypeFontData font : freeTypeFonts) {
+            fontNames.add(font.name);
+        }
+        
+        var drawableNames = new ObjectSet<String>();
+        for (DrawableData drawable : atlasData.getDrawables()) {
+            drawableNames.add(drawable.name);
+        }
+        
+        //only the names that are referenced need to be checked
+        var references = projectData.getReferenceIndex();
+        for (var name : references.getReferencedNames(ResourceType.COLOR)) {
+            if (!colorNames.contains(name)) references.remove(ResourceType.COLOR, name);
+        }
+        
+        for (var name : references.getReferencedNames(ResourceType.FONT)) {
+            if (!fontNames.contains(name)) references.remove(ResourceType.FONT, name);
+        }
+        
+        for (var name : references.getReferencedNames(ResourceType.DRAWABLE)) {
+            if (!drawableNames.contains(name)) {
+                DrawableData customDrawable = new DrawableData(name);
+                customDrawable.type = DrawableType.CUSTOM;
+                atlasData.getDrawables().add(customDrawable);
+                drawableNames.add(customDrawable.name);
             }
         }
         
@@ -551,26 +574,14 @@ public class JsonData implements Json.Serializable {
                             keep = true;
                         } else switch (customProperty.getType()) {
                             case COLOR:
-                                for (ColorData color : colors) {
-                                    if (customProperty.getValue().equals(color.getName())) {
-                                        keep = true;
-                                        break;
-                                    }
-                                }   break;
+                                keep = colorNames.contains(customProperty.getValue().toString());
+                                break;
                             case DRAWABLE:
-                                for (DrawableData drawable : atlasData.getDrawables()) {
-                                    if (customProperty.getValue().equals(drawable.name)) {
-                                        keep = true;
-                                        break;
-                                    }
-                                }   break;
+                                keep = drawableNames.contains(customProperty.getValue().toString());
+                                break;
                             case FONT:
-                                for (FontData font : fonts) {
-                                    if (customProperty.getValue().equals(font.getName())) {
-                                        keep = true;
-                                        break;
-                                    }
-                                }   break;
+                                keep = bitmapFontNames.contains(customProperty.getValue().toString());
+                                break;
                             default:
                                 keep = true;
                                 break;
@@ -621,12 +632,22 @@ public class JsonData implements Json.Serializable {
     public Array<String> writeFile(FileHandle fileHandle) {
         Array<String> warnings = new Array<>();
         
-        StringWriter stringWriter = new StringWriter();
-        JsonWriter jsonWriter = new JsonWriter(stringWriter);
-        jsonWriter.setOutputType(projectData.getExportFormat().getOutputType());
+        //stream the pretty printed output instead of building the whole document in memory. The output goes to a
+        //temporary file first so a failure never leaves a partially written skin behind.
+        Utils.writeFileSafely(fileHandle, output -> {
+            PrettyJsonWriter jsonWriter = new PrettyJsonWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+            jsonWriter.setOutputType(projectData.getExportFormat().getOutputType());
+            
+            Json json = new Json(projectData.getExportFormat().getOutputType());
+            json.setWriter(jsonWriter);
+            writeSkin(json, warnings);
+            jsonWriter.close();
+        });
         
-        Json json = new Json(projectData.getExportFormat().getOutputType());
-        json.setWriter(jsonWriter);
+        return warnings;
+    }
+    
+    private void writeSkin(Json json, Array<String> warnings) {
         json.writeObjectStart();
 
         //fonts
@@ -855,18 +876,19 @@ public class JsonData implements Json.Serializable {
                     json.writeValue("color", drawable.tenPatchData.colorName);
                 }
                 
+                //the size is read from the image because the preview atlas is not built during headless export
                 if (drawable.tenPatchData.horizontalStretchAreas.size > 0) {
                     json.writeValue("horizontalStretchAreas", drawable.tenPatchData.horizontalStretchAreas.toArray());
                 } else {
-                    var region = atlasData.getAtlas().findRegion(drawable.file.nameWithoutExtension());
-                    json.writeValue("horizontalStretchAreas", new int[]{0, region.getRegionWidth() - 1});
+                    var dimensions = Utils.imageDimensions(drawable.file);
+                    json.writeValue("horizontalStretchAreas", new int[]{0, (int) dimensions.x - 1});
                 }
                 
                 if (drawable.tenPatchData.verticalStretchAreas.size > 0) {
                     json.writeValue("verticalStretchAreas", drawable.tenPatchData.verticalStretchAreas.toArray());
                 } else {
-                    var region = atlasData.getAtlas().findRegion(drawable.file.nameWithoutExtension());
-                    json.writeValue("verticalStretchAreas", new int[]{0, region.getRegionHeight() - 1});
+                    var dimensions = Utils.imageDimensions(drawable.file);
+                    json.writeValue("verticalStretchAreas", new int[]{0, (int) dimensions.y - 1});
                 }
                 
                 json.writeValue("tiling", drawable.tenPatchData.tile);
@@ -1023,9 +1045,6 @@ public class JsonData implements Json.Serializable {
         }
 
         json.writeObjectEnd();
-        fileHandle.writeString(json.prettyPrint(stringWriter.toString()), false, "UTF-8");
-        
-        return warnings;
     }
     
     private boolean customPropertyIsNotNull(CustomProperty customProperty) {
@@ -1116,22 +1135,29 @@ public class JsonData implements Json.Serializable {
     }
     
     public ColorData getColorByName(String tintName, ColorData defaultValue) {
-        ColorData returnValue = null;
-    
-        for (ColorData color : colors) {
-            if (color.getName().equals(tintName)) {
-                returnValue = color;
-                break;
-            }
-        }
-    
+        ColorData returnValue = colors.get(tintName);
         return returnValue != null ? returnValue : defaultValue;
     }
+    
+    /**
+     * Updates the name index of the colors. Call this after renaming a color in place.
+     */
+    public void colorRenamed() {
+        colors.invalidate();
+    }
 
     public Array<FontData> getFonts() {
         return fonts;
     }
 
+    /**
+     * Returns the cache of BitmapFonts shared by the style previews.
+     * @return 
+     */
+    public PreviewFontCache getPreviewFontCache() {
+        return previewFontCache;
+    }
+
     public Array<FreeTypeFontData> getFreeTypeFonts() {
         return freeTypeFonts;
     }
@@ -1139,8 +1165,21 @@ public class JsonData implements Json.Serializable {
     public OrderedMap<Class, Array<StyleData>> getClassStyleMap() {
         return classStyleMap;
     }
+    
+    /**
+     * Must be called after styles are added, removed, renamed, or reordered outside of this class so that the cached
+     * inheritance of every StyleData is resolved again.
+     */
+    public void styleStructureChanged() {
+        styleStructureVersion++;
+    }
+    
+    public int getStyleStructureVersion() {
+        return styleStructureVersion;
+    }
 
     private void initializeClassStyleMap() {
+        styleStructureChanged();
         classStyleMap = new OrderedMap();
         for (Class clazz : Main.BASIC_CLASSES) {
             Array<StyleData> array = new Array<>();
@@ -1165,7 +1204,7 @@ public class JsonData implements Json.Serializable {
 
     @Override
     public void write(Json json) {
-        json.writeValue("colors", colors);
+        json.writeValue("colors", new Array<>(colors));
         json.writeValue("fonts", fonts);
         json.writeValue("freeTypeFonts", freeTypeFonts);
         json.writeValue("classStyleMap", classStyleMap);
@@ -1175,7 +1214,8 @@ public class JsonData implements Json.Serializable {
     @Override
     public void read(Json json, JsonValue jsonData) {
         try {
-            colors = json.readValue("colors", Array.class, jsonData);
+            colors.clear();
+            colors.addAll(json.readValue("colors", Array.class, new Array<ColorData>(), jsonData));
             fonts = json.readValue("fonts", Array.class, jsonData);
             
             freeTypeFonts = json.readValue("freeTypeFonts", Array.class, new Array<FreeTypeFontData>(),jsonData);
@@ -1199,6 +1239,7 @@ public class JsonData implements Json.Serializable {
                 }
             }
             
+            styleStructureChanged();
             classStyleMap = new OrderedMap<>();
             for (JsonValue data : jsonData.get("classStyleMap").iterator()) {
                 classStyleMap.put(ClassReflection.forName(data.name), json.readValue(Array.class, data));
@@ -1263,6 +1304,7 @@ public class JsonData implements Json.Serializable {
             data = new StyleData(className, styleName, main);
             data.jsonData = this;
             styles.add(data);
+            styleStructureChanged();
         }
         
         return data;
@@ -1283,6 +1325,7 @@ public class JsonData implements Json.Serializable {
         StyleData data = new StyleData(original, styleName, main);
         data.jsonData = this;
         styles.add(data);
+        styleStructureChanged();
         
         return data;
     }
@@ -1290,27 +1333,28 @@ public class JsonData implements Json.Serializable {
     public void deleteStyle(StyleData styleData) {
         Array<StyleData> styles = getClassStyleMap().get(styleData.clazz);
         styles.removeValue(styleData, true);
+        styleStructureChanged();
         
         //reset any properties pointing to this style to the default style
         if (styleData.clazz.equals(Label.class)) {
             for (StyleData data : getClassStyleMap().get(TextTooltip.class)) {
                 StyleProperty property = data.properties.get("label");
                 if (property != null && property.value.equals(styleData.name)) {
-                    property.value = "default";
+                    property.setValue("default");
                 }
             }
         } else if (styleData.clazz.equals(List.class)) {
             for (StyleData data : getClassStyleMap().get(SelectBox.class)) {
                 StyleProperty property = data.properties.get("listStyle");
                 if (property != null && property.value.equals(styleData.name)) {
-                    property.value = "default";
+                    property.setValue("default");
                 }
             }
         } else if (styleData.clazz.equals(ScrollPane.class)) {
             for (StyleData data : getClassStyleMap().get(SelectBox.class)) {
                 StyleProperty property = data.properties.get("scrollStyle");
                 if (property != null && property.value.equals(styleData.name)) {
-                    property.value = "default";
+                    property.setValue("default");
                 }
             }
         }
@@ -1323,14 +1367,17 @@ public class JsonData implements Json.Serializable {
         fonts.clear();
         fonts.addAll(jsonData.fonts);
         
+        styleStructureChanged();
         classStyleMap.clear();
         classStyleMap.putAll((ObjectMap<? extends Class, ? extends Array<StyleData>>) jsonData.classStyleMap);
         
         customClasses.clear();
         customClasses.addAll(jsonData.customClasses);
         
+        //fonts that are still being created are discarded when they finish
+        FreeTypeFontLoader.cancel();
         for (FreeTypeFontData font : freeTypeFonts) {
-            font.bitmapFont.dispose();
+            if (font.bitmapFont != null) font.bitmapFont.dispose();
         }
         freeTypeFonts.clear();
         freeTypeFonts.addAll(jsonData.freeTypeFonts);
@@ -0,0 +1,122 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Raymond Buckley.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Shares the BitmapFonts used by the style previews so refreshing a preview does not parse the font file or upload
+ * its textures again. Fonts are keyed by the file path, size, and modification time, so a font file that changes on
+ * disk is loaded again. Fonts are reference counted and an evicted font is only disposed once it is no longer in use.
+ * Must be used on the rendering thread.
+ */
+public class PreviewFontCache {
+    private final ObjectMap<String, Entry> entries = new ObjectMap<>();
+    private final ObjectMap<BitmapFont, Entry> fontEntries = new ObjectMap<>();
+    
+    private static class Entry {
+        private String path;
+        private String key;
+        private BitmapFont font;
+        private int references;
+        private boolean evicted;
+    }
+    
+    /**
+     * Returns a shared font for the FontData, loading it if it is not cached or the file has changed. Every call must
+     * be matched by a call to {@link #release(BitmapFont)}.
+     * @param fontData
+     * @return 
+     */
+    public BitmapFont obtain(FontData fontData) {
+        var key = key(fontData.file);
+        var entry = entries.get(key);
+        if (entry == null) {
+            evict(fontData.file.path());
+            
+            entry = new Entry();
+            entry.path = fontData.file.path();
+            entry.key = key;
+            entry.font = new BitmapFont(fontData.file);
+            entries.put(key, entry);
+            fontEntries.put(entry.font, entry);
+        }
+        
+        entry.references++;
+        return entry.font;
+    }
+    
+    /**
+     * Releases a font returned by {@link #obtain(FontData)}. Fonts that are not evicted stay cached for the next
+     * preview.
+     * @param font
+     */
+    public void release(BitmapFont font) {
+        var entry = fontEntries.get(font);
+        if (entry == null) return;
+        
+        entry.references--;
+        if (entry.references <= 0 && entry.evicted) dispose(entry);
+    }
+    
+    /**
+     * Removes the font from the cache. Call this after a font is edited or removed from the project.
+     * @param fontData
+     */
+    public void evict(FontData fontData) {
+        if (fontData.file != null) evict(fontData.file.path());
+    }
+    
+    /**
+     * Removes all fonts from the cache. Fonts that are still in use are disposed once they are released.
+     */
+    public void clear() {
+        for (var entry : entries.values().toArray()) {
+            evict(entry);
+        }
+    }
+    
+    private void evict(String path) {
+        for (var entry : entries.values().toArray()) {
+            if (entry.path.equals(path)) evict(entry);
+        }
+    }
+    
+    private void evict(Entry entry) {
+        entries.remove(entry.key);
+        entry.evicted = true;
+        if (entry.references <= 0) dispose(entry);
+    }
+    
+    private void dispose(Entry entry) {
+        fontEntries.remove(entry.font);
+        entry.font.dispose();
+    }
+    
+    private static String key(FileHandle file) {
+        return file.path() + ":" + file.length() + ":" + file.lastModified();
+    }
+}
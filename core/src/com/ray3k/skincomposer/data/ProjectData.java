@@ -23,6 +23,7 @@
  ******************************************************************************/
 package com.ray3k.skincomposer.data;
 
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Files.FileType;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Preferences;
@@ -36,8 +37,12 @@ import com.ray3k.skincomposer.data.DrawableData.DrawableType;
 import com.ray3k.skincomposer.data.JsonData.ExportFormat;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimRootGroup;
+import com.ray3k.skincomposer.utils.PrettyJsonWriter;
 import com.ray3k.skincomposer.utils.Utils;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 
 import static com.ray3k.skincomposer.Main.projectData;
@@ -54,6 +59,12 @@ public class ProjectData implements Json.Serializable {
     private final AtlasData atlasData;
     private String loadedVersion;
     private Json json;
+    /**
+     * The binary project whose scene composer section has not been loaded yet.
+     */
+    private ProjectFile sceneComposerFile;
+    private ReferenceIndex referenceIndex;
+    private static final String SCENE_COMPOSER_SECTION = "sceneComposer";
     
     public ProjectData() {
         json = new Json(JsonWriter.OutputType.minimal);
@@ -186,7 +197,7 @@ public class ProjectData implements Json.Serializable {
             }
             generalPref.flush();
     
-            rootTable.updateRecentFiles();
+            if (rootTable != null) rootTable.updateRecentFiles();
         }
     }
     
@@ -198,6 +209,50 @@ public class ProjectData implements Json.Serializable {
         return (int) preferences.get("maxUndos", 30);
     }
     
+    public void setExportThreads(int exportThreads) {
+        generalPref.putInteger("exportThreads", exportThreads);
+        generalPref.flush();
+    }
+    
+    /**
+     * The number of threads used to decode images when packing the texture atlas for export. Images are decoded one at
+     * a time when limitMemory is set in the export settings, which is off by default.
+     * @return 
+     */
+    public int getExportThreads() {
+        return generalPref.getInteger("exportThreads", Runtime.getRuntime().availableProcessors());
+    }
+    
+    public void setUndoMemory(int kilobytes) {
+        generalPref.putInteger("undoMemoryKilobytes", kilobytes);
+        generalPref.flush();
+    }
+    
+    /**
+     * The approximate memory in kilobytes that the undo history of the style editor may retain before the oldest
+     * undoables are discarded, in addition to the limit of {@link #getMaxUndos()}. Property changes retain a few hundred
+     * bytes each while deleted styles and classes retain a few kilobytes, so the default only discards undoables after
+     * large deletions.
+     * @return 
+     */
+    public int getUndoMemory() {
+        return generalPref.getInteger("undoMemoryKilobytes", 64);
+    }
+    
+    public void setSceneComposerUndoMemory(int megabytes) {
+        generalPref.putInteger("sceneComposerUndoMemory", megabytes);
+        generalPref.flush();
+    }
+    
+    /**
+     * The approximate memory in megabytes that the scene composer's undo history may retain before the oldest undoables
+     * are discarded.
+     * @return 
+     */
+    public int getSceneComposerUndoMemory() {
+        return generalPref.getInteger("sceneComposerUndoMemory", 32);
+    }
+    
     public void setAllowingWelcome(boolean allow) {
         generalPref.putBoolean("allowingWelcome", allow);
         generalPref.flush();
@@ -226,6 +281,33 @@ public class ProjectData implements Json.Serializable {
         return generalPref.getBoolean("checkForUpdates", true);
     }
     
+    public void setLogLevel(int logLevel) {
+        generalPref.putInteger("logLevel", logLevel);
+        generalPref.flush();
+    }
+    
+    /**
+     * The log level applied to the application on startup.
+     * @return One of the log level constants in {@link com.badlogic.gdx.Application}.
+     */
+    public int getLogLevel() {
+        return generalPref.getInteger("logLevel", Application.LOG_INFO);
+    }
+    
+    public void setBinaryProjectFormat(boolean binary) {
+        generalPref.putBoolean("binaryProjectFormat", binary);
+        generalPref.flush();
+    }
+    
+    /**
+     * If true, projects are saved in the compressed binary format of {@link ProjectFile} instead of JSON. Both formats
+     * can always be opened.
+     * @return 
+     */
+    public boolean isBinaryProjectFormat() {
+        return generalPref.getBoolean("binaryProjectFormat", false);
+    }
+    
     public void setShowingExportWarnings(boolean allow) {
         generalPref.putBoolean("exportWarnings", allow);
         generalPref.flush();
@@ -414,7 +496,17 @@ public class ProjectData implements Json.Serializable {
         
         saveFile = file;
         putRecentFile(file.path());
-        file.writeString(json.prettyPrint(this), false, "UTF8");
+        if (isBinaryProjectFormat()) {
+            ProjectFile.write(file, json, this);
+        } else {
+            //Json.toJson closes the writer quietly, so write and close it here to report every error
+            Utils.writeFileSafely(file, output -> {
+                var jsonWriter = new PrettyJsonWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+                json.setWriter(jsonWriter);
+                json.writeValue(this);
+                jsonWriter.close();
+            });
+        }
         setChangesSaved(true);
     }
     
@@ -423,12 +515,20 @@ public class ProjectData implements Json.Serializable {
     }
     
     public void load(FileHandle file) {
-        ProjectData instance = json.fromJson(ProjectData.class, file.reader("UTF8"));
+        ProjectData instance;
+        if (ProjectFile.isBinary(file)) {
+            //the scene composer is only loaded when it is opened
+            var projectFile = ProjectFile.read(file);
+            instance = json.readValue(ProjectData.class, projectFile.toJson(SCENE_COMPOSER_SECTION));
+            sceneComposerFile = projectFile.hasSection(SCENE_COMPOSER_SECTION) ? projectFile : null;
+        } else {
+            instance = json.fromJson(ProjectData.class, file.reader("UTF8"));
+            sceneComposerFile = null;
+        }
         newProject = instance.newProject;
         jsonData.set(instance.jsonData);
-        for (FreeTypeFontData font : jsonData.getFreeTypeFonts()) {
-            font.createBitmapFont();
-        }
+        //preview fonts and the preview atlas are only needed when the UI is running, not for headless export
+        if (rootTable != null) FreeTypeFontLoader.load(jsonData.getFreeTypeFonts());
         atlasData.set(instance.atlasData);
         preferences.clear();
         preferences.putAll(instance.preferences);
@@ -441,7 +541,7 @@ public class ProjectData implements Json.Serializable {
         
         correctFilePaths();
         
-        if (verifyDrawablePaths().size == 0 && verifyFontPaths().size == 0) {
+        if (rootTable != null && verifyDrawablePaths().size == 0 && verifyFontPaths().size == 0) {
             atlasData.produceAtlas();
             rootTable.populate();
         }
@@ -592,6 +692,18 @@ public class ProjectData implements Json.Serializable {
         load(saveFile);
     }
     
+    /**
+     * Reads the scene composer section of a binary project if it has not been read yet. Call this before the scene
+     * composer uses {@link DialogSceneComposerModel#rootActor}.
+     */
+    public void loadSceneComposer() {
+        if (sceneComposerFile == null) return;
+        
+        var value = sceneComposerFile.getSection(SCENE_COMPOSER_SECTION);
+        sceneComposerFile = null;
+        DialogSceneComposerModel.rootActor = value == null || value.isNull() ? null : json.readValue(SimRootGroup.class, value);
+    }
+    
     public void clear() {
         preferences.clear();
 
@@ -602,6 +714,7 @@ public class ProjectData implements Json.Serializable {
         jsonData.clear();
         atlasData.clear();
         saveFile = null;
+        sceneComposerFile = null;
         DialogSceneComposerModel.rootActor = null;
         
         if (Main.atlasData != null) atlasData.produceAtlas();
@@ -612,6 +725,7 @@ public class ProjectData implements Json.Serializable {
 
     @Override
     public void write(Json json) {
+        loadSceneComposer();
         json.writeValue("atlasData", atlasData);
         json.writeValue("jsonData", jsonData);
         json.writeValue("preferences", preferences);
@@ -621,7 +735,7 @@ public class ProjectData implements Json.Serializable {
             json.writeValue("saveFile", (String) null);
         }
         json.writeValue("version", Main.VERSION);
-        json.writeValue("sceneComposer", DialogSceneComposerModel.rootActor);
+        json.writeValue(SCENE_COMPOSER_SECTION, DialogSceneComposerModel.rootActor);
     }
 
     @Override
@@ -636,9 +750,23 @@ public class ProjectData implements Json.Serializable {
         }
     
         loadedVersion = jsonValue.getString("version", "none");
-        DialogSceneComposerModel.rootActor = json.readValue("sceneComposer", SimRootGroup.class, jsonValue);
+        DialogSceneComposerModel.rootActor = json.readValue(SCENE_COMPOSER_SECTION, SimRootGroup.class, jsonValue);
     }
 
+    /**
+     * Returns the index of the style properties that reference each drawable, font, and color. The index is built again
+     * if styles have been added, removed, or reset since it was last used.
+     * @return
+     */
+    public ReferenceIndex getReferenceIndex() {
+        if (referenceIndex == null || !referenceIndex.isCurrent(jsonData)) referenceIndex = new ReferenceIndex(jsonData);
+        return referenceIndex;
+    }
+    
+    void propertyValueChanged(StyleProperty property, Object oldValue) {
+        if (referenceIndex != null) referenceIndex.valueChanged(property, oldValue);
+    }
+    
     public JsonData getJsonData() {
         return jsonData;
     }
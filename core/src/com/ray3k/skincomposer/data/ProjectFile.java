@@ -0,0 +1,346 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2021 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonValue.ValueType;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.OrderedMap;
+import com.badlogic.gdx.utils.UBJsonReader;
+import com.badlogic.gdx.utils.UBJsonWriter;
+import com.ray3k.skincomposer.utils.Utils;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The binary project format. Each top level value of the JSON project format is stored as a separately compressed
+ * UBJSON section, listed in a table of contents after the header. The sections are written straight from {@link Json}
+ * without building the JSON text or a DOM first, and they read back as the same values that the JSON project format
+ * produces. Only the table of contents is kept in memory. Sections are read from the file, decompressed, and parsed when
+ * they are requested, so rarely used sections can be loaded on demand.
+ * <p>
+ * Layout: the magic number, the format version, the section count, and for each section its name, offset, and length.
+ * The offsets are relative to the end of the table of contents.
+ */
+public class ProjectFile {
+    public static final int MAGIC = 0x53434D42;
+    public static final int VERSION = 1;
+    private final FileHandle file;
+    private final long fileLength;
+    private final long fileModified;
+    private final int dataStart;
+    private final OrderedMap<String, int[]> sections = new OrderedMap<>();
+    
+    private ProjectFile(FileHandle file) throws IOException {
+        this.file = file;
+        fileLength = file.length();
+        fileModified = file.lastModified();
+        
+        try (var input = new DataInputStream(new BufferedInputStream(file.read()))) {
+            if (input.readInt() != MAGIC) throw new IOException("Not a binary project file.");
+            int version = input.readInt();
+            if (version > VERSION) throw new IOException("The project was saved in format version " + version + ", which is newer than this version of Skin Composer supports.");
+            
+            int count = input.readInt();
+            int headerLength = 12;
+            for (int i = 0; i < count; i++) {
+                var name = input.readUTF();
+                int offset = input.readInt();
+                int length = input.readInt();
+                sections.put(name, new int[] {offset, length});
+                headerLength += 2 + utfLength(name) + 8;
+            }
+            dataStart = headerLength;
+        }
+    }
+    
+    /**
+     * Returns the number of bytes DataOutputStream.writeUTF writes for the string, not counting the length prefix.
+     * @param string
+     * @return
+     */
+    private static int utfLength(String string) {
+        int length = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) length++;
+            else if (c > 0x07FF) length += 3;
+            else length += 2;
+        }
+        return length;
+    }
+    
+    /**
+     * Returns true if the file starts with the binary project format's magic number.
+     * @param file
+     * @return
+     */
+    public static boolean isBinary(FileHandle file) {
+        if (file.length() < 4) return false;
+        try (var input = new DataInputStream(file.read())) {
+            return input.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Reads the table of contents of a binary project. The sections are not parsed until requested.
+     * @param file
+     * @return
+     */
+    public static ProjectFile read(FileHandle file) {
+        try {
+            return new ProjectFile(file);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error reading project file: " + file.path(), e);
+        }
+    }
+    
+    /**
+     * Serializes the project and writes every top level value as a section of a binary project. The file is only
+     * replaced once all sections have been written.
+     * @param file
+     * @param json The Json instance used to write the JSON project format.
+     * @param project
+     */
+    public static void write(FileHandle file, Json json, Object project) {
+        var sectionWriter = new SectionWriter();
+        json.setWriter(sectionWriter);
+        json.writeValue(project);
+        sectionWriter.close();
+        
+        Utils.writeFileSafely(file, stream -> {
+            var output = new DataOutputStream(stream);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(sectionWriter.names.size);
+            int offset = 0;
+            for (int i = 0; i < sectionWriter.names.size; i++) {
+                output.writeUTF(sectionWriter.names.get(i));
+                output.writeInt(offset);
+                output.writeInt(sectionWriter.blobs.get(i).length);
+                offset += sectionWriter.blobs.get(i).length;
+            }
+            for (var blob : sectionWriter.blobs) {
+                output.write(blob);
+            }
+            output.flush();
+        });
+    }
+    
+    public boolean hasSection(String name) {
+        return sections.containsKey(name);
+    }
+    
+    /**
+     * Reads, decompresses, and parses a section.
+     * @param name
+     * @return The value of the section, named after it, or null if the project does not have the section.
+     * @throws GdxRuntimeException If the file was changed since its table of contents was read.
+     */
+    public JsonValue getSection(String name) {
+        var section = sections.get(name);
+        if (section == null) return null;
+        
+        if (file.length() != fileLength || file.lastModified() != fileModified) {
+            throw new GdxRuntimeException("Project file was changed before section " + name + " was read: " + file.path());
+        }
+        
+        var compressed = new byte[section[1]];
+        try (var input = new DataInputStream(file.read())) {
+            long skip = dataStart + section[0];
+            while (skip > 0) {
+                long skipped = input.skip(skip);
+                if (skipped <= 0) throw new EOFException();
+                skip -= skipped;
+            }
+            input.readFully(compressed);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error reading section " + name + " of project file: " + file.path(), e);
+        }
+        
+        var reader = new UBJsonReader();
+        //UBJsonWriter writes the current UBJSON integer and length encoding
+        reader.oldFormat = false;
+        var input = new InflaterInputStream(new ByteArrayInputStream(compressed));
+        var value = reader.parse(input).child;
+        value.parent = null;
+        value.prev = null;
+        value.next = null;
+        return value;
+    }
+    
+    /**
+     * Assembles the JSON project format from the sections.
+     * @param excludedSections Sections to leave out, such as those that are loaded on demand.
+     * @return
+     */
+    public JsonValue toJson(String... excludedSections) {
+        var root = new JsonValue(ValueType.object);
+        loop:
+        for (var name : sections.keys()) {
+            for (var excluded : excludedSections) {
+                if (excluded.equals(name)) continue loop;
+            }
+            root.addChild(getSection(name));
+        }
+        return root;
+    }
+    
+    /**
+     * Receives the calls Json makes while serializing the project and forwards each top level value to its own
+     * compressed UBJSON section. Values are converted the same way the JSON project format writes them, so strings
+     * that look like numbers stay strings and numbers read back with the same type and value.
+     */
+    private static class SectionWriter extends JsonWriter {
+        private final Array<String> names = new Array<>();
+        private final Array<byte[]> blobs = new Array<>();
+        private ByteArrayOutputStream buffer;
+        private UBJsonWriter section;
+        private int depth;
+        private boolean quoteLongValues;
+        
+        public SectionWriter() {
+            super(Writer.nullWriter());
+        }
+        
+        @Override
+        public void setQuoteLongValues(boolean quoteLongValues) {
+            super.setQuoteLongValues(quoteLongValues);
+            this.quoteLongValues = quoteLongValues;
+        }
+        
+        @Override
+        public JsonWriter name(String name) throws IOException {
+            if (depth == 1) {
+                buffer = new ByteArrayOutputStream();
+                section = new UBJsonWriter(new DeflaterOutputStream(buffer));
+                //the section is wrapped in an object to keep its name
+                section.object();
+                names.add(name);
+            }
+            section.name(name);
+            return this;
+        }
+        
+        @Override
+        public JsonWriter object() throws IOException {
+            if (depth > 0) section.object();
+            depth++;
+            return this;
+        }
+        
+        @Override
+        public JsonWriter array() throws IOException {
+            if (depth == 0) throw new IllegalStateException("The project must be an object.");
+            section.array();
+            depth++;
+            return this;
+        }
+        
+        @Override
+        public JsonWriter value(Object value) throws IOException {
+            if (value == null) {
+                section.value();
+            } else if (quoteLongValues && (value instanceof Long || value instanceof Double || value instanceof BigDecimal || value instanceof BigInteger)) {
+                section.value(value.toString());
+            } else if (value instanceof Boolean) {
+                section.value((boolean) value);
+            } else if (value instanceof Number) {
+                Number number = (Number) value;
+                long longValue = number.longValue();
+                if (number.doubleValue() == longValue) {
+                    section.value(longValue);
+                } else {
+                    //the JSON project format parses the written text back into a double
+                    section.value(Double.parseDouble(value.toString()));
+                }
+            } else {
+                section.value(value.toString());
+            }
+            
+            if (depth == 1) finishSection();
+            return this;
+        }
+        
+        @Override
+        public JsonWriter json(String json) throws IOException {
+            section.value(new JsonReader().parse(json));
+            if (depth == 1) finishSection();
+            return this;
+        }
+        
+        @Override
+        public JsonWriter object(String name) throws IOException {
+            return name(name).object();
+        }
+        
+        @Override
+        public JsonWriter array(String name) throws IOException {
+            return name(name).array();
+        }
+        
+        @Override
+        public JsonWriter set(String name, Object value) throws IOException {
+            return name(name).value(value);
+        }
+        
+        @Override
+        public JsonWriter json(String name, String json) throws IOException {
+            return name(name).json(json);
+        }
+        
+        @Override
+        public JsonWriter pop() throws IOException {
+            depth--;
+            if (depth > 0) {
+                section.pop();
+                if (depth == 1) finishSection();
+            }
+            return this;
+        }
+        
+        @Override
+        public void close() {
+        }
+        
+        private void finishSection() throws IOException {
+            section.pop();
+            section.close();
+            blobs.add(buffer.toByteArray());
+            section = null;
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Maps the names of drawables, fonts, and colors to the StyleProperties that reference them. The index is kept by
+ * {@link ProjectData#getReferenceIndex()} and updated by {@link StyleProperty#setValue(Object)}, so renaming or
+ * deleting a resource and finding where it is used only visit the properties that reference it. Adding, removing, or
+ * resetting styles changes the style structure version of JsonData, after which the index is built again.
+ */
+public class ReferenceIndex {
+    private final JsonData jsonData;
+    private final int structureVersion;
+    private final ObjectMap<ResourceType, ObjectMap<String, Array<StyleProperty>>> index = new ObjectMap<>();
+    private final IdentityMap<StyleProperty, StyleData> styles = new IdentityMap<>();
+
+    public enum ResourceType {
+        DRAWABLE, FONT, COLOR
+    }
+
+    public ReferenceIndex(JsonData jsonData) {
+        this.jsonData = jsonData;
+        structureVersion = jsonData.getStyleStructureVersion();
+        for (var type : ResourceType.values()) {
+            index.put(type, new ObjectMap<>());
+        }
+
+        for (Array<StyleData> styleDatas : jsonData.getClassStyleMap().values()) {
+            for (StyleData style : styleDatas) {
+                for (StyleProperty property : style.properties.values()) {
+                    var type = getResourceType(property);
+                    if (type != null) {
+                        styles.put(property, style);
+                        if (property.value instanceof String) obtain(type, (String) property.value).add(property);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the index was built from the current styles of the JsonData.
+     * @param jsonData
+     * @return
+     */
+    public boolean isCurrent(JsonData jsonData) {
+        return this.jsonData == jsonData && structureVersion == jsonData.getStyleStructureVersion();
+    }
+
+    /**
+     * Returns the type of resource referenced by the property.
+     * @param property
+     * @return null if the property does not reference a drawable, font, or color.
+     */
+    public static ResourceType getResourceType(StyleProperty property) {
+        if (property == null || property.type == null) return null;
+        if (Drawable.class.isAssignableFrom(property.type)) return ResourceType.DRAWABLE;
+        if (property.type == BitmapFont.class) return ResourceType.FONT;
+        if (property.type == Color.class) return ResourceType.COLOR;
+        return null;
+    }
+
+    /**
+     * Returns the properties that reference the resource.
+     * @param type
+     * @param name
+     * @return A new array, empty if the resource isn't referenced.
+     */
+    public Array<StyleProperty> getReferences(ResourceType type, String name) {
+        var references = index.get(type).get(name);
+        return references == null ? new Array<>() : new Array<>(references);
+    }
+
+    public boolean isReferenced(ResourceType type, String name) {
+        var references = index.get(type).get(name);
+        return references != null && references.size > 0;
+    }
+
+    /**
+     * Returns the style that the property belongs to.
+     * @param property A property returned by {@link #getReferences(ResourceType, String)}.
+     * @return
+     */
+    public StyleData getStyle(StyleProperty property) {
+        return styles.get(property);
+    }
+
+    /**
+     * Changes every property that references the resource to reference the new name instead.
+     * @param type
+     * @param oldName
+     * @param newName
+     * @return The number of properties changed.
+     */
+    public int rename(ResourceType type, String oldName, String newName) {
+        if (oldName.equals(newName)) return 0;
+        var references = index.get(type).remove(oldName);
+        if (references == null) return 0;
+
+        for (var property : references) {
+            property.setValue(newName);
+        }
+        return references.size;
+    }
+
+    /**
+     * Clears every property that references the resource.
+     * @param type
+     * @param name
+     * @return The number of properties cleared.
+     */
+    public int remove(ResourceType type, String name) {
+        var references = index.get(type).remove(name);
+        if (references == null) return 0;
+
+        for (var property : references) {
+            property.setValue(null);
+        }
+        return references.size;
+    }
+
+    /**
+     * Returns the names of all referenced resources of the type.
+     * @param type
+     * @return A new array.
+     */
+    public Array<String> getReferencedNames(ResourceType type) {
+        return index.get(type).keys().toArray();
+    }
+
+    /**
+     * Moves the property to the references of its new value. Properties that are not part of the index are ignored.
+     * @param property
+     * @param oldValue
+     */
+    void valueChanged(StyleProperty property, Object oldValue) {
+        if (!styles.containsKey(property)) return;
+        var type = getResourceType(property);
+        var map = index.get(type);
+
+        if (oldValue instanceof String) {
+            var references = map.get((String) oldValue);
+            if (references != null) {
+                references.removeValue(property, true);
+                if (references.size == 0) map.remove((String) oldValue);
+            }
+        }
+        if (property.value instanceof String) obtain(type, (String) property.value).add(property);
+    }
+
+    private Array<StyleProperty> obtain(ResourceType type, String name) {
+        var map = index.get(type);
+        var references = map.get(name);
+        if (references == null) {
+            references = new Array<>();
+            map.put(name, references);
+        }
+        return references;
+    }
+}
@@ -46,6 +46,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.Window.WindowStyle;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectMap.Entry;
 import com.badlogic.gdx.utils.OrderedMap;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
@@ -63,6 +64,7 @@ public class StyleData {
     public String parent;
     public transient JsonData jsonData;
     private transient Main main;
+    private transient ResolvedStyle resolved;
 
     @Override
     public String toString() {
@@ -209,7 +211,16 @@ public class StyleData {
         return returnValue;
     }
     
+    /**
+     * Returns the style referenced by {@link #parent}. The result is cached with the rest of the resolved style.
+     * @return null if there is no parent or it could not be found.
+     */
     public StyleData findParentStyle() {
+        var chain = resolve().chain;
+        return chain.size > 1 ? chain.get(1) : null;
+    }
+    
+    private StyleData searchParentStyle() {
         StyleData returnValue = null;
         
         if (parent != null) {
@@ -235,37 +246,55 @@ public class StyleData {
     }
     
     public boolean hasField(StyleProperty property) {
-        var style = this;
-        
-        while (style != null) {
-            var propertiesList = style.properties.values().toArray();
-            for (int i = 0; i < propertiesList.size; i++) {
-                var current = propertiesList.get(i);
-                if (current.name.equals(property.name) && current.value != null) {
-                    return true;
-                }
-            }
-            
-            style = style.findParentStyle();
-        }
-        return false;
+        return resolve().values.containsKey(property.name);
     }
     
     public Object getInheritedValue(String name) {
-        var style = this;
+        return resolve().values.get(name);
+    }
+    
+    /**
+     * Returns the values of this style merged with the values inherited from its parents. The cached result is reused
+     * until the style structure version or the property value version changes.
+     * @return
+     */
+    private ResolvedStyle resolve() {
+        int structureVersion = jsonData == null ? 0 : jsonData.getStyleStructureVersion();
+        int valueVersion = StyleProperty.getValueVersion();
+        if (resolved != null && resolved.structureVersion == structureVersion && resolved.valueVersion == valueVersion) return resolved;
+        
+        if (resolved == null) resolved = new ResolvedStyle();
+        resolved.structureVersion = structureVersion;
+        resolved.valueVersion = valueVersion;
+        resolved.chain.clear();
+        resolved.values.clear();
         
-        while (style != null) {
-            var propertiesList = style.properties.values().toArray();
-            for (int i = 0; i < propertiesList.size; i++) {
-                var current = propertiesList.get(i);
-                if (current.name.equals(name) && current.value != null) {
-                    return current.value;
+        var style = this;
+        while (style != null && !resolved.chain.contains(style, true)) {
+            resolved.chain.add(style);
+            var keys = style.properties.orderedKeys();
+            for (int i = 0; i < keys.size; i++) {
+                var current = style.properties.get(keys.get(i));
+                if (current.value != null && !resolved.values.containsKey(current.name)) {
+                    resolved.values.put(current.name, current.value);
                 }
             }
             
-            style = style.findParentStyle();
+            style = style.parent == null || style.jsonData == null ? null : style.searchParentStyle();
         }
-        return null;
+        return resolved;
+    }
+    
+    /**
+     * The inheritance chain of a style and the values it resolves to. It is valid for as long as the versions it was
+     * built with are current: the style structure version of {@link JsonData}, which also changes with a style's parent,
+     * and the value version of {@link StyleProperty}, which changes whenever a property value is set.
+     */
+    private static class ResolvedStyle {
+        private int structureVersion;
+        private int valueVersion;
+        private final Array<StyleData> chain = new Array<>();
+        private final ObjectMap<String, Object> values = new ObjectMap<>();
     }
     
     public static boolean validate(String name) {
@@ -275,6 +304,7 @@ public class StyleData {
     public void resetProperties() {
         properties.clear();
         parent = null;
+        if (jsonData != null) jsonData.styleStructureChanged();
         
         if (clazz.equals(Button.class)) {
             newStyleProperties(ButtonStyle.class);
@@ -309,9 +339,9 @@ public class StyleData {
             properties.get("font").optional = false;
             properties.get("fontColor").optional = false;
             properties.get("scrollStyle").optional = false;
-            properties.get("scrollStyle").value = "default";
+            properties.get("scrollStyle").setValue("default");
             properties.get("listStyle").optional = false;
-            properties.get("listStyle").value = "default";
+            properties.get("listStyle").setValue("default");
         } else if (clazz.equals(Slider.class)) {
             newStyleProperties(SliderStyle.class);
             
@@ -330,7 +360,7 @@ public class StyleData {
         } else if (clazz.equals(TextTooltip.class)) {
             newStyleProperties(TextTooltipStyle.class);
             properties.get("label").optional = false;
-            properties.get("label").value = "default";
+            properties.get("label").setValue("default");
         } else if (clazz.equals(Touchpad.class)) {
             newStyleProperties(TouchpadStyle.class);
         } else if (clazz.equals(Tree.class)) {
@@ -28,6 +28,7 @@ import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
+import com.ray3k.skincomposer.Main;
 import com.ray3k.skincomposer.dialog.DialogFactory;
 
 public class StyleProperty implements Json.Serializable{
@@ -35,6 +36,7 @@ public class StyleProperty implements Json.Serializable{
     public String name;
     public boolean optional;
     public Object value;
+    private static int valueVersion;
 
     public StyleProperty(Class type, String name, boolean optional) {
         this.type = type;
@@ -58,6 +60,28 @@ public class StyleProperty implements Json.Serializable{
     public StyleProperty() {
     
     }
+    
+    /**
+     * Sets the value, advances the {@link #getValueVersion() value version}, and updates the project's
+     * {@link ReferenceIndex}. Only assign {@link #value} directly while the property is being created and does not
+     * belong to a style yet.
+     * @param value
+     */
+    public void setValue(Object value) {
+        var oldValue = this.value;
+        this.value = value;
+        valueVersion++;
+        if (Main.projectData != null) Main.projectData.propertyValueChanged(this, oldValue);
+    }
+    
+    /**
+     * Returns a counter that changes every time {@link #setValue(Object)} is called on any property. StyleData compares
+     * it to tell whether its cached inherited values are still valid.
+     * @return
+     */
+    public static int getValueVersion() {
+        return valueVersion;
+    }
 
     @Override
     public void write(Json json) {
@@ -37,21 +37,27 @@ import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.tools.bmfont.BitmapFontWriter;
 import com.badlogic.gdx.tools.texturepacker.TexturePacker;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Json;
 import com.ray3k.skincomposer.*;
 import com.ray3k.skincomposer.utils.Utils;
 import org.lwjgl.PointerBuffer;
 import org.lwjgl.system.MemoryStack;
 
+import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.filechooser.FileFilter;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
+import java.awt.image.BufferedImage;
 import java.io.*;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.ray3k.skincomposer.Main.desktopWorker;
 import static org.lwjgl.system.MemoryStack.stackPush;
@@ -77,19 +83,19 @@ public class DesktopLauncher implements DesktopWorker, Lwjgl3WindowListener {
     }
     
     @Override
-    public void texturePack(Array<FileHandle> handles, FileHandle localFile, FileHandle targetFile, FileHandle settingsFile) {
+    public void texturePack(Array<FileHandle> handles, FileHandle localFile, FileHandle targetFile, FileHandle settingsFile, int threads) {
         var json = new Json();
         var settings = json.fromJson(TexturePacker.Settings.class, settingsFile);
         
-        var p = new TexturePacker(settings);
+        var files = new Array<File>();
         for (var handle : handles) {
             if (handle.exists()) {
-                p.addImage(handle.file());
+                files.add(handle.file());
             } else {
                 if (localFile != null) {
                     var localHandle = localFile.sibling(localFile.nameWithoutExtension() + "_data/" + handle.name());
                     if (localHandle.exists()) {
-                        p.addImage(localHandle.file());
+                        files.add(localHandle.file());
                     } else {
                         Gdx.app.error(getClass().getName(), "File does not exist error while creating texture atlas: " + handle.path());
                     }
@@ -98,6 +104,43 @@ public class DesktopLauncher implements DesktopWorker, Lwjgl3WindowListener {
                 }
             }
         }
+        
+        var p = new TexturePacker(settings);
+        //images added as files are loaded and released one at a time when limitMemory is set, while decoded images are
+        //held until packing finishes. Only decode in parallel when the packer keeps every image in memory anyway.
+        if (threads > 1 && files.size > 1 && !settings.limitMemory) {
+            //decode the images concurrently, but add them in the original order so the packed output is deterministic
+            var executor = Executors.newFixedThreadPool(Math.min(threads, files.size));
+            try {
+                var images = new Array<Future<BufferedImage>>();
+                for (var file : files) {
+                    images.add(executor.submit(() -> ImageIO.read(file)));
+                }
+                
+                for (int i = 0; i < files.size; i++) {
+                    var image = images.get(i).get();
+                    //fail the same way TexturePacker does instead of leaving the region out of the atlas
+                    if (image == null) throw new GdxRuntimeException("Unable to read image: " + files.get(i).getAbsolutePath());
+                    
+                    //same name TexturePacker derives from the file: the absolute path without the extension
+                    var name = files.get(i).getAbsolutePath().replace('\\', '/');
+                    int dotIndex = name.lastIndexOf('.');
+                    if (dotIndex != -1) name = name.substring(0, dotIndex);
+                    p.addImage(image, name);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GdxRuntimeException("Interrupted while reading images for the texture atlas", e);
+            } catch (ExecutionException e) {
+                throw new GdxRuntimeException("Error reading images while creating texture atlas", e.getCause());
+            } finally {
+                executor.shutdown();
+            }
+        } else {
+            for (var file : files) {
+                p.addImage(file);
+            }
+        }
         p.pack(targetFile.parent().file(), targetFile.nameWithoutExtension());
     }
 
@@ -480,6 +523,12 @@ public class DesktopLauncher implements DesktopWorker, Lwjgl3WindowListener {
     }
     
     public static void main(String[] args) {
+        //export projects without opening a window if "-export" is the first arg in commandline
+        if (args.length > 0 && args[0].equals("-export")) {
+            HeadlessExporter.main(args);
+            return;
+        }
+        
         if (restartStartOnFirstThread()) {
             return;
         }
@@ -510,6 +559,9 @@ public class DesktopLauncher implements DesktopWorker, Lwjgl3WindowListener {
             new Lwjgl3Application(main, config);
         } catch (Exception e) {
             e.printStackTrace();
+            if (Gdx.app != null && Gdx.app.getApplicationLogger() instanceof TextFileApplicationLogger) {
+                ((TextFileApplicationLogger) Gdx.app.getApplicationLogger()).flush();
+            }
             
             try {
                 var fw = new FileWriter(Gdx.files.external(".skincomposer/temp/java-stacktrace.txt").file(), true);
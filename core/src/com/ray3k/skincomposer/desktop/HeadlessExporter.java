@@ -0,0 +1,228 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Raymond Buckley.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ray3k.skincomposer.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.data.FontData;
+import com.ray3k.skincomposer.data.FreeTypeFontData;
+import com.ray3k.skincomposer.data.ProjectData;
+import com.ray3k.skincomposer.utils.ImageMetadataCache;
+
+import java.util.concurrent.CountDownLatch;
+
+import static com.ray3k.skincomposer.Main.*;
+
+/**
+ * Exports one or more .scmp projects without creating a window. All projects are exported in the same JVM so the
+ * native libraries are only loaded once. Usage:
+ * <pre>
+ * -export [-warningsaserrors] [-out directory] project.scmp [project.scmp ...]
+ * </pre>
+ * Each project is exported to the folder given by -out, or to its last export path if -out is not specified. The
+ * process exits with status 1 if any project fails to export, or if any warnings are reported and
+ * -warningsaserrors is set.
+ * @author Raymond
+ */
+public class HeadlessExporter extends ApplicationAdapter {
+    private final Array<FileHandle> projectFiles = new Array<>();
+    private FileHandle outputFolder;
+    private boolean warningsAsErrors;
+    private int exitCode;
+    private FileHandle customAppFolder;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    
+    public static void main(String[] args) {
+        System.exit(export(args));
+    }
+    
+    /**
+     * Exports the projects given by the command line arguments.
+     * @param args
+     * @return The exit status of the export.
+     */
+    public static int export(String[] args) {
+        return export(args, null, null);
+    }
+    
+    /**
+     * Exports the projects given by the command line arguments with the settings and preferences stored in the given
+     * folders instead of the user's.
+     * @param args
+     * @param appFolder The folder for settings and caches, or null for the .skincomposer folder in the user's home folder.
+     * @param preferencesDirectory The folder for preferences relative to the user's home folder, or null for the
+     * default.
+     * @return The exit status of the export.
+     */
+    static int export(String[] args, FileHandle appFolder, String preferencesDirectory) {
+        var exporter = new HeadlessExporter();
+        exporter.customAppFolder = appFolder;
+        for (int i = 0; i < args.length; i++) {
+            var arg = args[i];
+            if (arg.equals("-export")) continue;
+            
+            if (arg.equals("-warningsaserrors")) {
+                exporter.warningsAsErrors = true;
+            } else if (arg.equals("-out") && i + 1 < args.length) {
+                exporter.outputFolder = new FileHandle(args[++i]);
+            } else {
+                exporter.projectFiles.add(new FileHandle(arg));
+            }
+        }
+        
+        if (exporter.projectFiles.size == 0) {
+            System.err.println("Usage: -export [-warningsaserrors] [-out directory] project.scmp [project.scmp ...]");
+            return 2;
+        }
+        
+        //TexturePacker uses AWT to read and write images
+        System.setProperty("java.awt.headless", "true");
+        
+        var config = new HeadlessApplicationConfiguration();
+        //nothing is rendered, so the loop only has to run long enough to process create()
+        config.updatesPerSecond = -1;
+        if (preferencesDirectory != null) config.preferencesDirectory = preferencesDirectory;
+        new HeadlessApplication(exporter, config);
+        
+        try {
+            exporter.finished.await();
+        } catch (InterruptedException e) {
+            exporter.exitCode = 1;
+        }
+        return exporter.exitCode;
+    }
+    
+    @Override
+    public void create() {
+        try {
+            appFolder = customAppFolder != null ? customAppFolder : Gdx.files.external(".skincomposer/");
+            
+            var settingsFile = appFolder.child("texturepacker/atlas-export-settings.json");
+            if (!settingsFile.exists()) {
+                Gdx.files.internal("atlas-export-settings.json").copyTo(settingsFile);
+            }
+            
+            var fileHandle = appFolder.child("texturepacker/white-pixel.png");
+            if (!fileHandle.exists()) {
+                Gdx.files.internal("white-pixel.png").copyTo(fileHandle);
+            }
+            
+            desktopWorker = new DesktopLauncher();
+            projectData = new ProjectData();
+            atlasData = projectData.getAtlasData();
+            jsonData = projectData.getJsonData();
+            
+            for (var projectFile : projectFiles) {
+                if (!exportProject(projectFile, settingsFile)) {
+                    exitCode = 1;
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            Gdx.app.exit();
+        }
+    }
+    
+    /**
+     * Loads the project and writes the skin JSON, texture atlas, and font files the same way as the export dialog.
+     * @param projectFile
+     * @param settingsFile
+     * @return true if the project was exported without errors.
+     */
+    private boolean exportProject(FileHandle projectFile, FileHandle settingsFile) {
+        System.out.println("Exporting " + projectFile.path());
+        try {
+            if (!projectFile.exists()) {
+                System.err.println("  ERROR: Project file does not exist.");
+                return false;
+            }
+            
+            projectData.load(projectFile);
+            
+            var missingDrawables = projectData.verifyDrawablePaths();
+            var missingFonts = projectData.verifyFontPaths();
+            if (missingDrawables.size > 0 || missingFonts.size > 0) {
+                for (var drawable : missingDrawables) {
+                    System.err.println("  ERROR: Drawable file " + drawable.file + " does not exist.");
+                }
+                for (var font : missingFonts) {
+                    System.err.println("  ERROR: Font file " + font.file + " does not exist.");
+                }
+                return false;
+            }
+            
+            var folder = outputFolder != null ? outputFolder : Gdx.files.absolute(projectData.getLastImportExportPath());
+            var targetFile = folder.extension().equalsIgnoreCase("json") ? folder : folder.child(projectFile.nameWithoutExtension() + ".json");
+            targetFile.parent().mkdirs();
+            
+            var warnings = new Array<String>();
+            warnings.addAll(jsonData.writeFile(targetFile));
+            
+            if (projectData.isExportingAtlas()) {
+                warnings.addAll(atlasData.writeAtlas(targetFile.parent().child(targetFile.nameWithoutExtension() + ".atlas"), settingsFile));
+            }
+            
+            if (projectData.isExportingFonts()) {
+                for (FontData font : jsonData.getFonts()) {
+                    if (!font.file.parent().equals(targetFile.parent())) {
+                        font.file.copyTo(targetFile.parent());
+                    }
+                }
+                
+                for (FreeTypeFontData font : jsonData.getFreeTypeFonts()) {
+                    if (font.useCustomSerializer && !font.file.parent().equals(targetFile.parent())) {
+                        font.file.copyTo(targetFile.parent());
+                    }
+                }
+            }
+            
+            boolean failed = false;
+            for (var warning : warnings) {
+                //warnings use label color markup for the warning dialog
+                var text = warning.replaceAll("\\[[^\\]]*\\]", "");
+                System.err.println("  " + text);
+                if (warningsAsErrors || text.startsWith("ERROR")) failed = true;
+            }
+            
+            System.out.println("  " + (failed ? "Failed: " : "Exported: ") + targetFile.path());
+            return !failed;
+        } catch (Exception e) {
+            Gdx.app.error(getClass().getName(), "Error while exporting " + projectFile.path(), e);
+            return false;
+        }
+    }
+    
+    @Override
+    public void dispose() {
+        ImageMetadataCache.save();
+        finished.countDown();
+    }
+}
@@ -31,8 +31,6 @@ import com.badlogic.gdx.scenes.scene2d.*;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.scenes.scene2d.utils.DragListener;
-import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
-import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
 import com.ray3k.skincomposer.*;
@@ -85,8 +83,7 @@ public class DialogColorPicker extends Dialog {
         hueGradient.add(new GradientDrawable(Color.YELLOW, Color.YELLOW, Color.GREEN, Color.GREEN));
         hueGradient.add(new GradientDrawable(Color.RED, Color.RED, Color.YELLOW, Color.YELLOW));
         
-        Drawable tinted = ((TextureRegionDrawable) skin.getDrawable("white")).tint(Color.LIGHT_GRAY);
-        checker = new CheckerDrawable(skin.getDrawable("white"), tinted, 10.0f, 10.0f);
+        checker = new CheckerDrawable(Color.WHITE, Color.LIGHT_GRAY, 10.0f, 10.0f);
         alphaStack = new StackedDrawable(checker, gradientAlpha);
         
         Table root = getContentTable();
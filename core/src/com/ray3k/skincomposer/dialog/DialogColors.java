@@ -29,7 +29,6 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.scenes.scene2d.*;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
-import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Sort;
@@ -37,6 +36,7 @@ import com.ray3k.skincomposer.Main;
 import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.UndoableManager.ColorUndoable;
 import com.ray3k.skincomposer.UndoableManager.CustomColorUndoable;
+import com.ray3k.skincomposer.data.ReferenceIndex.ResourceType;
 import com.ray3k.skincomposer.data.*;
 import com.ray3k.skincomposer.utils.Utils;
 
@@ -374,15 +374,8 @@ public class DialogColors extends Dialog {
                         projectData.setChangesSaved(false);
                         
                         //clear style properties that use this color.
-                        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                            for (StyleData data : datas) {
-                                for (StyleProperty property : data.properties.values()) {
-                                    if (property != null && property.type.equals(Color.class) && property.value != null && property.value.equals(deleteColor.getName())) {
-                                        property.value = null;
-                                    }
-                                }
-                            }
-                        }
+                        var references = projectData.getReferenceIndex();
+                        references.remove(ResourceType.COLOR, deleteColor.getName());
                         
                         //delete tinted drawables based on this color.
                         for(DrawableData drawableData : new Array<>(projectData.getAtlasData().getDrawables())) {
@@ -390,15 +383,7 @@ public class DialogColors extends Dialog {
                                 projectData.getAtlasData().getDrawables().removeValue(drawableData, true);
                                 
                                 //clear any style properties based on this tinted drawable.
-                                for (Array<StyleData> styleDatas : jsonData.getClassStyleMap().values()) {
-                                    for (StyleData styleData : styleDatas) {
-                                        for (StyleProperty styleProperty : styleData.properties.values()) {
-                                            if (styleProperty != null && styleProperty.type.equals(Drawable.class) && styleProperty.value != null && styleProperty.value.equals(drawableData.toString())) {
-                                                styleProperty.value = null;
-                                            }
-                                        }
-                                    }
-                                }
+                                references.remove(ResourceType.DRAWABLE, drawableData.toString());
                             }
                         }
                         
@@ -462,8 +447,7 @@ public class DialogColors extends Dialog {
         undoableManager.clearUndoables();
 
         rootTable.refreshStyleProperties(true);
-        atlasData.produceAtlas();
-        rootTable.refreshPreview();
+        AtlasBuildService.requestBuild(success -> rootTable.refreshPreview());
         
         projectData.setChangesSaved(false);
         
@@ -561,15 +545,7 @@ public class DialogColors extends Dialog {
     
     private void renameColor(ColorData color, String newName) {
         //style properties
-        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-            for (StyleData data : datas) {
-                for (StyleProperty property : data.properties.values()) {
-                    if (property != null && property.type.equals(Color.class) && property.value != null && property.value.equals(color.getName())) {
-                        property.value = newName;
-                    }
-                }
-            }
-        }
+        projectData.getReferenceIndex().rename(ResourceType.COLOR, color.getName(), newName);
         
         for (DrawableData drawableData : atlasData.getDrawables()) {
             //tinted drawables
@@ -585,6 +561,7 @@ public class DialogColors extends Dialog {
         
         try {
             color.setName(newName);
+            jsonData.colorRenamed();
         } catch (ColorData.NameFormatException ex) {
             Gdx.app.error(getClass().getName(), "Error trying to rename a color.", ex);
             dialogFactory.showDialogError("Name Error...","Error while naming a color.\\nPlease ensure name is formatted appropriately:\\nNo spaces, don't start with a number, - and _ acceptable.\n\nOpen log?");
@@ -645,7 +622,7 @@ public class DialogColors extends Dialog {
 
                     if (!hasColor) {
                         projectData.setChangesSaved(false);
-                        styleProperty.value = null;
+                        styleProperty.setValue(null);
                         rootTable.refreshStyleProperties(true);
                     }
                 }
@@ -39,17 +39,18 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.*;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.ObjectMap.Values;
 import com.badlogic.gdx.utils.Scaling;
-import com.badlogic.gdx.utils.Sort;
 import com.ray3k.skincomposer.FilesDroppedListener;
 import com.ray3k.skincomposer.Main;
 import com.ray3k.skincomposer.Undoable;
 import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.UndoableManager.CustomDrawableUndoable;
 import com.ray3k.skincomposer.UndoableManager.DrawableUndoable;
+import com.ray3k.skincomposer.VirtualGrid;
+import com.ray3k.skincomposer.VirtualGrid.CellAdapter;
 import com.ray3k.skincomposer.data.*;
 import com.ray3k.skincomposer.data.DrawableData.DrawableType;
+import com.ray3k.skincomposer.data.ReferenceIndex.ResourceType;
 import com.ray3k.skincomposer.dialog.DialogTenPatch.TenPatchData;
 import com.ray3k.skincomposer.utils.Utils;
 import com.ray3k.stripe.PopTableClickListener;
@@ -75,6 +76,8 @@ public class DialogDrawables extends Dialog {
     private CustomProperty customProperty;
     private Array<DrawableData> drawables;
     private Table contentTable;
+    private VirtualGrid<DrawableData, DrawableCell> drawableGrid;
+    private int drawableGridZoom;
     private FilesDroppedListener filesDroppedListener;
     private DialogDrawablesListener listener;
     private Main main;
@@ -82,6 +85,7 @@ public class DialogDrawables extends Dialog {
     private boolean showingOptions;
     public final static FilterOptions filterOptions = new FilterOptions();
     private FilterInputListener filterInputListener;
+    private final DrawableSearchIndex searchIndex = new DrawableSearchIndex();
     
     public interface DialogDrawablesListener {
         void confirmed(DrawableData drawable, DialogDrawables dialog);
@@ -387,65 +391,74 @@ public class DialogDrawables extends Dialog {
     }
     
     private void refreshDrawableDisplay() {
-        contentTable.clear();
-        
         if (drawables.size == 0) {
+            contentTable.clear();
             Label label = new Label("No drawables have been added!", getSkin());
             if (atlasData.getDrawables().size > 0) {
                 label.setText("No drawables match filter!");
             }
             contentTable.add(label);
+            scrollPane.setActor(contentTable);
         } else {
-            if (MathUtils.isZero(zoomSlider.getValue())) {
-                refreshDrawableDisplayDetail();
-            } else {
-                refreshDrawableDisplayNormal();
+            //the grid only creates buttons for the drawables in view, so it is only recreated when the zoom changes
+            int zoom = MathUtils.floor(zoomSlider.getValue());
+            if (drawableGrid == null || drawableGridZoom != zoom) {
+                drawableGridZoom = zoom;
+                drawableGrid = new VirtualGrid<>(new CellAdapter<>() {
+                    @Override
+                    public DrawableCell newCell() {
+                        return new DrawableCell(zoom);
+                    }
+                    
+                    @Override
+                    public void bind(DrawableCell cell, DrawableData drawable) {
+                        cell.bind(drawable);
+                    }
+                });
+                if (zoom == 0) {
+                    drawableGrid.fillX(true).pad(5).space(3);
+                } else {
+                    drawableGrid.space(5.0f);
+                }
             }
+            drawableGrid.setItems(drawables);
+            if (scrollPane.getActor() != drawableGrid) scrollPane.setActor(drawableGrid);
         }
     }
     
-    private void refreshDrawableDisplayDetail() {
-        contentTable.pad(5);
-        contentTable.defaults().space(3);
-        
-        DrawableData selectedDrawable = null;
-        if (property != null) {
-            selectedDrawable = atlasData.getDrawable((String) property.value);
-        } else if (customProperty != null) {
-            selectedDrawable = atlasData.getDrawable((String) customProperty.getValue());
-        }
-        
-        for (var drawable: drawables) {
-            Button drawableButton;
-    
-            if ((property != null || customProperty != null) && drawable.type != DrawableType.FONT) {
-                drawableButton = new Button(getSkin(), selectedDrawable == drawable ? "color-base-selected" : "color-base");
-                drawableButton.addListener(new ChangeListener() {
-                    @Override
-                    public void changed(ChangeListener.ChangeEvent event, Actor actor) {
+    /**
+     * A drawable displayed in the drawables grid. Cells are reused for other drawables as the grid scrolls.
+     */
+    private class DrawableCell extends Button {
+        private DrawableData drawable;
+        private final Container<Image> bg;
+        private final Image image;
+        private final Image typeImage;
+        private final Label typeLabel;
+        private final Label nameLabel;
+        private final TextTooltip toolTip;
+        private final Button moreButton;
+        private MoreClickListener moreClickListener;
+        
+        public DrawableCell(int zoom) {
+            super(DialogDrawables.this.getSkin(), "color-base-static");
+            addListener(new ChangeListener() {
+                @Override
+                public void changed(ChangeListener.ChangeEvent event, Actor actor) {
+                    if (isSelectable(drawable)) {
                         result(drawable);
                         hide();
                     }
-                });
-                drawableButton.addListener(handListener);
-            } else {
-                drawableButton = new Button(getSkin(), "color-base-static");
-            }
-            contentTable.add(drawableButton).fillX();
-            contentTable.row();
-            
-            Table table = new Table();
-            drawableButton.add(table).growX();
+                }
+            });
             
-            table.defaults().space(10);
             //preview
-            Container bg = new Container();
+            bg = new Container<>();
             bg.setClip(true);
             bg.setBackground(getSkin().getDrawable("white"));
-            bg.setColor(drawable.bgColor);
             
-            Image image = new Image(atlasData.getDrawablePairs().get(drawable));
-            if (MathUtils.isEqual(zoomSlider.getValue(), 1)) {
+            image = new Image();
+            if (zoom == 1) {
                 image.setScaling(Scaling.fit);
                 bg.fill(false);
             } else {
@@ -453,135 +466,105 @@ public class DialogDrawables extends Dialog {
                 bg.fill();
             }
             bg.setActor(image);
-            table.add(bg).size(sizes[MathUtils.floor(zoomSlider.getValue())]);
             
-            //name
-            var label = new Label(drawable.name, getSkin());
-            label.setAlignment(Align.left);
-            label.setEllipsis("...");
-            label.setEllipsis(true);
-            table.add(label);
-    
-            image = new Image(getSkin(), drawable.type.iconName);
-            table.add(image).right().expandX().spaceLeft(50).spaceRight(5);
+            typeImage = new Image();
+            typeLabel = new Label("", getSkin());
             
-            label = new Label(drawable.type.formattedName, getSkin());
-            table.add(label).spaceLeft(5).width(100);
+            //name
+            nameLabel = new Label("", getSkin());
+            nameLabel.setEllipsis("...");
+            nameLabel.setEllipsis(true);
             
-            if (showingOptions && drawable.type != DrawableType.FONT) {
-                //more button
-                var button = new Button(getSkin(),  "more");
-                table.add(button);
-                button.addListener(handListener);
-                button.addListener(new MoreClickListener(drawable));
-                //prevent click from activating parent button.
-                button.addListener(new ChangeListener() {
-                    @Override
-                    public void changed(ChangeEvent event, Actor actor) {
-                        event.setBubbles(false);
-                    }
-                });
-            } else {
-                table.add().size(22, 22);
-            }
+            //more button
+            moreButton = new Button(getSkin(),  "more");
+            moreButton.addListener(handListener);
+            //prevent click from activating parent button.
+            moreButton.addListener(new ChangeListener() {
+                @Override
+                public void changed(ChangeEvent event, Actor actor) {
+                    event.setBubbles(false);
+                }
+            });
             
             //Tooltip
-            var toolTip = new TextTooltip(drawable.name, tooltipManager, getSkin());
-            label.addListener(toolTip);
-        }
-    }
-    
-    private void refreshDrawableDisplayNormal() {
-        var contentGroup = new HorizontalGroup();
-        contentGroup.center().wrap(true).space(5.0f).wrapSpace(5.0f).rowAlign(Align.left);
-        contentTable.add(contentGroup).grow();
-    
-        DrawableData selectedDrawable = null;
-        if (property != null) {
-            selectedDrawable = atlasData.getDrawable((String) property.value);
-        } else if (customProperty != null) {
-            selectedDrawable = atlasData.getDrawable((String) customProperty.getValue());
-        }
-        
-        for (var drawable : drawables) {
-            Button drawableButton;
-        
-            if ((property != null || customProperty != null) && drawable.type != DrawableType.FONT) {
-                drawableButton = new Button(getSkin(), selectedDrawable == drawable ? "color-base-selected" : "color-base");
-                drawableButton.addListener(new ChangeListener() {
-                    @Override
-                    public void changed(ChangeListener.ChangeEvent event, Actor actor) {
-                        result(drawable);
-                        hide();
-                    }
-                });
-                drawableButton.addListener(handListener);
+            toolTip = new TextTooltip("", tooltipManager, getSkin());
+            nameLabel.addListener(toolTip);
+            
+            Table table = new Table();
+            if (zoom == 0) {
+                add(table).growX();
+                
+                table.defaults().space(10);
+                table.add(bg).size(sizes[zoom]);
+                
+                nameLabel.setAlignment(Align.left);
+                table.add(nameLabel);
+                
+                table.add(typeImage).right().expandX().spaceLeft(50).spaceRight(5);
+                table.add(typeLabel).spaceLeft(5).width(100);
+                table.add(moreButton).size(22, 22);
             } else {
-                drawableButton = new Button(getSkin(), "color-base-static");
+                add(table).width(sizes[zoom]).height(sizes[zoom]);
+                
+                var subTable = new Table();
+                table.add(subTable).growX();
+                
+                subTable.add(typeImage).spaceRight(5);
+                subTable.add(typeLabel);
+                subTable.add(moreButton).right().expandX();
+                
+                table.row();
+                table.add(bg).grow();
+                
+                table.row();
+                nameLabel.setAlignment(Align.center);
+                table.add(nameLabel).colspan(6).growX().width(sizes[zoom]);
             }
-            contentGroup.addActor(drawableButton);
-        
-            Table table = new Table();
-            drawableButton.add(table).width(sizes[MathUtils.floor(zoomSlider.getValue())]).height(sizes[MathUtils.floor(zoomSlider.getValue())]);
-        
-            var subTable = new Table();
-            table.add(subTable).growX();
+        }
         
-            var image = new Image(getSkin(), drawable.type.iconName);
-            subTable.add(image).spaceRight(5);
+        public void bind(DrawableData drawable) {
+            this.drawable = drawable;
             
-            var label = new Label(drawable.type == null ? "error" : drawable.type.formattedName, getSkin());
-            subTable.add(label);
+            DrawableData selectedDrawable = null;
+            if (property != null) {
+                selectedDrawable = atlasData.getDrawable((String) property.value);
+            } else if (customProperty != null) {
+                selectedDrawable = atlasData.getDrawable((String) customProperty.getValue());
+            }
             
-            if (showingOptions && drawable.type != DrawableType.FONT) {
-                //more button
-                var button = new Button(getSkin(),  "more");
-                subTable.add(button).right().expandX();
-                button.addListener(handListener);
-                button.addListener(new MoreClickListener(drawable));
-                //prevent click from activating parent button.
-                button.addListener(new ChangeListener() {
-                    @Override
-                    public void changed(ChangeEvent event, Actor actor) {
-                        event.setBubbles(false);
-                    }
-                });
+            removeListener(handListener);
+            if (isSelectable(drawable)) {
+                setStyle(getSkin().get(selectedDrawable == drawable ? "color-base-selected" : "color-base", ButtonStyle.class));
+                addListener(handListener);
             } else {
-                subTable.add().expandX();
+                setStyle(getSkin().get("color-base-static", ButtonStyle.class));
             }
-        
-            //preview
-            table.row();
-            Container bg = new Container();
-            bg.setClip(true);
-            bg.setBackground(getSkin().getDrawable("white"));
+            
             bg.setColor(drawable.bgColor);
-        
-            image = new Image(atlasData.getDrawablePairs().get(drawable));
-            if (MathUtils.isEqual(zoomSlider.getValue(), 1)) {
-                image.setScaling(Scaling.fit);
-                bg.fill(false);
+            image.setDrawable(atlasData.getDrawablePairs().get(drawable));
+            typeImage.setDrawable(getSkin(), drawable.type.iconName);
+            typeLabel.setText(drawable.type == null ? "error" : drawable.type.formattedName);
+            nameLabel.setText(drawable.name);
+            toolTip.getActor().setText(drawable.name);
+            
+            if (moreClickListener != null) {
+                moreButton.removeListener(moreClickListener);
+                moreClickListener = null;
+            }
+            if (showingOptions && drawable.type != DrawableType.FONT) {
+                moreClickListener = new MoreClickListener(drawable);
+                moreButton.addListener(moreClickListener);
+                moreButton.setVisible(true);
             } else {
-                image.setScaling(Scaling.stretch);
-                bg.fill();
+                moreButton.setVisible(false);
             }
-            bg.setActor(image);
-            table.add(bg).grow();
-        
-            //name
-            table.row();
-            label = new Label(drawable.name, getSkin());
-            label.setEllipsis("...");
-            label.setEllipsis(true);
-            label.setAlignment(Align.center);
-            table.add(label).colspan(6).growX().width(sizes[MathUtils.floor(zoomSlider.getValue())]);
-        
-            //Tooltip
-            Tooltip toolTip = new TextTooltip(drawable.name, tooltipManager, getSkin());
-            label.addListener(toolTip);
         }
     }
     
+    private boolean isSelectable(DrawableData drawable) {
+        return (property != null || customProperty != null) && drawable.type != DrawableType.FONT;
+    }
+    
     private class MoreClickListener extends PopTableClickListener {
         public MoreClickListener(DrawableData drawable) {
             super(getSkin(), "more");
@@ -677,8 +660,7 @@ public class DialogDrawables extends Dialog {
                                     projectData.getAtlasData().getDrawables().add(drawableData);
                                     projectData.setChangesSaved(false);
                                     gatherDrawables();
-                                    atlasData.produceAtlas();
-                                    sortBySelectedMode();
+                                    AtlasBuildService.requestBuild(success -> sortBySelectedMode());
                                     getStage().setScrollFocus(scrollPane);
                                     desktopWorker.addFilesDroppedListener(filesDroppedListener);
                                     refreshDrawableDisplay();
@@ -705,8 +687,7 @@ public class DialogDrawables extends Dialog {
                         public void changed(ChangeListener.ChangeEvent event, Actor actor) {
                             dialogFactory.showDrawableSettingsDialog(getSkin(), getStage(), drawable, (boolean accepted) -> {
                                 if (accepted) {
-                                    atlasData.produceAtlas();
-                                    refreshDrawableDisplay();
+                                    AtlasBuildService.requestBuild(success -> refreshDrawableDisplay());
                                 }
                             });
                         }
@@ -732,8 +713,7 @@ public class DialogDrawables extends Dialog {
                                     drawableData.name = text;
                                     atlasData.getDrawables().add(drawableData);
                                     gatherDrawables();
-                                    atlasData.produceAtlas();
-                                    sortBySelectedMode();
+                                    AtlasBuildService.requestBuild(success -> sortBySelectedMode());
                                 }
                 
                                 @Override
@@ -779,8 +759,7 @@ public class DialogDrawables extends Dialog {
                                     drawableData.name = text;
                                     atlasData.getDrawables().add(drawableData);
                                     gatherDrawables();
-                                    atlasData.produceAtlas();
-                                    sortBySelectedMode();
+                                    AtlasBuildService.requestBuild(success -> sortBySelectedMode());
                                 }
                 
                                 @Override
@@ -824,8 +803,7 @@ public class DialogDrawables extends Dialog {
                                     drawableData.name = text;
                                     atlasData.getDrawables().add(drawableData);
                                     gatherDrawables();
-                                    atlasData.produceAtlas();
-                                    sortBySelectedMode();
+                                    AtlasBuildService.requestBuild(success -> sortBySelectedMode());
                                 }
                 
                                 @Override
@@ -883,10 +861,10 @@ public class DialogDrawables extends Dialog {
                                 @Override
                                 public void selected(DrawableData drawableData) {
                                     drawable.set(drawableData);
+                                    atlasData.drawableRenamed();
                                     projectData.setChangesSaved(false);
                                     gatherDrawables();
-                                    atlasData.produceAtlas();
-                                    sortBySelectedMode();
+                                    AtlasBuildService.requestBuild(success -> sortBySelectedMode());
                                     getStage().setScrollFocus(scrollPane);
                                     desktopWorker.addFilesDroppedListener(filesDroppedListener);
                                     refreshDrawableDisplay();
@@ -920,8 +898,7 @@ public class DialogDrawables extends Dialog {
                                     drawableData.name = text;
                                     atlasData.getDrawables().add(drawableData);
                                     gatherDrawables();
-                                    atlasData.produceAtlas();
-                                    sortBySelectedMode();
+                                    AtlasBuildService.requestBuild(success -> sortBySelectedMode());
                                 }
                 
                                 @Override
@@ -935,6 +912,20 @@ public class DialogDrawables extends Dialog {
                     break;
             }
     
+            //where used
+            var whereUsedButton = new ImageTextButton("Where Used", getSkin());
+            whereUsedButton.getLabelCell().expandX().left();
+            root.add(whereUsedButton);
+            root.row();
+            whereUsedButton.addListener(handListener);
+            whereUsedButton.addListener(hideListener);
+            whereUsedButton.addListener(new ChangeListener() {
+                @Override
+                public void changed(ChangeListener.ChangeEvent event, Actor actor) {
+                    showWhereUsedDialog(drawable);
+                }
+            });
+    
             if (drawable.type != DrawableType.FONT) {
                 //visible
                 var button = new ImageTextButton("Visible", getSkin(), "visible");
@@ -1025,8 +1016,7 @@ public class DialogDrawables extends Dialog {
                     @Override
                     public boolean remove() {
                         gatherDrawables();
-                        atlasData.produceAtlas();
-                        sortBySelectedMode();
+                        AtlasBuildService.requestBuild(success -> sortBySelectedMode());
                         getStage().setScrollFocus(scrollPane);
                         return super.remove();
                     }
@@ -1096,8 +1086,7 @@ public class DialogDrawables extends Dialog {
                     applyTintedDrawableSettings(drawable, textField.getText());
                     drawable.minWidth = ((Spinner) findActor("minWidth")).getValueAsInt();
                     drawable.minHeight = ((Spinner) findActor("minHeight")).getValueAsInt();
-                    atlasData.produceAtlas();
-                    refreshDrawableDisplay();
+                    AtlasBuildService.requestBuild(success -> refreshDrawableDisplay());
                 }
                 getStage().setScrollFocus(scrollPane);
             }
@@ -1187,17 +1176,18 @@ public class DialogDrawables extends Dialog {
     private void applyTintedDrawableSettings(DrawableData drawable, String name) {
         String oldName = drawable.name;
         drawable.name = name;
+        atlasData.drawableRenamed();
 
         undoableManager.clearUndoables();
         updateStyleValuesForRename(oldName, name);
         
         rootTable.refreshStyleProperties(true);
-        atlasData.produceAtlas();
-        rootTable.refreshPreview();
+        AtlasBuildService.requestBuild(success -> {
+            rootTable.refreshPreview();
+            sortBySelectedMode();
+        });
         
         projectData.setChangesSaved(false);
-        
-        sortBySelectedMode();
     }
     
     private void tiledDrawableSettingsDialog(String title, DrawableData drawable, boolean newDrawable) {
@@ -1399,6 +1389,7 @@ public class DialogDrawables extends Dialog {
     
     private void tiledDrawableSettings(DrawableData drawable, ColorData colorData, float minWidth, float minHeight, String name) {
         drawable.name = name;
+        atlasData.drawableRenamed();
         drawable.tintName = colorData.getName();
         drawable.minWidth = minWidth;
         drawable.minHeight = minHeight;
@@ -1417,24 +1408,12 @@ public class DialogDrawables extends Dialog {
         }
         projectData.setChangesSaved(false);
         gatherDrawables();
-        atlasData.produceAtlas();
-        sortBySelectedMode();
+        AtlasBuildService.requestBuild(success -> sortBySelectedMode());
         getStage().setScrollFocus(scrollPane);
     }
     
     private void updateStyleValuesForRename(String oldName, String newName) {
-        Values<Array<StyleData>> values = jsonData.getClassStyleMap().values();
-        for (Array<StyleData> styles : values) {
-            for (StyleData style : styles) {
-                for (StyleProperty styleProperty : style.properties.values()) {
-                    if (Drawable.class.isAssignableFrom(styleProperty.type)) {
-                        if (styleProperty.value != null && styleProperty.value.equals(oldName)) {
-                            styleProperty.value = newName;
-                        }
-                    }
-                }
-            }
-        }
+        projectData.getReferenceIndex().rename(ResourceType.DRAWABLE, oldName, newName);
     }
     
     private void deleteDrawable(DrawableData drawable) {
@@ -1444,15 +1423,7 @@ public class DialogDrawables extends Dialog {
             removeRegionFromTenPatches(drawable);
             atlasData.getDrawables().removeValue(drawable, true);
 
-            for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                for (StyleData data : datas) {
-                    for (StyleProperty styleProperty : data.properties.values()) {
-                        if (styleProperty != null && styleProperty.type.equals(Drawable.class) && styleProperty.value != null && styleProperty.value.equals(drawable.toString())) {
-                            styleProperty.value = null;
-                        }
-                    }
-                }
-            }
+            projectData.getReferenceIndex().remove(ResourceType.DRAWABLE, drawable.toString());
 
             rootTable.refreshStyleProperties(true);
             rootTable.refreshPreview();
@@ -1501,6 +1472,37 @@ public class DialogDrawables extends Dialog {
         dialog.show(getStage());
     }
     
+    /**
+     * Shows a dialog listing every style property that references the provided
+     * drawable. The references are read from the project's ReferenceIndex.
+     * @param drawable
+     */
+    private void showWhereUsedDialog(DrawableData drawable) {
+        var referenceIndex = projectData.getReferenceIndex();
+        var references = referenceIndex.getReferences(ResourceType.DRAWABLE, drawable.name);
+        
+        Dialog dialog = new Dialog("Where used", getSkin(), "bg");
+        dialog.getTitleTable().padLeft(5.0f);
+        dialog.getContentTable().padLeft(10.0f).padRight(10.0f).padTop(5.0f);
+        dialog.getButtonTable().padBottom(15.0f);
+        
+        if (references.size == 0) {
+            dialog.text("\"" + drawable.name + "\" is not used by any style.");
+        } else {
+            var builder = new StringBuilder("\"" + drawable.name + "\" is used by:");
+            for (var property : references) {
+                var style = referenceIndex.getStyle(property);
+                builder.append("\n").append(style.clazz.getSimpleName()).append(": ").append(style.name).append(" ").append(property.name);
+            }
+            dialog.text(builder.toString());
+        }
+        
+        dialog.button("OK");
+        dialog.getButtonTable().getCells().first().getActor().addListener(handListener);
+        dialog.key(Input.Keys.ENTER, null).key(Keys.NUMPAD_ENTER, null).key(Input.Keys.ESCAPE, null);
+        dialog.show(getStage());
+    }
+    
     private void removeRegionFromTenPatches(DrawableData drawable) {
         for (var data : atlasData.getDrawables()) {
             if (data.tenPatchData != null) {
@@ -1530,146 +1532,8 @@ public class DialogDrawables extends Dialog {
      */
     private void sortBySelectedMode() {
         gatherDrawables();
-        applyFilterOptions();
-        
-        switch (sortSelectBox.getSelectedIndex()) {
-            case 0:
-                sortDrawablesAZ();
-                break;
-            case 1:
-                sortDrawablesZA();
-                break;
-            case 2:
-                sortDrawablesOldest();
-                break;
-            case 3:
-                sortDrawablesNewest();
-                break;
-        }
-    }
-    
-    private void applyFilterOptions() {
-        var iter = drawables.iterator();
-        while (iter.hasNext()) {
-            var drawable = iter.next();
-            
-            if (!filterOptions.regularExpression) {
-                if (!filterOptions.name.equals("") && !drawable.name.contains(filterOptions.name.toLowerCase(Locale.ROOT))) {
-                    iter.remove();
-                    continue;
-                }
-            } else {
-                if (!drawable.name.matches(filterOptions.name)) {
-                    iter.remove();
-                }
-            }
-            
-            if (!filterOptions.custom) {
-                if (drawable.type == DrawableType.CUSTOM) {
-                    iter.remove();
-                    continue;
-                }
-            }
-            
-            if (!filterOptions.ninePatch) {
-                if (drawable.type == DrawableType.NINE_PATCH) {
-                    iter.remove();
-                    continue;
-                }
-            }
-            
-            if (!filterOptions.texture) {
-                if (drawable.type == DrawableType.TEXTURE) {
-                    iter.remove();
-                    continue;
-                }
-            }
-            
-            if (!filterOptions.tiled) {
-                if (drawable.type == DrawableType.TILED) {
-                    iter.remove();
-                    continue;
-                }
-            }
-            
-            if (!filterOptions.tinted) {
-                if (drawable.type == DrawableType.TINTED || drawable.type == DrawableType.TINTED_FROM_COLOR_DATA || drawable.type == DrawableType.NINE_PATCH && (drawable.tint != null || drawable.tintName != null)) {
-                    iter.remove();
-                    continue;
-                }
-            }
-            
-            if (!filterOptions.tenPatch) {
-                if (drawable.type == DrawableType.TENPATCH) {
-                    iter.remove();
-                    continue;
-                }
-            }
-    
-            if (!filterOptions.pixel) {
-                if (drawable.type == DrawableType.PIXEL) {
-                    iter.remove();
-                    continue;
-                }
-            }
-            
-            if (!filterOptions.hidden) {
-                if (drawable.hidden) {
-                    iter.remove();
-                }
-            }
-            
-            if (!filterOptions.font && drawable.type == DrawableType.FONT) {
-                iter.remove();
-            }
-        }
-    }
-    
-    /**
-     * Sorts alphabetically from A to Z.
-     */
-    private void sortDrawablesAZ() {
-        Sort.instance().sort(drawables, (DrawableData o1, DrawableData o2) -> o1.toString().compareToIgnoreCase(o2.toString()));
-        refreshDrawableDisplay();
-    }
-    
-    /**
-     * Sorts alphabetically from Z to A.
-     */
-    private void sortDrawablesZA() {
-        Sort.instance().sort(drawables, (DrawableData o1, DrawableData o2) -> o1.toString().compareToIgnoreCase(o2.toString()) * -1);
-        refreshDrawableDisplay();
-    }
-    
-    /**
-     * Sorts by modified date with oldest first.
-     */
-    private void sortDrawablesOldest() {
-        Sort.instance().sort(drawables, (DrawableData o1, DrawableData o2) -> {
-            if (o1.file.lastModified() < o2.file.lastModified()) {
-                return -1;
-            } else if (o1.file.lastModified() > o2.file.lastModified()) {
-                return 1;
-            } else {
-                return 0;
-            }
-        });
-        refreshDrawableDisplay();
-    }
-    
-    /**
-     * Sorts by modified date with newest first.
-     */
-    private void sortDrawablesNewest() {
-        Sort.instance().sort(drawables, (DrawableData o1, DrawableData o2) -> {
-            if (o1.file.lastModified() < o2.file.lastModified()) {
-                return 1;
-            } else if (o1.file.lastModified() > o2.file.lastModified()) {
-                return -1;
-            } else {
-                return 0;
-            }
-        });
+        searchIndex.update(drawables);
+        searchIndex.search(filterOptions, sortSelectBox.getSelectedIndex(), drawables);
         refreshDrawableDisplay();
     }
     
@@ -1735,23 +1599,14 @@ public class DialogDrawables extends Dialog {
      */
     private void removeDuplicateDrawables(FileHandle handle, boolean deleteStyleValues) {
         boolean refreshDrawables = false;
+        var references = deleteStyleValues ? projectData.getReferenceIndex() : null;
         String name = DrawableData.proper(handle.name());
         for (int i = 0; i < atlasData.getDrawables().size; i++) {
             DrawableData data = atlasData.getDrawables().get(i);
             if (name.equals(DrawableData.proper(data.file.name()))) {
                 atlasData.getDrawables().removeValue(data, true);
                 
-                if (deleteStyleValues) {
-                    for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                        for (StyleData tempData : datas) {
-                            for (StyleProperty prop : tempData.properties.values()) {
-                                if (prop != null && prop.type.equals(Drawable.class) && prop.value != null && prop.value.equals(data.toString())) {
-                                    prop.value = null;
-                                }
-                            }
-                        }
-                    }
-                }
+                if (references != null) references.remove(ResourceType.DRAWABLE, data.toString());
                 
                 refreshDrawables = true;
                 i--;
@@ -1772,22 +1627,13 @@ public class DialogDrawables extends Dialog {
      */
     private void removeDuplicateDrawables(String name, boolean deleteStyleValues) {
         boolean refreshDrawables = false;
+        var references = deleteStyleValues ? projectData.getReferenceIndex() : null;
         for (int i = 0; i < atlasData.getDrawables().size; i++) {
             DrawableData data = atlasData.getDrawables().get(i);
             if (data.name != null && name.equals(data.name)) {
                 atlasData.getDrawables().removeValue(data, true);
                 
-                if (deleteStyleValues) {
-                    for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                        for (StyleData tempData : datas) {
-                            for (StyleProperty prop : tempData.properties.values()) {
-                                if (prop != null && prop.type.equals(Drawable.class) && prop.value != null && prop.value.equals(data.toString())) {
-                                    prop.value = null;
-                                }
-                            }
-                        }
-                    }
-                }
+                if (references != null) references.remove(ResourceType.DRAWABLE, data.toString());
                 
                 refreshDrawables = true;
                 i--;
@@ -1855,29 +1701,27 @@ public class DialogDrawables extends Dialog {
             drawable.type = DrawableType.CUSTOM;
             atlasData.getDrawables().add(drawable);
             gatherDrawables();
-            dialogFactory.showDialogLoading(() -> {
-                Gdx.app.postRunnable(() -> {
-                    if (!atlasData.produceAtlas()) {
-                        showDrawableError();
-                        Gdx.app.log(getClass().getName(), "Attempting to reload drawables backup...");
-                        atlasData.getDrawables().clear();
-                        atlasData.getDrawables().addAll(backup);
-                        gatherDrawables();
-                        if (atlasData.produceAtlas()) {
-                            Gdx.app.log(getClass().getName(), "Successfully rolled back changes to drawables");
-                        } else {
-                            Gdx.app.error(getClass().getName(), "Critical failure, could not roll back changes to drawables");
-                        }
+            dialogFactory.showDialogAtlasBuild(success -> {
+                if (!success) {
+                    showDrawableError();
+                    Gdx.app.log(getClass().getName(), "Attempting to reload drawables backup...");
+                    atlasData.getDrawables().clear();
+                    atlasData.getDrawables().addAll(backup);
+                    gatherDrawables();
+                    if (atlasData.produceAtlas()) {
+                        Gdx.app.log(getClass().getName(), "Successfully rolled back changes to drawables");
                     } else {
-                        if (projectData.areResourcesRelative()) {
-                            projectData.makeResourcesRelative();
-                        }
-                        
-                        projectData.setChangesSaved(false);
+                        Gdx.app.error(getClass().getName(), "Critical failure, could not roll back changes to drawables");
+                    }
+                } else {
+                    if (projectData.areResourcesRelative()) {
+                        projectData.makeResourcesRelative();
                     }
                     
-                    sortBySelectedMode();
-                });
+                    projectData.setChangesSaved(false);
+                }
+                
+                sortBySelectedMode();
             });
         });
     }
@@ -1894,6 +1738,7 @@ public class DialogDrawables extends Dialog {
             undoableManager.clearUndoables();
             updateStyleValuesForRename(drawable.name, name);
             drawable.name = name;
+            atlasData.drawableRenamed();
             drawable.tintName = colorData.getName();
             drawable.minWidth = minWidth;
             drawable.minHeight = minHeight;
@@ -1904,12 +1749,12 @@ public class DialogDrawables extends Dialog {
             }
     
             rootTable.refreshStyleProperties(true);
-            atlasData.produceAtlas();
-            rootTable.refreshPreview();
+            AtlasBuildService.requestBuild(success -> {
+                rootTable.refreshPreview();
+                sortBySelectedMode();
+            });
     
             projectData.setChangesSaved(false);
-    
-            sortBySelectedMode();
         });
     }
     
@@ -1932,29 +1777,27 @@ public class DialogDrawables extends Dialog {
             
             atlasData.getDrawables().add(drawable);
             gatherDrawables();
-            dialogFactory.showDialogLoading(() -> {
-                Gdx.app.postRunnable(() -> {
-                    if (!atlasData.produceAtlas()) {
-                        showDrawableError();
-                        Gdx.app.log(getClass().getName(), "Attempting to reload drawables backup...");
-                        atlasData.getDrawables().clear();
-                        atlasData.getDrawables().addAll(backup);
-                        gatherDrawables();
-                        if (atlasData.produceAtlas()) {
-                            Gdx.app.log(getClass().getName(), "Successfully rolled back changes to drawables");
-                        } else {
-                            Gdx.app.error(getClass().getName(), "Critical failure, could not roll back changes to drawables");
-                        }
+            dialogFactory.showDialogAtlasBuild(success -> {
+                if (!success) {
+                    showDrawableError();
+                    Gdx.app.log(getClass().getName(), "Attempting to reload drawables backup...");
+                    atlasData.getDrawables().clear();
+                    atlasData.getDrawables().addAll(backup);
+                    gatherDrawables();
+                    if (atlasData.produceAtlas()) {
+                        Gdx.app.log(getClass().getName(), "Successfully rolled back changes to drawables");
                     } else {
-                        if (projectData.areResourcesRelative()) {
-                            projectData.makeResourcesRelative();
-                        }
-                        
-                        projectData.setChangesSaved(false);
+                        Gdx.app.error(getClass().getName(), "Critical failure, could not roll back changes to drawables");
+                    }
+                } else {
+                    if (projectData.areResourcesRelative()) {
+                        projectData.makeResourcesRelative();
                     }
                     
-                    sortBySelectedMode();
-                });
+                    projectData.setChangesSaved(false);
+                }
+                
+                sortBySelectedMode();
             });
         });
     }
@@ -2019,8 +1862,7 @@ public class DialogDrawables extends Dialog {
                     }
                 }
                 finalizeDrawables(backup, filesToProcess);
-                atlasData.produceAtlas();
-                rootTable.refreshPreview();
+                AtlasBuildService.requestBuild(success -> rootTable.refreshPreview());
             }
         };
         
@@ -2075,29 +1917,27 @@ public class DialogDrawables extends Dialog {
         
         gatherDrawables();
 
-        dialogFactory.showDialogLoading(() -> {
-            Gdx.app.postRunnable(() -> {
-                if (!atlasData.produceAtlas()) {
-                    showDrawableError();
-                    Gdx.app.log(getClass().getName(), "Attempting to reload drawables backup...");
-                    atlasData.getDrawables().clear();
-                    atlasData.getDrawables().addAll(backup);
-                    gatherDrawables();
-                    if (atlasData.produceAtlas()) {
-                        Gdx.app.log(getClass().getName(), "Successfully rolled back changes to drawables");
-                    } else {
-                        Gdx.app.error(getClass().getName(), "Critical failure, could not roll back changes to drawables");
-                    }
+        dialogFactory.showDialogAtlasBuild(success -> {
+            if (!success) {
+                showDrawableError();
+                Gdx.app.log(getClass().getName(), "Attempting to reload drawables backup...");
+                atlasData.getDrawables().clear();
+                atlasData.getDrawables().addAll(backup);
+                gatherDrawables();
+                if (atlasData.produceAtlas()) {
+                    Gdx.app.log(getClass().getName(), "Successfully rolled back changes to drawables");
                 } else {
-                    if (projectData.areResourcesRelative()) {
-                        projectData.makeResourcesRelative();
-                    }
-
-                    projectData.setChangesSaved(false);
+                    Gdx.app.error(getClass().getName(), "Critical failure, could not roll back changes to drawables");
+                }
+            } else {
+                if (projectData.areResourcesRelative()) {
+                    projectData.makeResourcesRelative();
                 }
 
-                sortBySelectedMode();
-            });
+                projectData.setChangesSaved(false);
+            }
+
+            sortBySelectedMode();
         });
     }
     
@@ -2152,8 +1992,7 @@ public class DialogDrawables extends Dialog {
                         @Override
                         public boolean remove() {
                             gatherDrawables();
-                            atlasData.produceAtlas();
-                            sortBySelectedMode();
+                            AtlasBuildService.requestBuild(success -> sortBySelectedMode());
                             getStage().setScrollFocus(scrollPane);
                             return super.remove();
                         }
@@ -2313,7 +2152,7 @@ public class DialogDrawables extends Dialog {
                         if (!hasDrawable) {
                             projectData.setChangesSaved(false);
                             undoableManager.clearUndoables();
-                            property.value = null;
+                            property.setValue(null);
                             rootTable.refreshStyleProperties(true);
                         }
                         
@@ -2362,8 +2201,7 @@ public class DialogDrawables extends Dialog {
             }
         }
     
-        atlasData.produceAtlas();
-        rootTable.refreshPreview();
+        AtlasBuildService.requestBuild(success -> rootTable.refreshPreview());
     }
 
     public boolean isShowing9patchButton() {
@@ -23,9 +23,11 @@
  ******************************************************************************/
 package com.ray3k.skincomposer.dialog;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.scenes.scene2d.ui.Dialog;
 import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.TextFileApplicationLogger;
 import com.ray3k.skincomposer.utils.Utils;
 
 import java.io.IOException;
@@ -54,6 +56,9 @@ public class DialogError extends Dialog {
         
         if ((boolean) object) {
             try {
+                if (Gdx.app.getApplicationLogger() instanceof TextFileApplicationLogger) {
+                    ((TextFileApplicationLogger) Gdx.app.getApplicationLogger()).flush();
+                }
                 Utils.openFileExplorer(Main.appFolder.child("temp/log.txt"));
             } catch (IOException e) {
                 e.printStackTrace();
@@ -813,12 +813,23 @@ public class DialogFactory {
         return null;
     }
 
-    public void showDialogLoading(Runnable runnable) {
+    public DialogLoading showDialogLoading(Runnable runnable) {
         DialogLoading dialog = new DialogLoading("", runnable, main);
         dialog.show(stage);
+        return dialog;
+    }
+    
+    /**
+     * Rebuilds the preview atlas in the background while showing a loading dialog with its progress.
+     * @param listener Called on the rendering thread once the drawables are available. May be null.
+     */
+    public void showDialogAtlasBuild(AtlasBuildService.BuildListener listener) {
+        DialogLoading dialog = new DialogLoading("", listener, main);
+        dialog.show(stage);
     }
     
     public void showSceneComposerDialog() {
+        projectData.loadSceneComposer();
         DialogSceneComposer dialog = new DialogSceneComposer();
         dialog.show(stage);
     }
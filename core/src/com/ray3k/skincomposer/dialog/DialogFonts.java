@@ -35,14 +35,15 @@ import com.badlogic.gdx.scenes.scene2d.*;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
-import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.utils.*;
 import com.ray3k.skincomposer.FilesDroppedListener;
 import com.ray3k.skincomposer.Main;
 import com.ray3k.skincomposer.UndoableManager.CustomFontUndoable;
 import com.ray3k.skincomposer.UndoableManager.FontUndoable;
+import com.ray3k.skincomposer.data.ReferenceIndex.ResourceType;
 import com.ray3k.skincomposer.data.*;
 import com.ray3k.skincomposer.data.DrawableData.DrawableType;
+import com.ray3k.skincomposer.utils.ImageMetadataCache;
 import com.ray3k.skincomposer.utils.Utils;
 import com.ray3k.stripe.PopTableClickListener;
 
@@ -73,6 +74,9 @@ public class DialogFonts extends Dialog {
     public void initialize(Main main, EventListener listener) {
         this.main = main;
         
+        //the font list shows the preview fonts, so they must be created before it is populated
+        FreeTypeFontLoader.finishLoading();
+        
         maxTextureWidth = 1024;
         maxTextureHeight = 1024;
         
@@ -291,6 +295,7 @@ public class DialogFonts extends Dialog {
                     }
                     
                     fonts.removeValue(font, false);
+                    jsonData.getPreviewFontCache().evict(deleteFont);
                 }
                 
                 var bitmapFontData = new BitmapFontData(file, false);
@@ -300,15 +305,7 @@ public class DialogFonts extends Dialog {
                     var duplicateDrawable = atlasData.getDrawable(imagefile.nameWithoutExtension());
                     if (duplicateDrawable != null) {
                         drawables.removeValue(duplicateDrawable, false);
-                        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                            for (StyleData data : datas) {
-                                for (StyleProperty styleProperty : data.properties.values()) {
-                                    if (styleProperty != null && styleProperty.type.equals(Drawable.class) && styleProperty.value != null && styleProperty.value.equals(duplicateDrawable.toString())) {
-                                        styleProperty.value = null;
-                                    }
-                                }
-                            }
-                        }
+                        projectData.getReferenceIndex().remove(ResourceType.DRAWABLE, duplicateDrawable.toString());
                         rootTable.refreshStyleProperties(true);
                         rootTable.refreshPreview();
                     }
@@ -416,7 +413,7 @@ public class DialogFonts extends Dialog {
                     if (!file.exists()) {
                         file = bf.fontFile.sibling(bf.fontFile.nameWithoutExtension() + ".png");
                     }
-                    if (Utils.brightness(Utils.averageEdgeColor(file)) < .5f) {
+                    if (Utils.brightness(ImageMetadataCache.getEdgeColor(file)) < .5f) {
                         bg.setColor(Color.WHITE);
                     } else {
                         bg.setColor(Color.BLACK);
@@ -431,6 +428,7 @@ public class DialogFonts extends Dialog {
                     @Override
                     public void changed(ChangeListener.ChangeEvent event, Actor actor) {
                         fonts.removeValue(deleteFont, true);
+                        jsonData.getPreviewFontCache().evict(deleteFont);
                         projectData.setChangesSaved(false);
                         BitmapFontData bitmapFontData = new BitmapFontData(deleteFont.file, false);
                         for (String path : bitmapFontData.imagePaths) {
@@ -438,15 +436,7 @@ public class DialogFonts extends Dialog {
                             fontDrawables.removeValue(new DrawableData(imagefile), false);
                         }
                         
-                        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                            for (StyleData data : datas) {
-                                for (StyleProperty property : data.properties.values()) {
-                                    if (property != null && property.type.equals(BitmapFont.class) && property.value != null && property.value.equals(deleteFont.getName())) {
-                                        property.value = null;
-                                    }
-                                }
-                            }
-                        }
+                        projectData.getReferenceIndex().remove(ResourceType.FONT, deleteFont.getName());
                         
                         undoableManager.clearUndoables();
                         
@@ -560,15 +550,7 @@ public class DialogFonts extends Dialog {
                         freeTypeFonts.removeValue(deleteFont, true);
                         projectData.setChangesSaved(false);
                         
-                        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-                            for (StyleData data : datas) {
-                                for (StyleProperty property : data.properties.values()) {
-                                    if (property != null && property.type.equals(BitmapFont.class) && property.value != null && property.value.equals(deleteFont.name)) {
-                                        property.value = null;
-                                    }
-                                }
-                            }
-                        }
+                        projectData.getReferenceIndex().remove(ResourceType.FONT, deleteFont.name);
                         
                         undoableManager.clearUndoables();
                         
@@ -707,15 +689,7 @@ public class DialogFonts extends Dialog {
     }
     
     private void renameFont(FontData font, String newName) {
-        for (Array<StyleData> datas : jsonData.getClassStyleMap().values()) {
-            for (StyleData data : datas) {
-                for (StyleProperty property : data.properties.values()) {
-                    if (property != null && property.type.equals(BitmapFont.class) && property.value != null && property.value.equals(font.getName())) {
-                        property.value = newName;
-                    }
-                }
-            }
-        }
+        projectData.getReferenceIndex().rename(ResourceType.FONT, font.getName(), newName);
         
         try {
             font.setName(newName);
@@ -773,7 +747,7 @@ public class DialogFonts extends Dialog {
                     }
 
                     if (!hasFont) {
-                        styleProperty.value = null;
+                        styleProperty.setValue(null);
                         projectData.setChangesSaved(false);
                         rootTable.refreshStyleProperties(true);
                     }
@@ -915,11 +889,6 @@ public class DialogFonts extends Dialog {
 
     private boolean produceAtlas() {
         try {
-            if (atlas != null) {
-                atlas.dispose();
-                atlas = null;
-            }
-            
             if (!atlasData.atlasCurrent) {
                 FileHandle defaultsFile = Main.appFolder.child("texturepacker/atlas-internal-settings.json");
                 atlasData.writeAtlas(defaultsFile);
@@ -1137,7 +1106,7 @@ public class DialogFonts extends Dialog {
                 Table table = new Table(getSkin());
                 table.setBackground("white");
                 BitmapFontData bitmapFontData = new BitmapFontData(fileHandle, false);
-                if (Utils.brightness(Utils.averageEdgeColor(new FileHandle(bitmapFontData.imagePaths[0]))) > .5f) {
+                if (Utils.brightness(ImageMetadataCache.getEdgeColor(new FileHandle(bitmapFontData.imagePaths[0]))) > .5f) {
                     table.setColor(Color.BLACK);
                 } else {
                     table.setColor(Color.WHITE);
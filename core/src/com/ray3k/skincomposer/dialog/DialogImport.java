@@ -34,6 +34,7 @@ import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.Array;
 import com.ray3k.skincomposer.FilesDroppedListener;
 import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.data.JsonData;
 import com.ray3k.skincomposer.utils.Utils;
 
 import java.nio.file.Paths;
@@ -50,6 +51,7 @@ public class DialogImport extends Dialog {
         NEW, CURRENT, CANCEL
     }
     private FilesDroppedListener filesDroppedListener;
+    private DialogLoading loadingDialog;
     
     public DialogImport() {
         super("Import...", skin, "bg");
@@ -199,12 +201,26 @@ public class DialogImport extends Dialog {
     }
     
     private void importFile(FileHandle fileHandle) {
-        dialogFactory.showDialogLoading(() -> {
+        loadingDialog = dialogFactory.showDialogLoading(() -> {
+            //region images are written before the rest of the skin is read so the loading dialog can show their progress
+            Array<FileHandle> atlasImages = null;
+            var atlasFile = JsonData.getAtlasFile(fileHandle);
+            if (atlasFile.exists()) {
+                try {
+                    atlasImages = atlasData.extractAtlas(atlasFile, (completed, total) -> Gdx.app.postRunnable(() -> loadingDialog.setProgress((float) completed / total)));
+                } catch (Exception e) {
+                    Gdx.app.error(getClass().getName(), "Error attempting to extract atlas", e);
+                    Gdx.app.postRunnable(() -> dialogFactory.showDialogError("Import Error...", "Error while attempting to import a skin.\nPlease check that all files exist.\n\nOpen log?"));
+                    return;
+                }
+            }
+            
+            var extractedImages = atlasImages;
             Gdx.app.postRunnable(() -> {
                 Array<String> warnings = new Array<>();
 
                 try {
-                    Array<String> newWarnings = jsonData.readFile(fileHandle);
+                    Array<String> newWarnings = jsonData.readFile(fileHandle, extractedImages);
                     warnings.addAll(newWarnings);
                     projectData.getAtlasData().atlasCurrent = false;
                     jsonData.checkForPropertyConsistency();
@@ -34,6 +34,8 @@ import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.utils.Align;
 import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.data.AtlasBuildService;
+import com.ray3k.skincomposer.data.AtlasBuildService.BuildListener;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer;
 import com.ray3k.skincomposer.utils.Utils;
 import static com.ray3k.skincomposer.Main.*;
@@ -41,6 +43,9 @@ import static com.ray3k.skincomposer.Main.*;
 public class DialogLoading extends Dialog {
     private Runnable runnable;
     private Main main;
+    private boolean atlasBuild;
+    private BuildListener buildListener;
+    private Label progressLabel;
     
     public DialogLoading(String title, Runnable runnable, Main main) {
         super(title, skin, !DialogSceneComposer.isShowing() ? "dialog" : "scene");
@@ -49,10 +54,40 @@ public class DialogLoading extends Dialog {
         setFillParent(true);
         populate();
     }
+    
+    /**
+     * Shows the progress of an {@link AtlasBuildService} build and hides once it is published.
+     * @param title
+     * @param buildListener Notified after the dialog is hidden. May be null.
+     * @param main
+     */
+    public DialogLoading(String title, BuildListener buildListener, Main main) {
+        this(title, (Runnable) null, main);
+        this.buildListener = buildListener;
+        atlasBuild = true;
+    }
 
     @Override
     public Dialog show(Stage stage) {
         Dialog dialog = super.show(stage);
+        
+        if (atlasBuild) {
+            AtlasBuildService.requestBuild(new BuildListener() {
+                @Override
+                public void finished(boolean success) {
+                    hide();
+                    if (buildListener != null) buildListener.finished(success);
+                }
+    
+                @Override
+                public void progress(float progress) {
+                    setProgress(progress);
+                    if (buildListener != null) buildListener.progress(progress);
+                }
+            });
+            return dialog;
+        }
+        
         RunnableAction runnableAction = new RunnableAction();
         runnableAction.setRunnable(() -> {
             if (Utils.isMac()) {
@@ -87,5 +122,13 @@ public class DialogLoading extends Dialog {
         Table table = new Table(skin);
         table.setBackground(!DialogSceneComposer.isShowing() ? loadingAnimation : loadingAnimation2);
         t.add(table);
+        t.row();
+        progressLabel = new Label("", skin, !DialogSceneComposer.isShowing() ? "title" : "scene-title");
+        progressLabel.setAlignment(Align.center);
+        t.add(progressLabel);
+    }
+    
+    public void setProgress(float progress) {
+        progressLabel.setText(Math.round(progress * 100) + "%");
     }
 }
@@ -863,6 +863,7 @@ public class DialogTenPatchAnimation extends Dialog {
     public void act(float delta) {
         super.act(delta);
         animatedDrawable.update(delta);
+        Gdx.graphics.requestRendering();
     }
     
     public static class DialogTenPatchAnimationEvent extends Event {
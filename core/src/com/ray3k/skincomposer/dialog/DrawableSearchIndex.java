@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.dialog;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.Sort;
+import com.ray3k.skincomposer.data.DrawableData;
+import com.ray3k.skincomposer.data.DrawableData.DrawableType;
+import com.ray3k.skincomposer.dialog.DialogDrawables.FilterOptions;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Filters and sorts the drawables displayed in DialogDrawables. The sort keys of each drawable, including the
+ * modified date of its file, are read once and kept until the drawable changes. The drawables are kept in sorted order
+ * so filtering preserves the order without sorting again, and a name filter that grows by typing only searches the
+ * previous results.
+ */
+public class DrawableSearchIndex {
+    public static final int SORT_A_Z = 0;
+    public static final int SORT_Z_A = 1;
+    public static final int SORT_OLDEST = 2;
+    public static final int SORT_NEWEST = 3;
+    private static final Comparator<Entry> A_Z = (o1, o2) -> o1.name.compareToIgnoreCase(o2.name);
+    private static final Comparator<Entry> Z_A = (o1, o2) -> o2.name.compareToIgnoreCase(o1.name);
+    private static final Comparator<Entry> OLDEST = (o1, o2) -> Long.compare(o1.lastModified, o2.lastModified);
+    private static final Comparator<Entry> NEWEST = (o1, o2) -> Long.compare(o2.lastModified, o1.lastModified);
+    private final IdentityMap<DrawableData, Entry> entries = new IdentityMap<>();
+    private final Array<DrawableData> drawables = new Array<>();
+    private final Array<Entry> sorted = new Array<>();
+    private int sortMode = -1;
+    private final Array<Entry> results = new Array<>();
+    private final FilterOptions resultOptions = new FilterOptions();
+    private boolean resultsValid;
+    private String patternSource;
+    private Pattern pattern;
+    
+    private static class Entry {
+        private final DrawableData drawable;
+        private final String name;
+        private final FileHandle file;
+        private final DrawableType type;
+        private final boolean hidden;
+        private final boolean tinted;
+        private final long lastModified;
+        
+        private Entry(DrawableData drawable) {
+            this.drawable = drawable;
+            name = drawable.name;
+            file = drawable.file;
+            type = drawable.type;
+            hidden = drawable.hidden;
+            tinted = drawable.tint != null || drawable.tintName != null;
+            lastModified = file == null ? 0 : file.lastModified();
+        }
+        
+        private boolean isCurrent() {
+            return name == drawable.name && file == drawable.file && type == drawable.type && hidden == drawable.hidden
+                    && tinted == (drawable.tint != null || drawable.tintName != null);
+        }
+    }
+    
+    /**
+     * Updates the index to contain the specified drawables. Drawables that have not changed since the last update keep
+     * their sort keys.
+     * @param drawables
+     */
+    public void update(Array<DrawableData> drawables) {
+        boolean changed = drawables.size != this.drawables.size;
+        for (int i = 0; i < drawables.size; i++) {
+            var drawable = drawables.get(i);
+            var entry = entries.get(drawable);
+            if (entry == null || !entry.isCurrent()) {
+                entries.put(drawable, new Entry(drawable));
+                changed = true;
+            } else if (!changed && this.drawables.get(i) != drawable) {
+                changed = true;
+            }
+        }
+        if (!changed) return;
+        
+        if (entries.size > drawables.size) {
+            //remove the entries of drawables that were deleted
+            var current = new IdentityMap<DrawableData, Entry>(drawables.size);
+            for (var drawable : drawables) current.put(drawable, entries.get(drawable));
+            entries.clear();
+            entries.putAll(current);
+        }
+        
+        this.drawables.clear();
+        this.drawables.addAll(drawables);
+        sortMode = -1;
+        resultsValid = false;
+    }
+    
+    /**
+     * Writes the drawables that pass the filter to the output array in the order of the sort mode.
+     * @param options
+     * @param sortMode One of {@link #SORT_A_Z}, {@link #SORT_Z_A}, {@link #SORT_OLDEST}, or {@link #SORT_NEWEST}.
+     * @param output The array is cleared first.
+     */
+    public void search(FilterOptions options, int sortMode, Array<DrawableData> output) {
+        if (this.sortMode != sortMode) {
+            this.sortMode = sortMode;
+            sorted.clear();
+            for (var drawable : drawables) sorted.add(entries.get(drawable));
+            Sort.instance().sort(sorted, getComparator(sortMode));
+            resultsValid = false;
+        }
+        
+        //a filter that only adds characters to the previous name can only remove results
+        Array<Entry> candidates = sorted;
+        if (resultsValid && !options.regularExpression && !resultOptions.regularExpression
+                && options.name.length() > resultOptions.name.length() && options.name.startsWith(resultOptions.name)
+                && sameTypes(options, resultOptions)) {
+            candidates = new Array<>(results);
+        }
+        
+        var query = options.name.toLowerCase(Locale.ROOT);
+        var pattern = options.regularExpression ? getPattern(options.name) : null;
+        results.clear();
+        for (var entry : candidates) {
+            if (matches(entry, options, query, pattern)) results.add(entry);
+        }
+        resultOptions.set(options);
+        resultsValid = true;
+        
+        output.clear();
+        output.ensureCapacity(results.size);
+        for (var entry : results) output.add(entry.drawable);
+    }
+    
+    private static boolean matches(Entry entry, FilterOptions options, String query, Pattern pattern) {
+        if (!options.regularExpression) {
+            if (!query.equals("") && !entry.name.contains(query)) return false;
+        } else {
+            if (pattern == null || !pattern.matcher(entry.name).matches()) return false;
+        }
+        
+        var type = entry.type;
+        if (!options.custom && type == DrawableType.CUSTOM) return false;
+        if (!options.ninePatch && type == DrawableType.NINE_PATCH) return false;
+        if (!options.texture && type == DrawableType.TEXTURE) return false;
+        if (!options.tiled && type == DrawableType.TILED) return false;
+        if (!options.tinted && (type == DrawableType.TINTED || type == DrawableType.TINTED_FROM_COLOR_DATA || type == DrawableType.NINE_PATCH && entry.tinted)) return false;
+        if (!options.tenPatch && type == DrawableType.TENPATCH) return false;
+        if (!options.pixel && type == DrawableType.PIXEL) return false;
+        if (!options.hidden && entry.hidden) return false;
+        return options.font || type != DrawableType.FONT;
+    }
+    
+    private static boolean sameTypes(FilterOptions a, FilterOptions b) {
+        return a.texture == b.texture && a.ninePatch == b.ninePatch && a.tinted == b.tinted && a.tiled == b.tiled
+                && a.custom == b.custom && a.tenPatch == b.tenPatch && a.hidden == b.hidden && a.font == b.font
+                && a.pixel == b.pixel;
+    }
+    
+    /**
+     * Returns the compiled regular expression, compiling it only when it differs from the last one.
+     * @param regex
+     * @return null if the regular expression is invalid.
+     */
+    private Pattern getPattern(String regex) {
+        if (!regex.equals(patternSource)) {
+            patternSource = regex;
+            try {
+                pattern = Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                Gdx.app.log(getClass().getName(), "Invalid drawable filter: " + e.getDescription());
+                pattern = null;
+            }
+        }
+        return pattern;
+    }
+    
+    private static Comparator<Entry> getComparator(int sortMode) {
+        switch (sortMode) {
+            case SORT_Z_A:
+                return Z_A;
+            case SORT_OLDEST:
+                return OLDEST;
+            case SORT_NEWEST:
+                return NEWEST;
+            default:
+                return A_Z;
+        }
+    }
+}
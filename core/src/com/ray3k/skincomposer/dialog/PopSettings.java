@@ -1,5 +1,6 @@
 package com.ray3k.skincomposer.dialog;
 
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.scenes.scene2d.Action;
@@ -20,11 +21,16 @@ import static com.ray3k.skincomposer.Main.*;
 public class PopSettings extends PopTable {
     private int uiScale;
     private Integer maxUndos;
+    private int exportThreads;
+    private int undoMemory;
+    private int sceneComposerUndoMemory;
     private boolean resourcesRelative;
     private boolean allowingWelcome;
     private boolean exportWarnings;
+    private boolean binaryProjectFormat;
     private boolean recentFullPath;
     private boolean allowingUpdates;
+    private boolean debugLogging;
     private boolean changedUIscale;
     
     public PopSettings() {
@@ -36,11 +42,16 @@ public class PopSettings extends PopTable {
         
         uiScale = projectData.getUiScale();
         maxUndos = projectData.getMaxUndos();
+        exportThreads = projectData.getExportThreads();
+        undoMemory = projectData.getUndoMemory();
+        sceneComposerUndoMemory = projectData.getSceneComposerUndoMemory();
         resourcesRelative = projectData.areResourcesRelative();
         allowingWelcome = projectData.isAllowingWelcome();
         exportWarnings = projectData.isShowingExportWarnings();
+        binaryProjectFormat = projectData.isBinaryProjectFormat();
         recentFullPath = projectData.isFullPathInRecentFiles();
         allowingUpdates = projectData.isCheckingForUpdates();
+        debugLogging = projectData.getLogLevel() >= Application.LOG_DEBUG;
         
         populate();
     }
@@ -232,6 +243,96 @@ public class PopSettings extends PopTable {
         table = new Table();
         add(table);
         
+        table.defaults().space(5);
+        label = new Label("Export Threads: ", skin);
+        table.add(label);
+        
+        var threadsSpinner = new Spinner(exportThreads, 1.0, true, Orientation.HORIZONTAL, getSkin());
+        threadsSpinner.setMinimum(1.0);
+        threadsSpinner.setMaximum(64.0);
+        threadsSpinner.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeListener.ChangeEvent event, Actor actor) {
+                exportThreads = (int) threadsSpinner.getValue();
+            }
+        });
+        threadsSpinner.addListener(new FocusListener() {
+            @Override
+            public void keyboardFocusChanged(FocusListener.FocusEvent event,
+                                             Actor actor, boolean focused) {
+                exportThreads = (int) threadsSpinner.getValue();
+            }
+            
+        });
+        threadsSpinner.getTextField().addListener(ibeamListener);
+        threadsSpinner.getButtonMinus().addListener(handListener);
+        threadsSpinner.getButtonPlus().addListener(handListener);
+        table.add(threadsSpinner).minWidth(100.0f);
+        
+        row();
+        table = new Table();
+        add(table);
+        
+        table.defaults().space(5);
+        label = new Label("Undo Memory (KB): ", skin);
+        table.add(label);
+        
+        var styleUndoMemorySpinner = new Spinner(undoMemory, 1.0, true, Orientation.HORIZONTAL, getSkin());
+        styleUndoMemorySpinner.setMinimum(1.0);
+        styleUndoMemorySpinner.setMaximum(65536.0);
+        styleUndoMemorySpinner.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeListener.ChangeEvent event, Actor actor) {
+                undoMemory = (int) styleUndoMemorySpinner.getValue();
+            }
+        });
+        styleUndoMemorySpinner.addListener(new FocusListener() {
+            @Override
+            public void keyboardFocusChanged(FocusListener.FocusEvent event,
+                                             Actor actor, boolean focused) {
+                undoMemory = (int) styleUndoMemorySpinner.getValue();
+            }
+            
+        });
+        styleUndoMemorySpinner.getTextField().addListener(ibeamListener);
+        styleUndoMemorySpinner.getButtonMinus().addListener(handListener);
+        styleUndoMemorySpinner.getButtonPlus().addListener(handListener);
+        table.add(styleUndoMemorySpinner).minWidth(100.0f);
+        
+        row();
+        table = new Table();
+        add(table);
+        
+        table.defaults().space(5);
+        label = new Label("Scene Composer Undo Memory (MB): ", skin);
+        table.add(label);
+        
+        var undoMemorySpinner = new Spinner(sceneComposerUndoMemory, 1.0, true, Orientation.HORIZONTAL, getSkin());
+        undoMemorySpinner.setMinimum(1.0);
+        undoMemorySpinner.setMaximum(1024.0);
+        undoMemorySpinner.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeListener.ChangeEvent event, Actor actor) {
+                sceneComposerUndoMemory = (int) undoMemorySpinner.getValue();
+            }
+        });
+        undoMemorySpinner.addListener(new FocusListener() {
+            @Override
+            public void keyboardFocusChanged(FocusListener.FocusEvent event,
+                                             Actor actor, boolean focused) {
+                sceneComposerUndoMemory = (int) undoMemorySpinner.getValue();
+            }
+            
+        });
+        undoMemorySpinner.getTextField().addListener(ibeamListener);
+        undoMemorySpinner.getButtonMinus().addListener(handListener);
+        undoMemorySpinner.getButtonPlus().addListener(handListener);
+        table.add(undoMemorySpinner).minWidth(100.0f);
+        
+        row();
+        table = new Table();
+        add(table);
+        
         table.defaults().expandX().left().space(5);
         var relativeCheckBox = new ImageTextButton("Keep resources relative?", getSkin(), "checkbox");
         relativeCheckBox.setChecked(resourcesRelative);
@@ -268,6 +369,18 @@ public class PopSettings extends PopTable {
         });
         table.add(exportWarningsCheckBox);
         
+        table.row();
+        var binaryCheckBox = new ImageTextButton("Save projects in binary format?", getSkin(), "checkbox");
+        binaryCheckBox.setChecked(binaryProjectFormat);
+        binaryCheckBox.addListener(handListener);
+        binaryCheckBox.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeListener.ChangeEvent event, Actor actor) {
+                binaryProjectFormat = binaryCheckBox.isChecked();
+            }
+        });
+        table.add(binaryCheckBox);
+        
         table.row();
         var fullPathCheckBox = new ImageTextButton("Show full path in recent files", getSkin(), "checkbox");
         fullPathCheckBox.setChecked(recentFullPath);
@@ -292,6 +405,18 @@ public class PopSettings extends PopTable {
         });
         table.add(updatesCheckBox);
         
+        table.row();
+        var debugLoggingCheckBox = new ImageTextButton("Log debug messages?", getSkin(), "checkbox");
+        debugLoggingCheckBox.setChecked(debugLogging);
+        debugLoggingCheckBox.addListener(handListener);
+        debugLoggingCheckBox.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeListener.ChangeEvent event, Actor actor) {
+                debugLogging = debugLoggingCheckBox.isChecked();
+            }
+        });
+        table.add(debugLoggingCheckBox);
+        
         row();
         var buttonTable = new Table();
         buttonTable.pad(5);
@@ -326,12 +451,18 @@ public class PopSettings extends PopTable {
     private void approve() {
         projectData.setChangesSaved(false);
         projectData.setMaxUndos(maxUndos);
+        projectData.setExportThreads(exportThreads);
+        projectData.setUndoMemory(undoMemory);
+        projectData.setSceneComposerUndoMemory(sceneComposerUndoMemory);
         projectData.setResourcesRelative(resourcesRelative);
         projectData.setAllowingWelcome(allowingWelcome);
         projectData.setUiScale(uiScale);
         projectData.setShowingExportWarnings(exportWarnings);
+        projectData.setBinaryProjectFormat(binaryProjectFormat);
         projectData.setFullPathInRecentFiles(recentFullPath);
         projectData.setCheckingForUpdates(allowingUpdates);
+        projectData.setLogLevel(debugLogging ? Application.LOG_DEBUG : Application.LOG_INFO);
+        Gdx.app.setLogLevel(projectData.getLogLevel());
         undoableManager.clearUndoables();
     
         if (allowingUpdates) {
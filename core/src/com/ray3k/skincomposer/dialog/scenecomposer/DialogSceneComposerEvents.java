@@ -84,21 +84,28 @@ public class DialogSceneComposerEvents {
     }
     
     public void rootPackage(String packageName) {
-        processUndoable(new RootPackageUndoable(packageName));
+        processUndoable(new RootPackageUndoable(packageName), true);
     }
     
     public void rootClass(String className) {
-        processUndoable(new RootClassUndoable(className));
+        processUndoable(new RootClassUndoable(className), true);
     }
     
     public void rootSkinPath(String skinPath) {
-        processUndoable(new RootSkinPathUndoable(skinPath));
+        processUndoable(new RootSkinPathUndoable(skinPath), true);
     }
     
     private void processUndoable(SceneComposerUndoable undoable) {
-        dialog.model.undoables.add(undoable);
-        dialog.model.redoables.clear();
-        undoable.redo();
+        processUndoable(undoable, false);
+    }
+    
+    /**
+     * @param undoable
+     * @param mergeable True for edits that only set a property, which may be merged with the previous edit of the
+     *                  same property. Edits that change the structure of the layout must not be merged.
+     */
+    private void processUndoable(SceneComposerUndoable undoable, boolean mergeable) {
+        dialog.model.addUndoable(undoable, mergeable);
         dialog.updateMenuUndoRedo();
         Main.projectData.setChangesSaved(false);
     }
@@ -108,35 +115,35 @@ public class DialogSceneComposerEvents {
     }
     
     public void rootBackgroundColor(ColorData color) {
-        processUndoable(new RootBackgroundColorUndoable(color));
+        processUndoable(new RootBackgroundColorUndoable(color), true);
     }
     
     public void tableName(String name) {
-        processUndoable(new TableNameUndoable(name));
+        processUndoable(new TableNameUndoable(name), true);
     }
     
     public void tableTouchable(Touchable touchable) {
-        processUndoable(new TableTouchableUndoable(touchable));
+        processUndoable(new TableTouchableUndoable(touchable), true);
     }
     
     public void tableVisible(boolean visible) {
-        processUndoable(new TableVisibleUndoable(visible));
+        processUndoable(new TableVisibleUndoable(visible), true);
     }
     
     public void tableBackground(DrawableData background) {
-        processUndoable(new TableBackgroundUndoable(background));
+        processUndoable(new TableBackgroundUndoable(background), true);
     }
     
     public void tableColor(ColorData color) {
-        processUndoable(new TableColorUndoable(color));
+        processUndoable(new TableColorUndoable(color), true);
     }
     
     public void tablePadding(boolean enabled, float paddingLeft, float paddingRight, float paddingTop, float paddingBottom) {
-        processUndoable(new TablePaddingUndoable(enabled, paddingLeft, paddingRight, paddingTop, paddingBottom));
+        processUndoable(new TablePaddingUndoable(enabled, paddingLeft, paddingRight, paddingTop, paddingBottom), true);
     }
     
     public void tableAlignment(int alignment) {
-        processUndoable(new TableAlignmentUndoable(alignment));
+        processUndoable(new TableAlignmentUndoable(alignment), true);
     }
     
     public void tableSetCells(int columns, int rows) {
@@ -228,27 +235,27 @@ public class DialogSceneComposerEvents {
     }
     
     public void cellPaddingSpacing(float paddingLeft, float paddingRight, float paddingTop, float paddingBottom, float spaceLeft, float spaceRight, float spaceTop, float spaceBottom) {
-        processUndoable(new CellPaddingSpacingUndoable(paddingLeft, paddingRight, paddingTop, paddingBottom, spaceLeft, spaceRight, spaceTop, spaceBottom));
+        processUndoable(new CellPaddingSpacingUndoable(paddingLeft, paddingRight, paddingTop, paddingBottom, spaceLeft, spaceRight, spaceTop, spaceBottom), true);
     }
     
     public void cellExpandFillGrow(boolean expandX, boolean expandY, boolean fillX, boolean fillY, boolean growX, boolean growY) {
-        processUndoable(new CellExpandFillGrowUndoable(expandX, expandY, fillX, fillY, growX, growY));
+        processUndoable(new CellExpandFillGrowUndoable(expandX, expandY, fillX, fillY, growX, growY), true);
     }
     
     public void cellAlignment(int alignment) {
-        processUndoable(new CellAlignmentUndoable(alignment));
+        processUndoable(new CellAlignmentUndoable(alignment), true);
     }
     
     public void cellSize(float minWidth, float minHeight, float maxWidth, float maxHeight, float preferredWidth, float preferredHeight) {
-        processUndoable(new CellSizeUndoable(minWidth, minHeight, maxWidth, maxHeight, preferredWidth, preferredHeight));
+        processUndoable(new CellSizeUndoable(minWidth, minHeight, maxWidth, maxHeight, preferredWidth, preferredHeight), true);
     }
     
     public void cellUniform(boolean uniformX, boolean uniformY) {
-        processUndoable(new CellUniformUndoable(uniformX, uniformY));
+        processUndoable(new CellUniformUndoable(uniformX, uniformY), true);
     }
     
     public void cellColSpan(int colSpan) {
-        processUndoable(new CellColSpanUndoable(colSpan));
+        processUndoable(new CellColSpanUndoable(colSpan), true);
     }
     
     public void cellReset() {
@@ -260,35 +267,35 @@ public class DialogSceneComposerEvents {
     }
     
     public void buttonName(String name) {
-        processUndoable(new ButtonNameUndoable(name));
+        processUndoable(new ButtonNameUndoable(name), true);
     }
     
     public void buttonTouchable(Touchable touchable) {
-        processUndoable(new ButtonTouchableUndoable(touchable));
+        processUndoable(new ButtonTouchableUndoable(touchable), true);
     }
     
     public void buttonVisible(boolean visible) {
-        processUndoable(new ButtonVisibleUndoable(visible));
+        processUndoable(new ButtonVisibleUndoable(visible), true);
     }
     
     public void buttonStyle(StyleData style) {
-        processUndoable(new ButtonStyleUndoable(style));
+        processUndoable(new ButtonStyleUndoable(style), true);
     }
     
     public void buttonChecked(boolean checked) {
-        processUndoable(new ButtonCheckedUndoable(checked));
+        processUndoable(new ButtonCheckedUndoable(checked), true);
     }
     
     public void buttonDisabled(boolean disabled) {
-        processUndoable(new ButtonDisabledUndoable(disabled));
+        processUndoable(new ButtonDisabledUndoable(disabled), true);
     }
     
     public void buttonColor(ColorData colorData) {
-        processUndoable(new ButtonColorUndoable(colorData));
+        processUndoable(new ButtonColorUndoable(colorData), true);
     }
     
     public void buttonPadding(float paddingLeft, float paddingRight, float paddingTop, float paddingBottom) {
-        processUndoable(new ButtonPaddingUndoable(paddingLeft, paddingRight, paddingTop, paddingBottom));
+        processUndoable(new ButtonPaddingUndoable(paddingLeft, paddingRight, paddingTop, paddingBottom), true);
     }
     
     public void buttonReset() {
@@ -300,35 +307,35 @@ public class DialogSceneComposerEvents {
     }
     
     public void imageButtonName(String name) {
-        processUndoable(new ImageButtonNameUndoable(name));
+        processUndoable(new ImageButtonNameUndoable(name), true);
     }
     
     public void imageButtonTouchable(Touchable touchable) {
-        processUndoable(new ImageButtonTouchableUndoable(touchable));
+        processUndoable(new ImageButtonTouchableUndoable(touchable), true);
     }
     
     public void imageButtonVisible(boolean visible) {
-        processUndoable(new ImageButtonVisibleUndoable(visible));
+        processUndoable(new ImageButtonVisibleUndoable(visible), true);
     }
     
     public void imageButtonStyle(StyleData style) {
-        processUndoable(new ImageButtonStyleUndoable(style));
+        processUndoable(new ImageButtonStyleUndoable(style), true);
     }
     
     public void imageButtonChecked(boolean checked) {
-        processUndoable(new ImageButtonCheckedUndoable(checked));
+        processUndoable(new ImageButtonCheckedUndoable(checked), true);
     }
     
     public void imageButtonDisabled(boolean disabled) {
-        processUndoable(new ImageButtonDisabledUndoable(disabled));
+        processUndoable(new ImageButtonDisabledUndoable(disabled), true);
     }
     
     public void imageButtonColor(ColorData colorData) {
-        processUndoable(new ImageButtonColorUndoable(colorData));
+        processUndoable(new ImageButtonColorUndoable(colorData), true);
     }
     
     public void imageButtonPadding(float paddingLeft, float paddingRight, float paddingTop, float paddingBottom) {
-        processUndoable(new ImageButtonPaddingUndoable(paddingLeft, paddingRight, paddingTop, paddingBottom));
+        processUndoable(new ImageButtonPaddingUndoable(paddingLeft, paddingRight, paddingTop, paddingBottom), true);
     }
     
     public void imageButtonReset() {
@@ -340,39 +347,39 @@ public class DialogSceneComposerEvents {
     }
     
     public void imageTextButtonName(String name) {
-        processUndoable(new ImageTextButtonNameUndoable(name));
+        processUndoable(new ImageTextButtonNameUndoable(name), true);
     }
     
     public void imageTextButtonTouchable(Touchable touchable) {
-        processUndoable(new ImageTextButtonTouchableUndoable(touchable));
+        processUndoable(new ImageTextButtonTouchableUndoable(touchable), true);
     }
     
     public void imageTextButtonVisible(boolean visible) {
-        processUndoable(new ImageTextButtonVisibleUndoable(visible));
+        processUndoable(new ImageTextButtonVisibleUndoable(visible), true);
     }
     
     public void imageTextButtonText(String text) {
-        processUndoable(new ImageTextButtonTextUndoable(text));
+        processUndoable(new ImageTextButtonTextUndoable(text), true);
     }
     
     public void imageTextButtonStyle(StyleData style) {
-        processUndoable(new ImageTextButtonStyleUndoable(style));
+        processUndoable(new ImageTextButtonStyleUndoable(style), true);
     }
     
     public void imageTextButtonChecked(boolean checked) {
-        processUndoable(new ImageTextButtonCheckedUndoable(checked));
+        processUndoable(new ImageTextButtonCheckedUndoable(checked), true);
     }
     
     public void imageTextButtonDisabled(boolean disabled) {
-        processUndoable(new ImageTextButtonDisabledUndoable(disabled));
+        processUndoable(new ImageTextButtonDisabledUndoable(disabled), true);
     }
     
     public void imageTextButtonColor(ColorData colorData) {
-        processUndoable(new ImageTextButtonColorUndoable(colorData));
+        processUndoable(new ImageTextButtonColorUndoable(colorData), true);
     }
     
     public void imageTextButtonPadding(float paddingLeft, float paddingRight, float paddingTop, float paddingBottom) {
-        processUndoable(new ImageTextButtonPaddingUndoable(paddingLeft, paddingRight, paddingTop, paddingBottom));
+        processUndoable(new ImageTextButtonPaddingUndoable(paddingLeft, paddingRight, paddingTop, paddingBottom), true);
     }
     
     public void imageTextButtonReset() {
@@ -384,39 +391,39 @@ public class DialogSceneComposerEvents {
     }
     
     public void textButtonName(String name) {
-        processUndoable(new TextButtonNameUndoable(name));
+        processUndoable(new TextButtonNameUndoable(name), true);
     }
     
     public void textButtonTouchable(Touchable touchable) {
-        processUndoable(new TextButtonTouchableUndoable(touchable));
+        processUndoable(new TextButtonTouchableUndoable(touchable), true);
     }
     
     public void textButtonVisible(boolean visible) {
-        processUndoable(new TextButtonVisibleUndoable(visible));
+        processUndoable(new TextButtonVisibleUndoable(visible), true);
     }
     
     public void textButtonText(String text) {
-        processUndoable(new TextButtonTextUndoable(text));
+        processUndoable(new TextButtonTextUndoable(text), true);
     }
     
     public void textButtonStyle(StyleData style) {
-        processUndoable(new TextButtonStyleUndoable(style));
+        processUndoable(new TextButtonStyleUndoable(style), true);
     }
     
     public void textButtonChecked(boolean checked) {
-        processUndoable(new TextButtonCheckedUndoable(checked));
+        processUndoable(new TextButtonCheckedUndoable(checked), true);
     }
     
     public void textButtonDisabled(boolean disabled) {
-        processUndoable(new TextButtonDisabledUndoable(disabled));
+        processUndoable(new TextButtonDisabledUndoable(disabled), true);
     }
     
     public void textButtonColor(ColorData colorData) {
-        processUndoable(new TextButtonColorUndoable(colorData));
+        processUndoable(new TextButtonColorUndoable(colorData), true);
     }
     
     public void textButtonPadding(float paddingLeft, float paddingRight, float paddingTop, float paddingBottom) {
-        processUndoable(new TextButtonPaddingUndoable(paddingLeft, paddingRight, paddingTop, paddingBottom));
+        processUndoable(new TextButtonPaddingUndoable(paddingLeft, paddingRight, paddingTop, paddingBottom), true);
     }
     
     public void textButtonReset() {
@@ -428,19 +435,19 @@ public class DialogSceneComposerEvents {
     }
     
     public void checkBoxTouchable(Touchable touchable) {
-        processUndoable(new CheckBoxTouchableUndoable(touchable));
+        processUndoable(new CheckBoxTouchableUndoable(touchable), true);
     }
     
     public void checkBoxVisible(boolean visible) {
-        processUndoable(new CheckBoxVisibleUndoable(visible));
+        processUndoable(new CheckBoxVisibleUndoable(visible), true);
     }
     
     public void checkBoxChecked(boolean checked) {
-        processUndoable(new CheckBoxCheckedUndoable(checked));
+        processUndoable(new CheckBoxCheckedUndoable(checked), true);
     }
     
     public void checkBoxColor(ColorData color) {
-        processUndoable(new CheckBoxColorUndoable(color));
+        processUndoable(new CheckBoxColorUndoable(color), true);
     }
     
     public void checkBoxDelete() {
@@ -448,15 +455,15 @@ public class DialogSceneComposerEvents {
     }
     
     public void checkBoxDisabled(boolean disabled) {
-        processUndoable(new CheckBoxDisabledUndoable(disabled));
+        processUndoable(new CheckBoxDisabledUndoable(disabled), true);
     }
     
     public void checkBoxName(String name) {
-        processUndoable(new CheckBoxNameUndoable(name));
+        processUndoable(new CheckBoxNameUndoable(name), true);
     }
     
     public void checkBoxPadding(float padLeft, float padRight, float padTop, float padBottom) {
-        processUndoable(new CheckBoxPaddingUndoable(padLeft, padRight, padTop, padBottom));
+        processUndoable(new CheckBoxPaddingUndoable(padLeft, padRight, padTop, padBottom), true);
     }
     
     public void checkBoxReset() {
@@ -464,19 +471,19 @@ public class DialogSceneComposerEvents {
     }
     
     public void checkBoxStyle(StyleData style) {
-        processUndoable(new CheckBoxStyleUndoable(style));
+        processUndoable(new CheckBoxStyleUndoable(style), true);
     }
     
     public void checkBoxText(String text) {
-        processUndoable(new CheckBoxTextUndoable(text));
+        processUndoable(new CheckBoxTextUndoable(text), true);
     }
     
     public void containerAlignment(int alignment) {
-        processUndoable(new ContainerAlignmentUndoable(alignment));
+        processUndoable(new ContainerAlignmentUndoable(alignment), true);
     }
     
     public void containerBackground(DrawableData background) {
-        processUndoable(new ContainerBackgroundUndoable(background));
+        processUndoable(new ContainerBackgroundUndoable(background), true);
     }
     
     public void containerDelete() {
@@ -484,23 +491,23 @@ public class DialogSceneComposerEvents {
     }
     
     public void containerFill(boolean fillX, boolean fillY) {
-        processUndoable(new ContainerFillUndoable(fillX, fillY));
+        processUndoable(new ContainerFillUndoable(fillX, fillY), true);
     }
     
     public void containerName(String name) {
-        processUndoable(new ContainerNameUndoable(name));
+        processUndoable(new ContainerNameUndoable(name), true);
     }
     
     public void containerTouchable(Touchable touchable) {
-        processUndoable(new ContainerTouchableUndoable(touchable));
+        processUndoable(new ContainerTouchableUndoable(touchable), true);
     }
     
     public void containerVisible(boolean visible) {
-        processUndoable(new ContainerVisibleUndoable(visible));
+        processUndoable(new ContainerVisibleUndoable(visible), true);
     }
     
     public void containerPadding(float padLeft, float padRight, float padTop, float padBottom) {
-        processUndoable(new ContainerPaddingUndoable(padLeft,  padRight, padTop, padBottom));
+        processUndoable(new ContainerPaddingUndoable(padLeft,  padRight, padTop, padBottom), true);
     }
     
     public void containerReset() {
@@ -512,11 +519,11 @@ public class DialogSceneComposerEvents {
     }
     
     public void containerSize(float minWidth, float minHeight, float maxWidth, float maxHeight, float preferredWidth, float preferredHeight) {
-        processUndoable(new ContainerSizeUndoable(minWidth, minHeight, maxWidth, maxHeight, preferredWidth, preferredHeight));
+        processUndoable(new ContainerSizeUndoable(minWidth, minHeight, maxWidth, maxHeight, preferredWidth, preferredHeight), true);
     }
     
     public void horizontalGroupAlignment(int alignment) {
-        processUndoable(new HorizontalGroupAlignmentUndoable(alignment));
+        processUndoable(new HorizontalGroupAlignmentUndoable(alignment), true);
     }
     
     public void horizontalGroupAddChild(WidgetType widgetType) {
@@ -528,39 +535,39 @@ public class DialogSceneComposerEvents {
     }
     
     public void horizontalGroupExpand(boolean expand) {
-        processUndoable(new HorizontalGroupExpandUndoable(expand));
+        processUndoable(new HorizontalGroupExpandUndoable(expand), true);
     }
     
     public void horizontalGroupFill(boolean fill) {
-        processUndoable(new HorizontalGroupFillUndoable(fill));
+        processUndoable(new HorizontalGroupFillUndoable(fill), true);
     }
     
     public void horizontalGroupName(String name) {
-        processUndoable(new HorizontalGroupNameUndoable(name));
+        processUndoable(new HorizontalGroupNameUndoable(name), true);
     }
     
     public void horizontalGroupTouchable(Touchable touchable) {
-        processUndoable(new HorizontalGroupTouchableUndoable(touchable));
+        processUndoable(new HorizontalGroupTouchableUndoable(touchable), true);
     }
     
     public void horizontalGroupVisible(boolean visible) {
-        processUndoable(new HorizontalGroupVisibleUndoable(visible));
+        processUndoable(new HorizontalGroupVisibleUndoable(visible), true);
     }
     
     public void horizontalGroupPadBottom(float padBottom) {
-        processUndoable(new HorizontalGroupPadBottomUndoable(padBottom));
+        processUndoable(new HorizontalGroupPadBottomUndoable(padBottom), true);
     }
     
     public void horizontalGroupPadLeft(float padLeft) {
-        processUndoable(new HorizontalGroupPadLeftUndoable(padLeft));
+        processUndoable(new HorizontalGroupPadLeftUndoable(padLeft), true);
     }
     
     public void horizontalGroupPadRight(float padRight) {
-        processUndoable(new HorizontalGroupPadRightUndoable(padRight));
+        processUndoable(new HorizontalGroupPadRightUndoable(padRight), true);
     }
     
     public void horizontalGroupPadTop(float padTop) {
-        processUndoable(new HorizontalGroupPadTopUndoable(padTop));
+        processUndoable(new HorizontalGroupPadTopUndoable(padTop), true);
     }
     
    public void horizontalGroupReset() {
@@ -568,27 +575,27 @@ public class DialogSceneComposerEvents {
    }
    
    public void horizontalGroupReverse(boolean reverse) {
-        processUndoable(new HorizontalGroupReverseUndoable(reverse));
+        processUndoable(new HorizontalGroupReverseUndoable(reverse), true);
    }
    
    public void horizontalGroupRowAlignment(int rowAlignment) {
-        processUndoable(new HorizontalGroupRowAlignmentUndoable(rowAlignment));
+        processUndoable(new HorizontalGroupRowAlignmentUndoable(rowAlignment), true);
    }
    
    public void horizontalGroupSpace(float space) {
-        processUndoable(new HorizontalGroupSpaceUndoable(space));
+        processUndoable(new HorizontalGroupSpaceUndoable(space), true);
    }
    
    public void horizontalGroupWrapSpace(float wrapSpace) {
-        processUndoable(new HorizontalGroupWrapSpaceUndoable(wrapSpace));
+        processUndoable(new HorizontalGroupWrapSpaceUndoable(wrapSpace), true);
    }
    
    public void horizontalGroupWrap(boolean wrap) {
-        processUndoable(new HorizontalGroupWrapUndoable(wrap));
+        processUndoable(new HorizontalGroupWrapUndoable(wrap), true);
    }
    
    public void imageDrawable(DrawableData drawable) {
-        processUndoable(new ImageDrawableUndoable(drawable));
+        processUndoable(new ImageDrawableUndoable(drawable), true);
    }
    
    public void imageDelete() {
@@ -596,15 +603,15 @@ public class DialogSceneComposerEvents {
    }
    
    public void imageName(String name) {
-        processUndoable(new ImageNameUndoable(name));
+        processUndoable(new ImageNameUndoable(name), true);
    }
     
     public void imageTouchable(Touchable touchable) {
-        processUndoable(new ImageTouchableUndoable(touchable));
+        processUndoable(new ImageTouchableUndoable(touchable), true);
     }
     
     public void imageVisible(boolean visible) {
-        processUndoable(new ImageVisibleUndoable(visible));
+        processUndoable(new ImageVisibleUndoable(visible), true);
     }
    
    public void imageReset() {
@@ -612,15 +619,15 @@ public class DialogSceneComposerEvents {
    }
    
    public void imageScaling(String scaling) {
-        processUndoable(new ImageScalingUndoable(scaling));
+        processUndoable(new ImageScalingUndoable(scaling), true);
    }
    
    public void labelAlignment(int alignment) {
-        processUndoable(new LabelAlignmentUndoable(alignment));
+        processUndoable(new LabelAlignmentUndoable(alignment), true);
    }
    
    public void labelColor(ColorData color) {
-        processUndoable(new LabelColorUndoable(color));
+        processUndoable(new LabelColorUndoable(color), true);
    }
    
    public void labelDelete() {
@@ -628,19 +635,19 @@ public class DialogSceneComposerEvents {
    }
    
    public void labelEllipsis(boolean ellipsis, String ellipsisString) {
-        processUndoable(new LabelEllipsisUndoable(ellipsis, ellipsisString));
+        processUndoable(new LabelEllipsisUndoable(ellipsis, ellipsisString), true);
    }
    
    public void labelName(String name) {
-        processUndoable(new LabelNameUndoable(name));
+        processUndoable(new LabelNameUndoable(name), true);
    }
     
     public void labelTouchable(Touchable touchable) {
-        processUndoable(new LabelTouchableUndoable(touchable));
+        processUndoable(new LabelTouchableUndoable(touchable), true);
     }
     
     public void labelVisible(boolean visible) {
-        processUndoable(new LabelVisibleUndoable(visible));
+        processUndoable(new LabelVisibleUndoable(visible), true);
     }
    
    public void labelReset() {
@@ -648,15 +655,15 @@ public class DialogSceneComposerEvents {
    }
    
    public void labelStyle(StyleData style) {
-        processUndoable(new LabelStyleUndoable(style));
+        processUndoable(new LabelStyleUndoable(style), true);
    }
    
    public void labelText(String text) {
-        processUndoable(new LabelTextUndoable(text));
+        processUndoable(new LabelTextUndoable(text), true);
    }
    
    public void labelWrap(boolean wrap) {
-        processUndoable(new LabelWrapUndoable(wrap));
+        processUndoable(new LabelWrapUndoable(wrap), true);
    }
    
    public void listDelete() {
@@ -664,19 +671,19 @@ public class DialogSceneComposerEvents {
    }
    
    public void listList(Array<String> textList) {
-        processUndoable(new ListListUndoable(textList));
+        processUndoable(new ListListUndoable(textList), true);
    }
    
    public void listName(String name) {
-        processUndoable(new ListNameUndoable(name));
+        processUndoable(new ListNameUndoable(name), true);
    }
     
     public void listTouchable(Touchable touchable) {
-        processUndoable(new ListTouchableUndoable(touchable));
+        processUndoable(new ListTouchableUndoable(touchable), true);
     }
     
     public void listVisible(boolean visible) {
-        processUndoable(new ListVisibleUndoable(visible));
+        processUndoable(new ListVisibleUndoable(visible), true);
     }
    
    public void listReset() {
@@ -684,7 +691,7 @@ public class DialogSceneComposerEvents {
    }
    
    public void listStyle(StyleData style) {
-        processUndoable(new ListStyleUndoable(style));
+        processUndoable(new ListStyleUndoable(style), true);
    }
    
    public void nodeDelete() {
@@ -692,11 +699,11 @@ public class DialogSceneComposerEvents {
    }
    
    public void nodeExpanded(boolean expanded) {
-        processUndoable(new NodeExpandedUndoable(expanded));
+        processUndoable(new NodeExpandedUndoable(expanded), true);
    }
    
    public void nodeIcon(DrawableData icon) {
-        processUndoable(new NodeIconUndoable(icon));
+        processUndoable(new NodeIconUndoable(icon), true);
    }
    
    public void nodeReset() {
@@ -704,7 +711,7 @@ public class DialogSceneComposerEvents {
    }
    
    public void nodeSelectable(boolean selectable) {
-        processUndoable(new NodeSelectableUndoable(selectable));
+        processUndoable(new NodeSelectableUndoable(selectable), true);
    }
    
    public void nodeAddNode() {
@@ -716,11 +723,11 @@ public class DialogSceneComposerEvents {
    }
    
    public void progressBarAnimateInterpolation(DialogSceneComposerModel.Interpol interpol) {
-        processUndoable(new ProgressBarAnimateInterpolationUndoable(interpol));
+        processUndoable(new ProgressBarAnimateInterpolationUndoable(interpol), true);
    }
    
    public void progressBarAnimationDuration(float animationDuration) {
-        processUndoable(new ProgressBarAnimationDurationUndoable(animationDuration));
+        processUndoable(new ProgressBarAnimationDurationUndoable(animationDuration), true);
    }
    
    public void progressBarDelete() {
@@ -728,31 +735,31 @@ public class DialogSceneComposerEvents {
    }
    
    public void progressBarDisabled(boolean disabled) {
-        processUndoable(new ProgressBarDisabledUndoable(disabled));
+        processUndoable(new ProgressBarDisabledUndoable(disabled), true);
    }
    
    public void progressBarIncrement(float increment) {
-        processUndoable(new ProgressBarIncrementUndoable(increment));
+        processUndoable(new ProgressBarIncrementUndoable(increment), true);
    }
    
    public void progressBarMaximum(float maximum) {
-        processUndoable(new ProgressBarMaximumUndoable(maximum));
+        processUndoable(new ProgressBarMaximumUndoable(maximum), true);
    }
    
    public void progressBarMinimum(float minimum) {
-        processUndoable(new ProgressBarMinimumUndoable(minimum));
+        processUndoable(new ProgressBarMinimumUndoable(minimum), true);
    }
    
    public void progressBarName(String name) {
-        processUndoable(new ProgressBarNameUndoable(name));
+        processUndoable(new ProgressBarNameUndoable(name), true);
    }
     
     public void progressBarTouchable(Touchable touchable) {
-        processUndoable(new ProgressBarTouchableUndoable(touchable));
+        processUndoable(new ProgressBarTouchableUndoable(touchable), true);
     }
     
     public void progressBarVisible(boolean visible) {
-        processUndoable(new ProgressBarVisibleUndoable(visible));
+        processUndoable(new ProgressBarVisibleUndoable(visible), true);
     }
    
    public void progressBarReset() {
@@ -760,27 +767,27 @@ public class DialogSceneComposerEvents {
    }
    
    public void progressBarRound(boolean round) {
-        processUndoable(new ProgressBarRoundUndoable(round));
+        processUndoable(new ProgressBarRoundUndoable(round), true);
    }
    
    public void progressBarStyle(StyleData style) {
-        processUndoable(new ProgressBarStyleUndoable(style));
+        processUndoable(new ProgressBarStyleUndoable(style), true);
    }
    
    public void progressBarValue(float value) {
-        processUndoable(new ProgressBarValueUndoable(value));
+        processUndoable(new ProgressBarValueUndoable(value), true);
    }
    
    public void progressBarVertical(boolean vertical) {
-        processUndoable(new ProgressBarVerticalUndoable(vertical));
+        processUndoable(new ProgressBarVerticalUndoable(vertical), true);
    }
    
    public void progressBarVisualInterpolation(DialogSceneComposerModel.Interpol visualInterpolation) {
-        processUndoable(new ProgressBarVisualInterpolationUndoable(visualInterpolation));
+        processUndoable(new ProgressBarVisualInterpolationUndoable(visualInterpolation), true);
    }
    
    public void scrollPaneClamp(boolean clamp) {
-        processUndoable(new ScrollPaneClampUndoable(clamp));
+        processUndoable(new ScrollPaneClampUndoable(clamp), true);
    }
    
    public void scrollPaneDelete() {
@@ -788,55 +795,55 @@ public class DialogSceneComposerEvents {
    }
    
    public void scrollPaneFadeScrollBars(boolean fadeScrollBars) {
-        processUndoable(new ScrollPaneFadeScrollBarsUndoable(fadeScrollBars));
+        processUndoable(new ScrollPaneFadeScrollBarsUndoable(fadeScrollBars), true);
    }
    
    public void scrollPaneFlickScroll(boolean flickScroll) {
-        processUndoable(new ScrollPaneFlickScrollUndoable(flickScroll));
+        processUndoable(new ScrollPaneFlickScrollUndoable(flickScroll), true);
    }
    
    public void scrollPaneFlingTime(float flingTime) {
-        processUndoable(new ScrollPaneFlingTimeUndoable(flingTime));
+        processUndoable(new ScrollPaneFlingTimeUndoable(flingTime), true);
    }
    
    public void scrollPaneOverScrollX(boolean overScrollX) {
-        processUndoable(new ScrollPaneOverScrollXUndoable(overScrollX));
+        processUndoable(new ScrollPaneOverScrollXUndoable(overScrollX), true);
    }
    
    public void scrollPaneOverScrollY(boolean overScrollY) {
-        processUndoable(new ScrollPaneOverScrollYUndoable(overScrollY));
+        processUndoable(new ScrollPaneOverScrollYUndoable(overScrollY), true);
    }
    
    public void scrollPaneForceScrollX(boolean forceScrollX) {
-        processUndoable(new ScrollPaneForceScrollXUndoable(forceScrollX));
+        processUndoable(new ScrollPaneForceScrollXUndoable(forceScrollX), true);
    }
    
    public void scrollPaneForceScrollY(boolean forceScrollY) {
-        processUndoable(new ScrollPaneForceScrollYUndoable(forceScrollY));
+        processUndoable(new ScrollPaneForceScrollYUndoable(forceScrollY), true);
    }
    
    public void scrollPaneName(String name) {
-        processUndoable(new ScrollPaneNameUndoable(name));
+        processUndoable(new ScrollPaneNameUndoable(name), true);
    }
     
     public void scrollPaneTouchable(Touchable touchable) {
-        processUndoable(new ScrollPaneTouchableUndoable(touchable));
+        processUndoable(new ScrollPaneTouchableUndoable(touchable), true);
     }
     
     public void scrollPaneVisible(boolean visible) {
-        processUndoable(new ScrollPaneVisibleUndoable(visible));
+        processUndoable(new ScrollPaneVisibleUndoable(visible), true);
     }
    
    public void scrollPaneOverScrollDistance(float overScrollDistance) {
-        processUndoable(new ScrollPaneOverScrollDistanceUndoable(overScrollDistance));
+        processUndoable(new ScrollPaneOverScrollDistanceUndoable(overScrollDistance), true);
    }
    
    public void scrollPaneOverScrollSpeedMax(float overScrollSpeedMax) {
-        processUndoable(new ScrollPaneOverScrollSpeedMaxUndoable(overScrollSpeedMax));
+        processUndoable(new ScrollPaneOverScrollSpeedMaxUndoable(overScrollSpeedMax), true);
    }
    
    public void scrollPaneOverScrollSpeedMin(float overScrollSpeedMin) {
-        processUndoable(new ScrollPaneOverScrollSpeedMinUndoable(overScrollSpeedMin));
+        processUndoable(new ScrollPaneOverScrollSpeedMinUndoable(overScrollSpeedMin), true);
    }
    
    public void scrollPaneReset() {
@@ -844,31 +851,31 @@ public class DialogSceneComposerEvents {
    }
    
    public void scrollPaneScrollBarBottom(boolean scrollBarBottom) {
-        processUndoable(new ScrollPaneScrollBarBottomUndoable(scrollBarBottom));
+        processUndoable(new ScrollPaneScrollBarBottomUndoable(scrollBarBottom), true);
    }
    
    public void scrollPaneScrollBarRight(boolean scrollBarRight) {
-        processUndoable(new ScrollPaneScrollBarRightUndoable(scrollBarRight));
+        processUndoable(new ScrollPaneScrollBarRightUndoable(scrollBarRight), true);
    }
    
    public void scrollPaneScrollBarsOnTop(boolean scrollBarsOnTop) {
-        processUndoable(new ScrollPaneScrollBarsOnTopUndoable(scrollBarsOnTop));
+        processUndoable(new ScrollPaneScrollBarsOnTopUndoable(scrollBarsOnTop), true);
    }
    
    public void scrollPaneScrollBarsVisible(boolean scrollBarsVisible) {
-        processUndoable(new ScrollPaneScrollBarsVisibleUndoable(scrollBarsVisible));
+        processUndoable(new ScrollPaneScrollBarsVisibleUndoable(scrollBarsVisible), true);
    }
    
    public void scrollPaneScrollBarTouch(boolean scrollBarTouch) {
-        processUndoable(new ScrollPaneScrollBarTouchUndoable(scrollBarTouch));
+        processUndoable(new ScrollPaneScrollBarTouchUndoable(scrollBarTouch), true);
    }
    
    public void scrollPaneScrollingDisabledX(boolean scrollingDisabledX) {
-        processUndoable(new ScrollPaneScrollingDisabledXUndoable(scrollingDisabledX));
+        processUndoable(new ScrollPaneScrollingDisabledXUndoable(scrollingDisabledX), true);
    }
    
    public void scrollPaneScrollingDisabledY(boolean scrollingDisabledY) {
-        processUndoable(new ScrollPaneScrollingDisabledYUndoable(scrollingDisabledY));
+        processUndoable(new ScrollPaneScrollingDisabledYUndoable(scrollingDisabledY), true);
    }
    
    public void scrollPaneSetWidget(WidgetType widgetType) {
@@ -876,19 +883,19 @@ public class DialogSceneComposerEvents {
    }
    
    public void scrollPaneSmoothScrolling(boolean smoothScrolling) {
-        processUndoable(new ScrollPaneSmoothScrollingUndoable(smoothScrolling));
+        processUndoable(new ScrollPaneSmoothScrollingUndoable(smoothScrolling), true);
    }
    
    public void scrollPaneStyle(StyleData style) {
-        processUndoable(new ScrollPaneStyleUndoable(style));
+        processUndoable(new ScrollPaneStyleUndoable(style), true);
    }
    
    public void scrollPaneVariableSizeKnobs(boolean variableSizeKnobs) {
-        processUndoable(new ScrollPaneVariableSizeKnobsUndoable(variableSizeKnobs));
+        processUndoable(new ScrollPaneVariableSizeKnobsUndoable(variableSizeKnobs), true);
    }
    
    public void selectBoxAlignment(int alignment) {
-        processUndoable(new SelectBoxAlignmentUndoable(alignment));
+        processUndoable(new SelectBoxAlignmentUndoable(alignment), true);
    }
    
    public void selectBoxDelete() {
@@ -896,27 +903,27 @@ public class DialogSceneComposerEvents {
    }
    
    public void selectBoxDisabled(boolean disabled) {
-        processUndoable(new SelectBoxDisabledUndoable(disabled));
+        processUndoable(new SelectBoxDisabledUndoable(disabled), true);
    }
    
    public void selectBoxList(Array<String> textList) {
-        processUndoable(new SelectBoxListUndoable(textList));
+        processUndoable(new SelectBoxListUndoable(textList), true);
    }
    
    public void selectBoxMaxListCount(int maxListCount) {
-        processUndoable(new SelectBoxMaxListCountUndoable(maxListCount));
+        processUndoable(new SelectBoxMaxListCountUndoable(maxListCount), true);
    }
    
    public void selectBoxName(String name) {
-        processUndoable(new SelectBoxNameUndoable(name));
+        processUndoable(new SelectBoxNameUndoable(name), true);
    }
     
     public void selectBoxTouchable(Touchable touchable) {
-        processUndoable(new SelectBoxTouchableUndoable(touchable));
+        processUndoable(new SelectBoxTouchableUndoable(touchable), true);
     }
     
     public void selectBoxVisible(boolean visible) {
-        processUndoable(new SelectBoxVisibleUndoable(visible));
+        processUndoable(new SelectBoxVisibleUndoable(visible), true);
     }
    
    public void selectBoxReset() {
@@ -924,23 +931,23 @@ public class DialogSceneComposerEvents {
    }
    
    public void selectBoxScrollingDisabled(boolean scrollingDisabled) {
-        processUndoable(new SelectBoxScrollingDisabledUndoable(scrollingDisabled));
+        processUndoable(new SelectBoxScrollingDisabledUndoable(scrollingDisabled), true);
    }
    
    public void selectBoxSelected(int selected) {
-        processUndoable(new SelectBoxSelectedUndoable(selected));
+        processUndoable(new SelectBoxSelectedUndoable(selected), true);
    }
    
    public void selectBoxStyle(StyleData style) {
-        processUndoable(new SelectBoxStyleUndoable(style));
+        processUndoable(new SelectBoxStyleUndoable(style), true);
    }
     
     public void sliderAnimateInterpolation(DialogSceneComposerModel.Interpol interpol) {
-        processUndoable(new SliderAnimateInterpolationUndoable(interpol));
+        processUndoable(new SliderAnimateInterpolationUndoable(interpol), true);
     }
     
     public void sliderAnimationDuration(float animationDuration) {
-        processUndoable(new SliderAnimationDurationUndoable(animationDuration));
+        processUndoable(new SliderAnimationDurationUndoable(animationDuration), true);
     }
     
     public void sliderDelete() {
@@ -948,31 +955,31 @@ public class DialogSceneComposerEvents {
     }
     
     public void sliderDisabled(boolean disabled) {
-        processUndoable(new SliderDisabledUndoable(disabled));
+        processUndoable(new SliderDisabledUndoable(disabled), true);
     }
     
     public void sliderIncrement(float increment) {
-        processUndoable(new SliderIncrementUndoable(increment));
+        processUndoable(new SliderIncrementUndoable(increment), true);
     }
     
     public void sliderMaximum(float maximum) {
-        processUndoable(new SliderMaximumUndoable(maximum));
+        processUndoable(new SliderMaximumUndoable(maximum), true);
     }
     
     public void sliderMinimum(float minimum) {
-        processUndoable(new SliderMinimumUndoable(minimum));
+        processUndoable(new SliderMinimumUndoable(minimum), true);
     }
     
     public void sliderName(String name) {
-        processUndoable(new SliderNameUndoable(name));
+        processUndoable(new SliderNameUndoable(name), true);
     }
     
     public void sliderTouchable(Touchable touchable) {
-        processUndoable(new SliderTouchableUndoable(touchable));
+        processUndoable(new SliderTouchableUndoable(touchable), true);
     }
     
     public void sliderVisible(boolean visible) {
-        processUndoable(new SliderVisibleUndoable(visible));
+        processUndoable(new SliderVisibleUndoable(visible), true);
     }
     
     public void sliderReset() {
@@ -980,23 +987,23 @@ public class DialogSceneComposerEvents {
     }
     
     public void sliderRound(boolean round) {
-        processUndoable(new SliderRoundUndoable(round));
+        processUndoable(new SliderRoundUndoable(round), true);
     }
     
     public void sliderStyle(StyleData style) {
-        processUndoable(new SliderStyleUndoable(style));
+        processUndoable(new SliderStyleUndoable(style), true);
     }
     
     public void sliderValue(float value) {
-        processUndoable(new SliderValueUndoable(value));
+        processUndoable(new SliderValueUndoable(value), true);
     }
     
     public void sliderVertical(boolean vertical) {
-        processUndoable(new SliderVerticalUndoable(vertical));
+        processUndoable(new SliderVerticalUndoable(vertical), true);
     }
     
     public void sliderVisualInterpolation(DialogSceneComposerModel.Interpol visualInterpolation) {
-        processUndoable(new SliderVisualInterpolationUndoable(visualInterpolation));
+        processUndoable(new SliderVisualInterpolationUndoable(visualInterpolation), true);
     }
     
     public void splitPaneChildFirst(WidgetType widgetType) {
@@ -1012,15 +1019,15 @@ public class DialogSceneComposerEvents {
     }
     
     public void splitPaneName(String name) {
-        processUndoable(new SplitPaneNameUndoable(name));
+        processUndoable(new SplitPaneNameUndoable(name), true);
     }
     
     public void splitPaneTouchable(Touchable touchable) {
-        processUndoable(new SplitPaneTouchableUndoable(touchable));
+        processUndoable(new SplitPaneTouchableUndoable(touchable), true);
     }
     
     public void splitPaneVisible(boolean visible) {
-        processUndoable(new SplitPaneVisibleUndoable(visible));
+        processUndoable(new SplitPaneVisibleUndoable(visible), true);
     }
     
     public void splitPaneReset() {
@@ -1028,23 +1035,23 @@ public class DialogSceneComposerEvents {
     }
     
     public void splitPaneSplitMax(float splitMax) {
-        processUndoable(new SplitPaneSplitMaxUndoable(splitMax));
+        processUndoable(new SplitPaneSplitMaxUndoable(splitMax), true);
     }
     
     public void splitPaneSplitMin(float splitMin) {
-        processUndoable(new SplitPaneSplitMinUndoable(splitMin));
+        processUndoable(new SplitPaneSplitMinUndoable(splitMin), true);
     }
     
     public void splitPaneSplit(float split) {
-        processUndoable(new SplitPaneSplitUndoable(split));
+        processUndoable(new SplitPaneSplitUndoable(split), true);
     }
     
     public void splitPaneStyle(StyleData style) {
-        processUndoable(new SplitPaneStyleUndoable(style));
+        processUndoable(new SplitPaneStyleUndoable(style), true);
     }
     
     public void splitPaneVertical(boolean vertical) {
-        processUndoable(new SplitPaneVerticalUndoable(vertical));
+        processUndoable(new SplitPaneVerticalUndoable(vertical), true);
     }
     
     public void stackAddChild(WidgetType widgetType) {
@@ -1056,15 +1063,15 @@ public class DialogSceneComposerEvents {
     }
     
     public void stackName(String name) {
-        processUndoable(new StackNameUndoable(name));
+        processUndoable(new StackNameUndoable(name), true);
     }
     
     public void stackTouchable(Touchable touchable) {
-        processUndoable(new StackTouchableUndoable(touchable));
+        processUndoable(new StackTouchableUndoable(touchable), true);
     }
     
     public void stackVisible(boolean visible) {
-        processUndoable(new StackVisibleUndoable(visible));
+        processUndoable(new StackVisibleUndoable(visible), true);
     }
     
     public void stackReset() {
@@ -1072,11 +1079,11 @@ public class DialogSceneComposerEvents {
     }
     
     public void textAreaAlignment(int alignment) {
-        processUndoable(new TextAreaAlignmentUndoable(alignment));
+        processUndoable(new TextAreaAlignmentUndoable(alignment), true);
     }
     
     public void textAreaCursorPosition(int cursorPosition) {
-        processUndoable(new TextAreaCursorPositionUndoable(cursorPosition));
+        processUndoable(new TextAreaCursorPositionUndoable(cursorPosition), true);
     }
     
     public void textAreaDelete() {
@@ -1084,43 +1091,43 @@ public class DialogSceneComposerEvents {
     }
     
     public void textAreaDisabled(boolean disabled) {
-        processUndoable(new TextAreaDisabledUndoable(disabled));
+        processUndoable(new TextAreaDisabledUndoable(disabled), true);
     }
     
     public void textAreaFocusTraversal(boolean focusTraversal) {
-        processUndoable(new TextAreaFocusTraversalUndoable(focusTraversal));
+        processUndoable(new TextAreaFocusTraversalUndoable(focusTraversal), true);
     }
     
     public void textAreaMaxLength(int maxLength) {
-        processUndoable(new TextAreaMaxLengthUndoable(maxLength));
+        processUndoable(new TextAreaMaxLengthUndoable(maxLength), true);
     }
     
     public void textAreaMessageText(String messageText) {
-        processUndoable(new TextAreaMessageTextUndoable(messageText));
+        processUndoable(new TextAreaMessageTextUndoable(messageText), true);
     }
     
     public void textAreaName(String name) {
-        processUndoable(new TextAreaNameUndoable(name));
+        processUndoable(new TextAreaNameUndoable(name), true);
     }
     
     public void textAreaTouchable(Touchable touchable) {
-        processUndoable(new TextAreaTouchableUndoable(touchable));
+        processUndoable(new TextAreaTouchableUndoable(touchable), true);
     }
     
     public void textAreaVisible(boolean visible) {
-        processUndoable(new TextAreaVisibleUndoable(visible));
+        processUndoable(new TextAreaVisibleUndoable(visible), true);
     }
     
     public void textAreaPasswordCharacter(char character) {
-        processUndoable(new TextAreaPasswordCharacterUndoable(character));
+        processUndoable(new TextAreaPasswordCharacterUndoable(character), true);
     }
     
     public void textAreaPasswordMode(boolean passwordMode) {
-        processUndoable(new TextAreaPasswordModeUndoable(passwordMode));
+        processUndoable(new TextAreaPasswordModeUndoable(passwordMode), true);
     }
     
     public void textAreaPreferredRows(int preferredRow) {
-        processUndoable(new TextAreaPreferredRowUndoable(preferredRow));
+        processUndoable(new TextAreaPreferredRowUndoable(preferredRow), true);
     }
     
     public void textAreaReset() {
@@ -1128,31 +1135,31 @@ public class DialogSceneComposerEvents {
     }
     
     public void textAreaSelectAll(boolean selectAll) {
-        processUndoable(new TextAreaSelectAllUndoable(selectAll));
+        processUndoable(new TextAreaSelectAllUndoable(selectAll), true);
     }
     
     public void textAreaSelectionEnd(int selectionEnd) {
-        processUndoable(new TextAreaSelectionEndUndoable(selectionEnd));
+        processUndoable(new TextAreaSelectionEndUndoable(selectionEnd), true);
     }
     
     public void textAreaSelectionStart(int selectionStart) {
-        processUndoable(new TextAreaSelectionStartUndoable(selectionStart));
+        processUndoable(new TextAreaSelectionStartUndoable(selectionStart), true);
     }
     
     public void textAreaStyle(StyleData style) {
-        processUndoable(new TextAreaStyleUndoable(style));
+        processUndoable(new TextAreaStyleUndoable(style), true);
     }
     
     public void textAreaText(String text) {
-        processUndoable(new TextAreaTextUndoable(text));
+        processUndoable(new TextAreaTextUndoable(text), true);
     }
     
     public void textFieldAlignment(int alignment) {
-        processUndoable(new TextFieldAlignmentUndoable(alignment));
+        processUndoable(new TextFieldAlignmentUndoable(alignment), true);
     }
     
     public void textFieldCursorPosition(int cursorPosition) {
-        processUndoable(new TextFieldCursorPositionUndoable(cursorPosition));
+        processUndoable(new TextFieldCursorPositionUndoable(cursorPosition), true);
     }
     
     public void textFieldDelete() {
@@ -1160,39 +1167,39 @@ public class DialogSceneComposerEvents {
     }
     
     public void textFieldDisabled(boolean disabled) {
-        processUndoable(new TextFieldDisabledUndoable(disabled));
+        processUndoable(new TextFieldDisabledUndoable(disabled), true);
     }
     
     public void textFieldFocusTraversal(boolean focusTraversal) {
-        processUndoable(new TextFieldFocusTraversalUndoable(focusTraversal));
+        processUndoable(new TextFieldFocusTraversalUndoable(focusTraversal), true);
     }
     
     public void textFieldMaxLength(int maxLength) {
-        processUndoable(new TextFieldMaxLengthUndoable(maxLength));
+        processUndoable(new TextFieldMaxLengthUndoable(maxLength), true);
     }
     
     public void textFieldMessageText(String messageText) {
-        processUndoable(new TextFieldMessageTextUndoable(messageText));
+        processUndoable(new TextFieldMessageTextUndoable(messageText), true);
     }
     
     public void textFieldName(String name) {
-        processUndoable(new TextFieldNameUndoable(name));
+        processUndoable(new TextFieldNameUndoable(name), true);
     }
     
     public void textFieldTouchable(Touchable touchable) {
-        processUndoable(new TextFieldTouchableUndoable(touchable));
+        processUndoable(new TextFieldTouchableUndoable(touchable), true);
     }
     
     public void textFieldVisible(boolean visible) {
-        processUndoable(new TextFieldVisibleUndoable(visible));
+        processUndoable(new TextFieldVisibleUndoable(visible), true);
     }
     
     public void textFieldPasswordCharacter(char character) {
-        processUndoable(new TextFieldPasswordCharacterUndoable(character));
+        processUndoable(new TextFieldPasswordCharacterUndoable(character), true);
     }
     
     public void textFieldPasswordMode(boolean passwordMode) {
-        processUndoable(new TextFieldPasswordModeUndoable(passwordMode));
+        processUndoable(new TextFieldPasswordModeUndoable(passwordMode), true);
     }
     
     public void textFieldReset() {
@@ -1200,23 +1207,23 @@ public class DialogSceneComposerEvents {
     }
     
     public void textFieldSelectAll(boolean selectAll) {
-        processUndoable(new TextFieldSelectAllUndoable(selectAll));
+        processUndoable(new TextFieldSelectAllUndoable(selectAll), true);
     }
     
     public void textFieldSelectionEnd(int selectionEnd) {
-        processUndoable(new TextFieldSelectionEndUndoable(selectionEnd));
+        processUndoable(new TextFieldSelectionEndUndoable(selectionEnd), true);
     }
     
     public void textFieldSelectionStart(int selectionStart) {
-        processUndoable(new TextFieldSelectionStartUndoable(selectionStart));
+        processUndoable(new TextFieldSelectionStartUndoable(selectionStart), true);
     }
     
     public void textFieldStyle(StyleData style) {
-        processUndoable(new TextFieldStyleUndoable(style));
+        processUndoable(new TextFieldStyleUndoable(style), true);
     }
     
     public void textFieldText(String text) {
-        processUndoable(new TextFieldTextUndoable(text));
+        processUndoable(new TextFieldTextUndoable(text), true);
     }
     
     public void touchPadDelete() {
@@ -1224,23 +1231,23 @@ public class DialogSceneComposerEvents {
     }
     
     public void touchPadName(String name) {
-        processUndoable(new TouchPadNameUndoable(name));
+        processUndoable(new TouchPadNameUndoable(name), true);
     }
     
     public void touchPadTouchable(Touchable touchable) {
-        processUndoable(new TouchPadTouchableUndoable(touchable));
+        processUndoable(new TouchPadTouchableUndoable(touchable), true);
     }
     
     public void touchPadVisible(boolean visible) {
-        processUndoable(new TouchPadVisibleUndoable(visible));
+        processUndoable(new TouchPadVisibleUndoable(visible), true);
     }
     
     public void touchPadDeadZone(float deadZone) {
-        processUndoable(new TouchPadDeadZoneUndoable(deadZone));
+        processUndoable(new TouchPadDeadZoneUndoable(deadZone), true);
     }
     
     public void touchPadResetOnTouchUp(boolean resetOnTouchUp) {
-        processUndoable(new TouchPadResetOnTouchUpUndoable(resetOnTouchUp));
+        processUndoable(new TouchPadResetOnTouchUpUndoable(resetOnTouchUp), true);
     }
     
     public void touchPadReset() {
@@ -1248,7 +1255,7 @@ public class DialogSceneComposerEvents {
     }
     
     public void touchPadStyle(StyleData style) {
-        processUndoable(new TouchPadStyleUndoable(style));
+        processUndoable(new TouchPadStyleUndoable(style), true);
     }
     
     public void treeAddNode() {
@@ -1260,35 +1267,35 @@ public class DialogSceneComposerEvents {
     }
     
     public void treeIconSpaceLeft(float iconSpaceLeft) {
-        processUndoable(new TreeIconSpaceLeftUndoable(iconSpaceLeft));
+        processUndoable(new TreeIconSpaceLeftUndoable(iconSpaceLeft), true);
     }
     
     public void treeIconSpaceRight(float iconSpaceRight) {
-        processUndoable(new TreeIconSpaceRightUndoable(iconSpaceRight));
+        processUndoable(new TreeIconSpaceRightUndoable(iconSpaceRight), true);
     }
     
     public void treeIndentSpacing(float indentSpacing) {
-        processUndoable(new TreeIndentSpacingUndoable(indentSpacing));
+        processUndoable(new TreeIndentSpacingUndoable(indentSpacing), true);
     }
     
     public void treeName(String name) {
-        processUndoable(new TreeNameUndoable(name));
+        processUndoable(new TreeNameUndoable(name), true);
     }
     
     public void treeTouchable(Touchable touchable) {
-        processUndoable(new TreeTouchableUndoable(touchable));
+        processUndoable(new TreeTouchableUndoable(touchable), true);
     }
     
     public void treeVisible(boolean visible) {
-        processUndoable(new TreeVisibleUndoable(visible));
+        processUndoable(new TreeVisibleUndoable(visible), true);
     }
     
     public void treePadLeft(float padLeft) {
-        processUndoable(new TreePadLeftUndoable(padLeft));
+        processUndoable(new TreePadLeftUndoable(padLeft), true);
     }
     
     public void treePadRight(float padRight) {
-        processUndoable(new TreePadRightUndoable(padRight));
+        processUndoable(new TreePadRightUndoable(padRight), true);
     }
     
     public void treeReset() {
@@ -1296,15 +1303,15 @@ public class DialogSceneComposerEvents {
     }
     
     public void treeStyle(StyleData style) {
-        processUndoable(new TreeStyleUndoable(style));
+        processUndoable(new TreeStyleUndoable(style), true);
     }
     
     public void treeYSpacing(float ySpacing) {
-        processUndoable(new TreeYSpacingUndoable(ySpacing));
+        processUndoable(new TreeYSpacingUndoable(ySpacing), true);
     }
     
     public void verticalGroupAlignment(int alignment) {
-        processUndoable(new VerticalGroupAlignmentUndoable(alignment));
+        processUndoable(new VerticalGroupAlignmentUndoable(alignment), true);
     }
     
     public void verticalGroupAddChild(WidgetType widgetType) {
@@ -1316,39 +1323,39 @@ public class DialogSceneComposerEvents {
     }
     
     public void verticalGroupExpand(boolean expand) {
-        processUndoable(new VerticalGroupExpandUndoable(expand));
+        processUndoable(new VerticalGroupExpandUndoable(expand), true);
     }
     
     public void verticalGroupFill(boolean fill) {
-        processUndoable(new VerticalGroupFillUndoable(fill));
+        processUndoable(new VerticalGroupFillUndoable(fill), true);
     }
     
     public void verticalGroupName(String name) {
-        processUndoable(new VerticalGroupNameUndoable(name));
+        processUndoable(new VerticalGroupNameUndoable(name), true);
     }
     
     public void verticalGroupTouchable(Touchable touchable) {
-        processUndoable(new VerticalGroupTouchableUndoable(touchable));
+        processUndoable(new VerticalGroupTouchableUndoable(touchable), true);
     }
     
     public void verticalGroupVisible(boolean visible) {
-        processUndoable(new VerticalGroupVisibleUndoable(visible));
+        processUndoable(new VerticalGroupVisibleUndoable(visible), true);
     }
     
     public void verticalGroupPadBottom(float padBottom) {
-        processUndoable(new VerticalGroupPadBottomUndoable(padBottom));
+        processUndoable(new VerticalGroupPadBottomUndoable(padBottom), true);
     }
     
     public void verticalGroupPadLeft(float padLeft) {
-        processUndoable(new VerticalGroupPadLeftUndoable(padLeft));
+        processUndoable(new VerticalGroupPadLeftUndoable(padLeft), true);
     }
     
     public void verticalGroupPadRight(float padRight) {
-        processUndoable(new VerticalGroupPadRightUndoable(padRight));
+        processUndoable(new VerticalGroupPadRightUndoable(padRight), true);
     }
     
     public void verticalGroupPadTop(float padTop) {
-        processUndoable(new VerticalGroupPadTopUndoable(padTop));
+        processUndoable(new VerticalGroupPadTopUndoable(padTop), true);
     }
     
     public void verticalGroupReset() {
@@ -1356,22 +1363,22 @@ public class DialogSceneComposerEvents {
     }
     
     public void verticalGroupReverse(boolean reverse) {
-        processUndoable(new VerticalGroupReverseUndoable(reverse));
+        processUndoable(new VerticalGroupReverseUndoable(reverse), true);
     }
     
     public void verticalGroupColumnAlignment(int columnAlignment) {
-        processUndoable(new VerticalGroupColumnAlignmentUndoable(columnAlignment));
+        processUndoable(new VerticalGroupColumnAlignmentUndoable(columnAlignment), true);
     }
     
     public void verticalGroupSpace(float space) {
-        processUndoable(new VerticalGroupSpaceUndoable(space));
+        processUndoable(new VerticalGroupSpaceUndoable(space), true);
     }
     
     public void verticalGroupWrapSpace(float wrapSpace) {
-        processUndoable(new VerticalGroupWrapSpaceUndoable(wrapSpace));
+        processUndoable(new VerticalGroupWrapSpaceUndoable(wrapSpace), true);
     }
     
     public void verticalGroupWrap(boolean wrap) {
-        processUndoable(new VerticalGroupWrapUndoable(wrap));
+        processUndoable(new VerticalGroupWrapUndoable(wrap), true);
     }
 }
\ No newline at end of file
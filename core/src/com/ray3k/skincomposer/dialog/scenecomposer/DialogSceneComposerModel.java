@@ -1,5 +1,6 @@
 package com.ray3k.skincomposer.dialog.scenecomposer;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.MathUtils;
@@ -10,12 +11,16 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.utils.*;
 import com.badlogic.gdx.utils.Json.Serializer;
 import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
 import com.badlogic.gdx.utils.reflect.ReflectionException;
 import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.UndoableManager;
 import com.ray3k.skincomposer.data.ColorData;
 import com.ray3k.skincomposer.data.DrawableData;
 import com.ray3k.skincomposer.data.StyleData;
+import com.ray3k.skincomposer.data.StyleProperty;
 import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposer.View;
+import com.ray3k.skincomposer.dialog.scenecomposer.undoables.CoalescedUndoable;
 import com.ray3k.skincomposer.dialog.scenecomposer.undoables.SceneComposerUndoable;
 import com.ray3k.stripe.scenecomposer.SimMultipleChildren;
 import com.ray3k.stripe.scenecomposer.SimSingleChild;
@@ -32,9 +37,21 @@ public class DialogSceneComposerModel {
     public transient Array<SceneComposerUndoable> redoables;
     public static SimRootGroup rootActor;
     public transient Stack preview;
+    private final PreviewReconciler reconciler = new PreviewReconciler();
+    private View previewView;
     private static Json json;
     private final static Vector2 temp = new Vector2();
     private final static int EDIT_EMPTY_WIDGET_SIZE = 50;
+    /**
+     * Consecutive edits of the same property of the same actor within this many milliseconds are undone in one step.
+     */
+    public final static long MERGE_TIME = 750;
+    private final static long UNDOABLE_MEMORY_ESTIMATE = 128;
+    private final IdentityMap<SceneComposerUndoable, Long> memoryEstimates = new IdentityMap<>();
+    private final ObjectMap<Class, Array<Field>> instanceFields = new ObjectMap<>();
+    private long memoryUsed;
+    private long lastMergeableTime;
+    private SimActor lastMergeableTarget;
     
     public enum Interpol {
         LINEAR(Interpolation.linear, "Linear", "linear"), SMOOTH(Interpolation.smooth, "Smooth", "smooth"), SMOOTH2(
@@ -224,7 +241,195 @@ public class DialogSceneComposerModel {
         assignParentRecursive(rootActor);
     }
     
+    /**
+     * Applies the undoable and adds it to the undo history. The oldest undoables are discarded once the history exceeds
+     * the memory budget set by {@link com.ray3k.skincomposer.data.ProjectData#getSceneComposerUndoMemory()}.
+     * @param undoable
+     * @param mergeable If true, the undoable sets a property of the selected actor and may be combined with the
+     *                  previous undoable if it set the same property moments ago.
+     */
+    public void addUndoable(SceneComposerUndoable undoable, boolean mergeable) {
+        addUndoable(undoable, mergeable, dialog.simActor, TimeUtils.millis(), projectData.getSceneComposerUndoMemory() * 1024L * 1024L);
+    }
+    
+    /**
+     * Applies the undoable and adds it to the undo history.
+     * @param undoable
+     * @param mergeable
+     * @param target The selected actor, which must be the same for consecutive edits to be merged.
+     * @param time The time of the edit in milliseconds.
+     * @param budget The approximate number of bytes the undoables may retain. The latest undoable is always kept.
+     */
+    void addUndoable(SceneComposerUndoable undoable, boolean mergeable, SimActor target, long time, long budget) {
+        if (mergeable && undoables.size > 0 && redoables.size == 0 && target == lastMergeableTarget
+                && time - lastMergeableTime <= MERGE_TIME) {
+            var previous = undoables.peek();
+            var previousClass = previous instanceof CoalescedUndoable ? ((CoalescedUndoable) previous).getLast().getClass() : previous.getClass();
+            if (previousClass == undoable.getClass()) {
+                undoables.pop();
+                forget(previous);
+                undoable = new CoalescedUndoable(previous, undoable);
+            }
+        }
+        
+        lastMergeableTime = mergeable ? time : 0;
+        lastMergeableTarget = mergeable ? target : null;
+        
+        for (var redoable : redoables) {
+            forget(redoable);
+        }
+        redoables.clear();
+        undoables.add(undoable);
+        undoable.redo();
+        
+        long memory = estimateMemory(undoable);
+        memoryEstimates.put(undoable, memory);
+        memoryUsed += memory;
+        
+        while (memoryUsed > budget && undoables.size > 1) {
+            forget(undoables.removeIndex(0));
+        }
+    }
+    
+    private void forget(SceneComposerUndoable undoable) {
+        Long memory = memoryEstimates.remove(undoable);
+        if (memory != null) memoryUsed -= memory;
+    }
+    
+    /**
+     * Returns the approximate number of bytes retained by the undo history.
+     * @return 
+     */
+    long getMemoryUsed() {
+        return memoryUsed;
+    }
+    
+    /**
+     * Estimates the memory retained by an undoable. Actors that are referenced by the undoable but are no longer part of
+     * the layout, such as deleted actors or a cleared layout, are only kept alive by the history and are counted with
+     * their children.
+     * @param undoable
+     * @return 
+     */
+    private long estimateMemory(SceneComposerUndoable undoable) {
+        if (undoable instanceof CoalescedUndoable) {
+            return UNDOABLE_MEMORY_ESTIMATE * 2;
+        }
+        
+        long memory = UNDOABLE_MEMORY_ESTIMATE;
+        for (var field : getInstanceFields(undoable.getClass())) {
+            try {
+                var value = field.get(undoable);
+                if (value instanceof SimActor) {
+                    if (!isInLayout((SimActor) value)) memory += estimateMemory((SimActor) value);
+                } else if (value instanceof Array) {
+                    for (var item : (Array) value) {
+                        if (item instanceof SimActor && !isInLayout((SimActor) item)) {
+                            memory += estimateMemory((SimActor) item);
+                        }
+                    }
+                }
+            } catch (ReflectionException e) {
+                Gdx.app.error(getClass().getName(), "Error estimating undo memory", e);
+            }
+        }
+        return memory;
+    }
+    
+    /**
+     * Estimates the memory of an actor and its children from their fields. Strings and arrays are counted with the
+     * actor. Styles, drawables, and colors are shared with the project and only count as references.
+     * @param simActor
+     * @return 
+     */
+    long estimateMemory(SimActor simActor) {
+        long memory = UndoableManager.OBJECT_MEMORY;
+        for (var field : getInstanceFields(simActor.getClass())) {
+            var type = field.getType();
+            if (type.isPrimitive()) {
+                memory += type == long.class || type == double.class ? 8 : type == boolean.class || type == byte.class ? 1 : type == char.class || type == short.class ? 2 : 4;
+                continue;
+            }
+            
+            memory += UndoableManager.REFERENCE_MEMORY;
+            try {
+                var value = field.get(simActor);
+                if (value instanceof String) {
+                    memory += UndoableManager.estimateMemory((String) value);
+                } else if (value instanceof Array) {
+                    var array = (Array) value;
+                    //the Array with its size and ordered fields, and its backing array
+                    memory += UndoableManager.OBJECT_MEMORY + UndoableManager.REFERENCE_MEMORY + 5 + UndoableManager.OBJECT_MEMORY + array.items.length * UndoableManager.REFERENCE_MEMORY;
+                    for (var item : array) {
+                        if (item instanceof String) memory += UndoableManager.estimateMemory((String) item);
+                    }
+                }
+            } catch (ReflectionException e) {
+                Gdx.app.error(getClass().getName(), "Error estimating undo memory", e);
+            }
+        }
+        
+        if (simActor instanceof SimSingleChild) {
+            var child = ((SimSingleChild) simActor).getChild();
+            if (child != null) memory += estimateMemory(child);
+        }
+        
+        if (simActor instanceof SimMultipleChildren) {
+            for (var child : ((SimMultipleChildren) simActor).getChildren()) {
+                if (child != null) memory += estimateMemory(child);
+            }
+        }
+        return memory;
+    }
+    
+    /**
+     * Returns the instance fields of the class and its superclasses.
+     * @param type
+     * @return 
+     */
+    private Array<Field> getInstanceFields(Class type) {
+        var fields = instanceFields.get(type);
+        if (fields == null) {
+            fields = new Array<>();
+            for (var current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (var field : ClassReflection.getDeclaredFields(current)) {
+                    if (field.isStatic()) continue;
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            instanceFields.put(type, fields);
+        }
+        return fields;
+    }
+    
+    /**
+     * Removed actors keep their parent reference, so each parent is checked to still contain its child.
+     * @param simActor
+     * @return 
+     */
+    private static boolean isInLayout(SimActor simActor) {
+        while (simActor.parent != null) {
+            var parent = simActor.parent;
+            if (!isChild(parent, simActor)) return false;
+            simActor = parent;
+        }
+        return simActor == rootActor;
+    }
+    
+    private static boolean isChild(SimActor parent, SimActor simActor) {
+        if (parent instanceof SimSingleChild && ((SimSingleChild) parent).getChild() == simActor) return true;
+        
+        if (parent instanceof SimMultipleChildren) {
+            for (var child : ((SimMultipleChildren) parent).getChildren()) {
+                if (child == simActor) return true;
+            }
+        }
+        return false;
+    }
+    
     public void undo() {
+        lastMergeableTime = 0;
         if (undoables.size > 0) {
             var undoable = undoables.pop();
             redoables.add(undoable);
@@ -239,6 +444,7 @@ public class DialogSceneComposerModel {
     }
     
     public void redo() {
+        lastMergeableTime = 0;
         if (redoables.size > 0) {
             var undoable = redoables.pop();
             undoables.add(undoable);
@@ -248,6 +454,11 @@ public class DialogSceneComposerModel {
     }
     
     public void updatePreview() {
+        long startTime = System.nanoTime();
+        //widgets of unchanged SimActors are reused, except when the view changes because each view builds them differently
+        reconciler.update(rootActor, getResourceVersion(), dialog.view != previewView);
+        previewView = dialog.view;
+        
         preview.clearChildren();
         
         switch (dialog.view) {
@@ -265,6 +476,20 @@ public class DialogSceneComposerModel {
                 preview.debugAll();
                 break;
         }
+        
+        Gdx.app.debug(getClass().getName(), "Preview updated in " + (System.nanoTime() - startTime) / 1000000f + " ms, " + reconciler.getDirtyCount() + " changed actors");
+    }
+    
+    /**
+     * Combines the versions of the project data that preview widgets are built from. Styles change with the style
+     * structure and property values, while colors, fonts, and drawables change with the drawables of the atlas.
+     * @return
+     */
+    private int getResourceVersion() {
+        int version = jsonData.getStyleStructureVersion();
+        version = 31 * version + StyleProperty.getValueVersion();
+        version = 31 * version + atlasData.getDrawablesVersion();
+        return version;
     }
     
     private Cell findCell(Table table, int row, int column) {
@@ -413,6 +638,8 @@ public class DialogSceneComposerModel {
     }
     
     private Actor createPreviewWidget(SimActor simActor) {
+        if (reconciler.isReusable(simActor)) return simActor.previewActor;
+        
         Actor actor = null;
     
         if (simActor instanceof SimTable) {
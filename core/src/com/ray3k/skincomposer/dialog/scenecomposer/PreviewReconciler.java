@@ -0,0 +1,150 @@
+package com.ray3k.skincomposer.dialog.scenecomposer;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Field;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimActor;
+
+/**
+ * Determines which SimActors have changed since the preview was last built so that the preview widgets of unchanged
+ * subtrees can be reused. Every public, non-transient field of a SimActor is recorded after each update. A SimActor is
+ * dirty if any of its fields or any of its descendants changed. SimActors and other project data such as styles and
+ * drawables are compared by identity, while primitives, Strings, and enums are compared by value. Project data can be
+ * edited in place, so a SimActor that references any is also dirty whenever the resource version passed to
+ * {@link #update(SimActor, int, boolean)} changes.
+ */
+public class PreviewReconciler {
+    private IdentityMap<SimActor, Snapshot> snapshots = new IdentityMap<>();
+    private IdentityMap<SimActor, Snapshot> previousSnapshots = new IdentityMap<>();
+    private final ObjectMap<Class, Array<Field>> fieldCache = new ObjectMap<>();
+    private int dirtyCount;
+    private int resourceVersion;
+    
+    private static class Snapshot {
+        private final Array<Object> values = new Array<>();
+        private final Array<SimActor> children = new Array<>();
+        private boolean usesResources;
+        private boolean dirty;
+    }
+    
+    /**
+     * Records the current state of the tree and marks every SimActor that changed since the last update.
+     * @param root
+     * @param resourceVersion A stamp of the project data the preview is built from, such as styles, colors, and
+     *                        drawables. SimActors that reference project data are marked dirty when it changes.
+     * @param invalidateAll If true, every SimActor is marked dirty. Use this when the preview widgets are no longer
+     *                      valid, such as when the view changes.
+     */
+    public void update(SimActor root, int resourceVersion, boolean invalidateAll) {
+        boolean resourcesChanged = resourceVersion != this.resourceVersion;
+        this.resourceVersion = resourceVersion;
+        
+        var swap = previousSnapshots;
+        previousSnapshots = snapshots;
+        snapshots = swap;
+        snapshots.clear();
+        if (invalidateAll) previousSnapshots.clear();
+        
+        dirtyCount = 0;
+        if (root != null) update(root, resourcesChanged);
+        
+        previousSnapshots.clear();
+    }
+    
+    /**
+     * Returns true if the preview widget previously created for this SimActor can be added to the preview unchanged.
+     * @param simActor
+     * @return
+     */
+    public boolean isReusable(SimActor simActor) {
+        if (simActor == null || simActor.previewActor == null) return false;
+        var snapshot = snapshots.get(simActor);
+        return snapshot != null && !snapshot.dirty;
+    }
+    
+    /**
+     * Returns the number of SimActors marked dirty by the last update.
+     * @return
+     */
+    public int getDirtyCount() {
+        return dirtyCount;
+    }
+    
+    private boolean update(SimActor simActor, boolean resourcesChanged) {
+        var snapshot = new Snapshot();
+        record(simActor, snapshot);
+        snapshots.put(simActor, snapshot);
+        
+        boolean dirty = false;
+        for (var child : snapshot.children) {
+            //every child must be visited so that its snapshot is recorded
+            if (update(child, resourcesChanged)) dirty = true;
+        }
+        
+        var previous = previousSnapshots.get(simActor);
+        if (dirty || previous == null || resourcesChanged && snapshot.usesResources || !matches(previous.values, snapshot.values)) {
+            snapshot.dirty = true;
+            dirtyCount++;
+        }
+        return snapshot.dirty;
+    }
+    
+    private void record(SimActor simActor, Snapshot snapshot) {
+        for (var field : getFields(simActor.getClass())) {
+            Object value;
+            try {
+                value = field.get(simActor);
+            } catch (ReflectionException e) {
+                //an unreadable field can't be compared, so treat the SimActor as changed
+                value = new Object();
+            }
+            
+            if (value instanceof Array) {
+                var array = (Array) value;
+                snapshot.values.add(array.size);
+                for (var item : array) {
+                    add(item, snapshot);
+                }
+            } else {
+                add(value, snapshot);
+            }
+        }
+    }
+    
+    private void add(Object value, Snapshot snapshot) {
+        snapshot.values.add(value);
+        if (value instanceof SimActor) snapshot.children.add((SimActor) value);
+        else if (value != null && !isValueType(value)) snapshot.usesResources = true;
+    }
+    
+    private Array<Field> getFields(Class type) {
+        var fields = fieldCache.get(type);
+        if (fields == null) {
+            fields = new Array<>();
+            for (var field : ClassReflection.getFields(type)) {
+                if (!field.isStatic() && !field.isTransient()) fields.add(field);
+            }
+            fieldCache.put(type, fields);
+        }
+        return fields;
+    }
+    
+    private static boolean matches(Array<Object> previous, Array<Object> current) {
+        if (previous.size != current.size) return false;
+        for (int i = 0; i < previous.size; i++) {
+            var a = previous.get(i);
+            var b = current.get(i);
+            if (a == b) continue;
+            if (!isValueType(a) || !a.equals(b)) return false;
+        }
+        return true;
+    }
+    
+    private static boolean isValueType(Object object) {
+        return object instanceof Number || object instanceof Boolean || object instanceof Character
+                || object instanceof String || object instanceof Enum;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ray3k.skincomposer.dialog.scenecomposer.undoables;
+
+/**
+ * Combines consecutive edits of the same property into one step. Undoing restores the value from before the first edit
+ * and redoing applies the value of the last edit.
+ */
+public class CoalescedUndoable implements SceneComposerUndoable {
+    private SceneComposerUndoable first;
+    private SceneComposerUndoable last;
+    
+    public CoalescedUndoable(SceneComposerUndoable first, SceneComposerUndoable last) {
+        this.first = first instanceof CoalescedUndoable ? ((CoalescedUndoable) first).first : first;
+        this.last = last;
+    }
+    
+    public SceneComposerUndoable getLast() {
+        return last;
+    }
+    
+    @Override
+    public void undo() {
+        first.undo();
+    }
+    
+    @Override
+    public void redo() {
+        last.redo();
+    }
+    
+    @Override
+    public String getRedoString() {
+        return last.getRedoString();
+    }
+    
+    @Override
+    public String getUndoString() {
+        return last.getUndoString();
+    }
+}
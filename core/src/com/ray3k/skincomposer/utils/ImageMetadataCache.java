@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * MIT License
+ * 
+ * Copyright (c) 2021 Raymond Buckley
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.utils;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.ray3k.skincomposer.Main;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.FileImageInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Persistent cache of image metadata keyed by path, file size and modification time. Dimensions are read from the
+ * image header without decoding pixels. The average edge color requires a full decode, so it is computed lazily on a
+ * background pool.
+ */
+public class ImageMetadataCache {
+    private static final ObjectMap<String, ImageMetadata> cache = new ObjectMap<>();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+        var thread = new Thread(runnable, "Image Metadata");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static boolean loaded;
+    
+    public static class ImageMetadata {
+        public long length;
+        public long lastModified;
+        public int width;
+        public int height;
+        public boolean ninePatch;
+        public Color edgeColor;
+    }
+    
+    /**
+     * Returns the cached metadata for the file, reading the image header if the file is not cached or has changed.
+     * @param file
+     * @return 
+     */
+    public static ImageMetadata get(FileHandle file) {
+        synchronized (cache) {
+            load();
+            
+            var metadata = cache.get(file.path());
+            if (metadata != null && metadata.length == file.length() && metadata.lastModified == file.lastModified()) {
+                return metadata;
+            }
+            
+            metadata = new ImageMetadata();
+            metadata.length = file.length();
+            metadata.lastModified = file.lastModified();
+            metadata.ninePatch = Utils.isNinePatch(file.name());
+            readDimensions(file, metadata);
+            cache.put(file.path(), metadata);
+            return metadata;
+        }
+    }
+    
+    /**
+     * Returns the average edge color of the image, decoding it on the calling thread if it is not cached.
+     * @param file
+     * @return 
+     * @see Utils#averageEdgeColor(Pixmap, boolean) 
+     */
+    public static Color getEdgeColor(FileHandle file) {
+        var metadata = get(file);
+        synchronized (cache) {
+            if (metadata.edgeColor != null) return metadata.edgeColor;
+        }
+        
+        var edgeColor = computeEdgeColor(file, metadata);
+        synchronized (cache) {
+            metadata.edgeColor = edgeColor;
+        }
+        return edgeColor;
+    }
+    
+    /**
+     * Passes the average edge color of the image to the listener. If the color is not cached, it is computed on a
+     * background thread and the listener is called on the rendering thread once it is available.
+     * @param file
+     * @param listener
+     */
+    public static void requestEdgeColor(FileHandle file, Consumer<Color> listener) {
+        var metadata = get(file);
+        synchronized (cache) {
+            if (metadata.edgeColor != null) {
+                listener.accept(metadata.edgeColor);
+                return;
+            }
+        }
+        
+        executor.execute(() -> {
+            try {
+                var edgeColor = computeEdgeColor(file, metadata);
+                synchronized (cache) {
+                    metadata.edgeColor = edgeColor;
+                }
+                Gdx.app.postRunnable(() -> listener.accept(edgeColor));
+            } catch (Exception e) {
+                Gdx.app.error(ImageMetadataCache.class.getName(), "Error calculating edge color of " + file.path(), e);
+            }
+        });
+    }
+    
+    private static Color computeEdgeColor(FileHandle file, ImageMetadata metadata) {
+        var pixmap = new Pixmap(file);
+        var edgeColor = Utils.averageEdgeColor(pixmap, metadata.ninePatch);
+        pixmap.dispose();
+        return edgeColor;
+    }
+    
+    /**
+     * Reads the width and height from the IHDR chunk of a PNG. Other formats are read with an ImageIO reader, which
+     * also only parses the header.
+     * @param file
+     * @param metadata
+     */
+    private static void readDimensions(FileHandle file, ImageMetadata metadata) {
+        if (file.extension().equalsIgnoreCase("png")) {
+            try (var stream = new DataInputStream(file.read(32))) {
+                //8 byte signature, 4 byte chunk length and the IHDR chunk type precede the dimensions
+                if (stream.readLong() == 0x89504E470D0A1A0AL && stream.skipBytes(4) == 4 && stream.readInt() == 0x49484452) {
+                    metadata.width = stream.readInt();
+                    metadata.height = stream.readInt();
+                    return;
+                }
+            } catch (IOException e) {
+                Gdx.app.error(ImageMetadataCache.class.getName(), "Error reading PNG header of " + file.path(), e);
+            }
+        }
+        
+        Iterator<ImageReader> iter = ImageIO.getImageReadersBySuffix(file.extension());
+        if (iter.hasNext()) {
+            ImageReader reader = iter.next();
+            try (var stream = new FileImageInputStream(file.file())) {
+                reader.setInput(stream);
+                metadata.width = reader.getWidth(reader.getMinIndex());
+                metadata.height = reader.getHeight(reader.getMinIndex());
+                return;
+            } catch (IOException e) {
+                Gdx.app.error(ImageMetadataCache.class.getName(), "Error reading image header of " + file.path(), e);
+            } finally {
+                reader.dispose();
+            }
+        }
+        
+        var pixmap = new Pixmap(file);
+        metadata.width = pixmap.getWidth();
+        metadata.height = pixmap.getHeight();
+        pixmap.dispose();
+    }
+    
+    private static FileHandle getCacheFile() {
+        return Main.appFolder.child("image-metadata.json");
+    }
+    
+    private static void load() {
+        if (!loaded) {
+            loaded = true;
+            var cacheFile = getCacheFile();
+            if (cacheFile.exists()) {
+                try {
+                    ObjectMap<String, ImageMetadata> saved = new Json().fromJson(ObjectMap.class, ImageMetadata.class, cacheFile);
+                    if (saved != null) cache.putAll(saved);
+                } catch (Exception e) {
+                    Gdx.app.error(ImageMetadataCache.class.getName(), "Error reading image metadata cache", e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Writes the cache to the app folder so it can be reused the next time Skin Composer is started. Entries for files
+     * that no longer exist are dropped.
+     */
+    public static void save() {
+        synchronized (cache) {
+            if (!loaded) return;
+            
+            var entries = new ObjectMap<String, ImageMetadata>();
+            for (var entry : cache) {
+                if (new FileHandle(entry.key).exists()) entries.put(entry.key, entry.value);
+            }
+            
+            try {
+                new Json().toJson(entries, ObjectMap.class, ImageMetadata.class, getCacheFile());
+            } catch (Exception e) {
+                Gdx.app.error(ImageMetadataCache.class.getName(), "Error writing image metadata cache", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Raymond Buckley.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ray3k.skincomposer.utils;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A JsonWriter that writes pretty printed JSON directly to the underlying writer. The output is identical to writing
+ * with a regular JsonWriter and passing the result through {@link com.badlogic.gdx.utils.Json#prettyPrint(String)},
+ * without holding the document in memory. Only arrays that consist entirely of numbers are buffered, because those
+ * are printed on a single line.
+ */
+public class PrettyJsonWriter extends JsonWriter {
+    private final Writer out;
+    private final Array<Container> stack = new Array<>();
+    private OutputType outputType = OutputType.json;
+    private boolean quoteLongValues;
+    private String name;
+    
+    private static class Container {
+        private boolean array;
+        private int childCount;
+        /**
+         * Numbers of an array that may still be printed on a single line. Null once the array is written on multiple
+         * lines.
+         */
+        private Array<String> numbers;
+    }
+    
+    public PrettyJsonWriter(Writer writer) {
+        super(writer);
+        out = writer;
+    }
+    
+    @Override
+    public void setOutputType(OutputType outputType) {
+        super.setOutputType(outputType);
+        this.outputType = outputType;
+    }
+    
+    @Override
+    public void setQuoteLongValues(boolean quoteLongValues) {
+        super.setQuoteLongValues(quoteLongValues);
+        this.quoteLongValues = quoteLongValues;
+    }
+    
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (stack.size == 0 || stack.peek().array) throw new IllegalStateException("Current item must be an object.");
+        if (this.name != null) throw new IllegalStateException("Expected an object, array, or value since a name was set.");
+        this.name = name;
+        return this;
+    }
+    
+    @Override
+    public JsonWriter object() throws IOException {
+        beginChild();
+        var container = new Container();
+        stack.add(container);
+        return this;
+    }
+    
+    @Override
+    public JsonWriter array() throws IOException {
+        beginChild();
+        var container = new Container();
+        container.array = true;
+        container.numbers = new Array<>();
+        stack.add(container);
+        return this;
+    }
+    
+    @Override
+    public JsonWriter value(Object value) throws IOException {
+        if (quoteLongValues && (value instanceof Long || value instanceof Double || value instanceof BigDecimal || value instanceof BigInteger)) {
+            value = value.toString();
+        } else if (value instanceof Number) {
+            Number number = (Number) value;
+            long longValue = number.longValue();
+            if (number.doubleValue() == longValue) value = longValue;
+        }
+        
+        String text;
+        if (value instanceof Long) {
+            text = value.toString();
+        } else if (value instanceof Number) {
+            //pretty printing parses the number back into a double
+            text = Double.toString(Double.parseDouble(value.toString()));
+        } else {
+            text = outputType.quoteValue(value);
+        }
+        
+        if (stack.size > 0 && stack.peek().numbers != null && value instanceof Number && name == null) {
+            var container = stack.peek();
+            container.numbers.add(text);
+            container.childCount++;
+            return this;
+        }
+        
+        beginChild();
+        out.write(text);
+        return this;
+    }
+    
+    @Override
+    public JsonWriter json(String json) throws IOException {
+        writeValue(new JsonReader().parse(json));
+        return this;
+    }
+    
+    @Override
+    public JsonWriter object(String name) throws IOException {
+        return name(name).object();
+    }
+    
+    @Override
+    public JsonWriter array(String name) throws IOException {
+        return name(name).array();
+    }
+    
+    @Override
+    public JsonWriter set(String name, Object value) throws IOException {
+        return name(name).value(value);
+    }
+    
+    @Override
+    public JsonWriter json(String name, String json) throws IOException {
+        return name(name).json(json);
+    }
+    
+    @Override
+    public JsonWriter pop() throws IOException {
+        if (name != null) throw new IllegalStateException("Expected an object, array, or value since a name was set.");
+        var container = stack.pop();
+        
+        if (container.childCount == 0) {
+            out.write(container.array ? "[]" : "{}");
+        } else if (container.numbers != null) {
+            out.write("[ ");
+            for (int i = 0; i < container.numbers.size; i++) {
+                out.write(container.numbers.get(i));
+                if (i < container.numbers.size - 1) out.write(',');
+                out.write(' ');
+            }
+            out.write(']');
+        } else {
+            out.write('\n');
+            indent(stack.size - 1);
+            out.write(container.array ? ']' : '}');
+        }
+        return this;
+    }
+    
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        out.write(cbuf, off, len);
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        while (stack.size > 0) pop();
+        out.close();
+    }
+    
+    /**
+     * Writes the separator, indentation and name that precede a value in the current container.
+     * @throws IOException
+     */
+    private void beginChild() throws IOException {
+        if (stack.size == 0) return;
+        
+        var container = stack.peek();
+        if (container.array) {
+            if (name != null) throw new IllegalStateException("Name must be followed by a value.");
+        } else if (name == null) {
+            throw new IllegalStateException("Name must be set.");
+        }
+        
+        if (container.numbers != null) {
+            //the array can no longer be printed on a single line, so write the numbers held back so far
+            var numbers = container.numbers;
+            container.numbers = null;
+            out.write("[\n");
+            for (int i = 0; i < numbers.size; i++) {
+                if (i > 0) separate();
+                indent(stack.size - 1);
+                out.write(numbers.get(i));
+            }
+        } else if (container.childCount == 0) {
+            out.write(container.array ? "[\n" : "{\n");
+        }
+        
+        if (container.childCount > 0) separate();
+        container.childCount++;
+        
+        indent(stack.size - 1);
+        if (name != null) {
+            out.write(outputType.quoteName(name));
+            out.write(": ");
+            name = null;
+        }
+    }
+    
+    private void separate() throws IOException {
+        if (outputType != OutputType.minimal) out.write(',');
+        out.write('\n');
+    }
+    
+    private void indent(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            out.write('\t');
+        }
+    }
+    
+    private void writeValue(JsonValue value) throws IOException {
+        if (value.isObject()) {
+            object();
+            for (var child = value.child; child != null; child = child.next) {
+                name(child.name);
+                writeValue(child);
+            }
+            pop();
+        } else if (value.isArray()) {
+            array();
+            for (var child = value.child; child != null; child = child.next) {
+                writeValue(child);
+            }
+            pop();
+        } else if (value.isString()) {
+            value(value.asString());
+        } else if (value.isDouble()) {
+            value(value.asDouble());
+        } else if (value.isLong()) {
+            value(value.asLong());
+        } else if (value.isBoolean()) {
+            value(value.asBoolean());
+        } else {
+            value(null);
+        }
+    }
+}
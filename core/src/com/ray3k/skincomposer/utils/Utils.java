@@ -37,6 +37,7 @@ import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
@@ -44,9 +45,15 @@ import javax.imageio.stream.FileImageInputStream;
 import java.awt.*;
 import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -68,18 +75,18 @@ public class Utils {
      * @return 
      */
     public static Color averageColor(Pixmap pixmap) {
-        Color temp = new Color();
-        float sumR = 0.0f;
-        float sumG = 0.0f;
-        float sumB = 0.0f;
+        PixelReader reader = pixelReader(pixmap);
+        long sumR = 0;
+        long sumG = 0;
+        long sumB = 0;
         int count = 0;
         for (int y = 0; y < pixmap.getHeight(); y++) {
             for (int x = 0; x < pixmap.getWidth(); x++) {
-                temp.set(pixmap.getPixel(x, y));
-                if (temp.a > 0) {
-                    sumR += temp.r;
-                    sumG += temp.g;
-                    sumB += temp.b;
+                int rgba = reader.getPixel(x, y);
+                if ((rgba & 0xff) > 0) {
+                    sumR += rgba >>> 24;
+                    sumG += rgba >>> 16 & 0xff;
+                    sumB += rgba >>> 8 & 0xff;
                     count++;
                 }
             }
@@ -88,7 +95,42 @@ public class Utils {
         if (count == 0) {
             return new Color(Color.BLACK);
         } else {
-            return new Color(sumR / count, sumG / count, sumB / count, 1.0f);
+            return new Color(sumR / 255f / count, sumG / 255f / count, sumB / 255f / count, 1.0f);
+        }
+    }
+    
+    /**
+     * Reads pixels of a pixmap as RGBA8888.
+     */
+    interface PixelReader {
+        int getPixel(int x, int y);
+    }
+    
+    /**
+     * Resolves the format of the pixmap once so that a scan does not check it for every pixel. RGBA8888 and RGB888 are
+     * read straight from the pixel buffer, avoiding a native call per pixel. Other formats use
+     * {@link Pixmap#getPixel(int, int)}.
+     * @param pixmap
+     * @return 
+     */
+    static PixelReader pixelReader(Pixmap pixmap) {
+        ByteBuffer pixels = pixmap.getPixels();
+        int width = pixmap.getWidth();
+        switch (pixmap.getFormat()) {
+            case RGBA8888:
+                return (x, y) -> {
+                    int index = (y * width + x) * 4;
+                    return (pixels.get(index) & 0xff) << 24 | (pixels.get(index + 1) & 0xff) << 16
+                            | (pixels.get(index + 2) & 0xff) << 8 | pixels.get(index + 3) & 0xff;
+                };
+            case RGB888:
+                return (x, y) -> {
+                    int index = (y * width + x) * 3;
+                    return (pixels.get(index) & 0xff) << 24 | (pixels.get(index + 1) & 0xff) << 16
+                            | (pixels.get(index + 2) & 0xff) << 8 | 0xff;
+                };
+            default:
+                return pixmap::getPixel;
         }
     }
     
@@ -109,14 +151,13 @@ public class Utils {
     
     public static Vector2 imageDimensions(FileHandle file) {
         Vector2 vector = new Vector2();
-        Pixmap pixmap = new Pixmap(file);
-        vector.x = pixmap.getWidth();
-        vector.y = pixmap.getHeight();
+        var metadata = ImageMetadataCache.get(file);
+        vector.x = metadata.width;
+        vector.y = metadata.height;
         if (file.name().matches("(?i).*\\.9\\.png$")) {
             vector.x = MathUtils.clamp(vector.x - 2, 0.0f, vector.x);
             vector.y = MathUtils.clamp(vector.y - 2, 0.0f, vector.y);
         }
-        pixmap.dispose();
         return vector;
     }
     
@@ -126,17 +167,37 @@ public class Utils {
      * @return 
      */
     public static Pixmap tintPixmap(Pixmap pixmap, Color color) {
-        Color tempColor = new Color();
-        for (int y = 0; y < pixmap.getHeight(); y++) {
-            for (int x = 0; x < pixmap.getWidth(); x++) {
-                tempColor.set(pixmap.getPixel(x, y));
-                float a = tempColor.a;
-                tempColor.mul(color);
-                tempColor.a = a;
-                pixmap.setColor(tempColor);
-                pixmap.drawPixel(x, y);
-                tempColor.set(pixmap.getPixel(x, y));
-            }
+        int pixelCount = pixmap.getWidth() * pixmap.getHeight();
+        ByteBuffer pixels = pixmap.getPixels();
+        switch (pixmap.getFormat()) {
+            case RGBA8888:
+                for (int index = 0; index < pixelCount * 4; index += 4) {
+                    pixels.put(index, (byte) ((pixels.get(index) & 0xff) * color.r));
+                    pixels.put(index + 1, (byte) ((pixels.get(index + 1) & 0xff) * color.g));
+                    pixels.put(index + 2, (byte) ((pixels.get(index + 2) & 0xff) * color.b));
+                }
+                break;
+            case RGB888:
+                for (int index = 0; index < pixelCount * 3; index += 3) {
+                    pixels.put(index, (byte) ((pixels.get(index) & 0xff) * color.r));
+                    pixels.put(index + 1, (byte) ((pixels.get(index + 1) & 0xff) * color.g));
+                    pixels.put(index + 2, (byte) ((pixels.get(index + 2) & 0xff) * color.b));
+                }
+                break;
+            default:
+                Pixmap.Blending blending = pixmap.getBlending();
+                pixmap.setBlending(Pixmap.Blending.None);
+                for (int y = 0; y < pixmap.getHeight(); y++) {
+                    for (int x = 0; x < pixmap.getWidth(); x++) {
+                        int rgba = pixmap.getPixel(x, y);
+                        int r = (int) ((rgba >>> 24) * color.r);
+                        int g = (int) ((rgba >>> 16 & 0xff) * color.g);
+                        int b = (int) ((rgba >>> 8 & 0xff) * color.b);
+                        pixmap.drawPixel(x, y, r << 24 | g << 16 | b << 8 | rgba & 0xff);
+                    }
+                }
+                pixmap.setBlending(blending);
+                break;
         }
         return pixmap;
     }
@@ -153,20 +214,20 @@ public class Utils {
             border = 1;
         }
         
-        Color temp = new Color();
-        float sumR = 0.0f;
-        float sumG = 0.0f;
-        float sumB = 0.0f;
+        PixelReader reader = pixelReader(pixmap);
+        long sumR = 0;
+        long sumG = 0;
+        long sumB = 0;
         int count = 0;
 
         //left edge
         for (int y = border; y < pixmap.getHeight() - border; y++) {
             for (int x = border; x < pixmap.getWidth() - border; x++) {
-                temp.set(pixmap.getPixel(x, y));
-                if (temp.a > 0) {
-                    sumR += temp.r;
-                    sumG += temp.g;
-                    sumB += temp.b;
+                int rgba = reader.getPixel(x, y);
+                if ((rgba & 0xff) > 0) {
+                    sumR += rgba >>> 24;
+                    sumG += rgba >>> 16 & 0xff;
+                    sumB += rgba >>> 8 & 0xff;
                     count++;
                     break;
                 }
@@ -176,11 +237,11 @@ public class Utils {
         //right edge
         for (int y = border; y < pixmap.getHeight() - border; y++) {
             for (int x = pixmap.getWidth() - 1 - border; x > border; x--) {
-                temp.set(pixmap.getPixel(x, y));
-                if (temp.a > 0) {
-                    sumR += temp.r;
-                    sumG += temp.g;
-                    sumB += temp.b;
+                int rgba = reader.getPixel(x, y);
+                if ((rgba & 0xff) > 0) {
+                    sumR += rgba >>> 24;
+                    sumG += rgba >>> 16 & 0xff;
+                    sumB += rgba >>> 8 & 0xff;
                     count++;
                     break;
                 }
@@ -190,11 +251,11 @@ public class Utils {
         //top edge
         for (int x = border; x < pixmap.getWidth() - border; x++) {
             for (int y = border; y < pixmap.getHeight() - border; y++) {
-                temp.set(pixmap.getPixel(x, y));
-                if (temp.a > 0) {
-                    sumR += temp.r;
-                    sumG += temp.g;
-                    sumB += temp.b;
+                int rgba = reader.getPixel(x, y);
+                if ((rgba & 0xff) > 0) {
+                    sumR += rgba >>> 24;
+                    sumG += rgba >>> 16 & 0xff;
+                    sumB += rgba >>> 8 & 0xff;
                     count++;
                     break;
                 }
@@ -204,11 +265,11 @@ public class Utils {
         //bottom edge
         for (int x = border; x < pixmap.getWidth() - border; x++) {
             for (int y = pixmap.getHeight() - 1 - border; y > border; y--) {
-                temp.set(pixmap.getPixel(x, y));
-                if (temp.a > 0) {
-                    sumR += temp.r;
-                    sumG += temp.g;
-                    sumB += temp.b;
+                int rgba = reader.getPixel(x, y);
+                if ((rgba & 0xff) > 0) {
+                    sumR += rgba >>> 24;
+                    sumG += rgba >>> 16 & 0xff;
+                    sumB += rgba >>> 8 & 0xff;
                     count++;
                     break;
                 }
@@ -218,7 +279,7 @@ public class Utils {
         if (count == 0) {
             return new Color(Color.BLACK);
         } else {
-            return new Color(sumR / count, sumG / count, sumB / count, 1.0f);
+            return new Color(sumR / 255f / count, sumG / 255f / count, sumB / 255f / count, 1.0f);
         }
     }
     
@@ -304,6 +365,45 @@ public class Utils {
         }
     }
     
+    public interface FileWriteTask {
+        /**
+         * Writes the contents of the file to the stream. The stream does not need to be closed.
+         * @param output
+         * @throws IOException
+         */
+        void write(OutputStream output) throws IOException;
+    }
+    
+    /**
+     * Writes a file through a temporary file in the same directory, which only replaces the file once it has been
+     * written and closed without errors. If writing fails, the original file is left untouched and the exception is
+     * thrown.
+     * @param file
+     * @param task
+     */
+    public static void writeFileSafely(FileHandle file, FileWriteTask task) {
+        var target = file.file().getAbsoluteFile();
+        File temp = null;
+        try {
+            target.getParentFile().mkdirs();
+            temp = File.createTempFile(target.getName() + ".", ".tmp", target.getParentFile());
+            try (var output = new BufferedOutputStream(new FileOutputStream(temp))) {
+                task.write(output);
+            }
+            
+            try {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error writing file: " + file, e);
+        } finally {
+            //only remains if writing or moving failed
+            if (temp != null) temp.delete();
+        }
+    }
+    
     /**
      * Size of the buffer to read/write data
      */
@@ -364,12 +464,8 @@ public class Utils {
         var returnValue = new Pixmap(textureRegion.getRegionWidth(), textureRegion.getRegionHeight(), Pixmap.Format.RGBA8888);
         returnValue.setBlending(Pixmap.Blending.None);
         
-        for (int x = 0; x < textureRegion.getRegionWidth(); x++) {
-            for (int y = 0; y < textureRegion.getRegionHeight(); y++) {
-                int colorInt = pixmap.getPixel(textureRegion.getRegionX() + x, textureRegion.getRegionY() + y);
-                returnValue.drawPixel(x, y, colorInt);
-            }
-        }
+        returnValue.drawPixmap(pixmap, textureRegion.getRegionX(), textureRegion.getRegionY(), textureRegion.getRegionWidth(), textureRegion.getRegionHeight(),
+                0, 0, textureRegion.getRegionWidth(), textureRegion.getRegionHeight());
         
         pixmap.dispose();
         
@@ -452,18 +548,14 @@ public class Utils {
     
     public static PatchDefinition calculatePatches(Pixmap pixmap) {
         var patchDefinition = new PatchDefinition();
+        var reader = pixelReader(pixmap);
     
         var startX = pixmap.getWidth() / 2;
-        var color = new Color();
-        var colorPrevious = new Color();
         var foundBreak = false;
     
         for (var x = startX - 1; x >= 0 && !foundBreak; x--) {
             for (var y = 0; y < pixmap.getHeight(); y++) {
-                color.set(pixmap.getPixel(x, y));
-                colorPrevious.set(pixmap.getPixel(x + 1, y));
-            
-                if (!color.equals(colorPrevious)) {
+                if (reader.getPixel(x, y) != reader.getPixel(x + 1, y)) {
                     patchDefinition.left = x + 1;
                     foundBreak = true;
                     break;
@@ -477,10 +569,7 @@ public class Utils {
         foundBreak = false;
         for (var x = startX + 1; x < pixmap.getWidth() && !foundBreak; x++) {
             for (var y = 0; y < pixmap.getHeight(); y++) {
-                color.set(pixmap.getPixel(x, y));
-                colorPrevious.set(pixmap.getPixel(x - 1, y));
-            
-                if (!color.equals(colorPrevious)) {
+                if (reader.getPixel(x, y) != reader.getPixel(x - 1, y)) {
                     patchDefinition.right = pixmap.getWidth() - x;
                     foundBreak = true;
                     break;
@@ -495,10 +584,7 @@ public class Utils {
         foundBreak = false;
         for (var y = startY - 1; y >= 0 && !foundBreak; y--) {
             for (var x = 0; x < pixmap.getWidth(); x++) {
-                color.set(pixmap.getPixel(x, y));
-                colorPrevious.set(pixmap.getPixel(x, y + 1));
-            
-                if (!color.equals(colorPrevious)) {
+                if (reader.getPixel(x, y) != reader.getPixel(x, y + 1)) {
                     patchDefinition.top = y + 1;
                     foundBreak = true;
                     break;
@@ -512,10 +598,7 @@ public class Utils {
         foundBreak = false;
         for (var y = startY + 1; y < pixmap.getHeight() && !foundBreak; y++) {
             for (var x = 0; x < pixmap.getWidth(); x++) {
-                color.set(pixmap.getPixel(x, y));
-                colorPrevious.set(pixmap.getPixel(x, y - 1));
-            
-                if (!color.equals(colorPrevious)) {
+                if (reader.getPixel(x, y) != reader.getPixel(x, y - 1)) {
                     patchDefinition.bottom = pixmap.getHeight() - y;
                     foundBreak = true;
                     break;
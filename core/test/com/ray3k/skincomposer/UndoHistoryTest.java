@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UndoHistoryTest {
+    private static final int MAX_UNDOS = 30;
+    private static final long BUDGET = 64 * 1024;
+    private UndoHistory history;
+    private double value;
+    
+    /**
+     * Sets {@link #value} like a spinner edit of a style property.
+     */
+    private class ValueUndoable implements Undoable {
+        private final Object property;
+        private final double oldValue;
+        private double newValue;
+        private final long memory;
+        
+        private ValueUndoable(Object property, double newValue, long memory) {
+            this.property = property;
+            this.oldValue = value;
+            this.newValue = newValue;
+            this.memory = memory;
+        }
+        
+        private ValueUndoable(Object property, double newValue) {
+            this(property, newValue, DEFAULT_MEMORY_ESTIMATE);
+        }
+        
+        @Override
+        public void undo() {
+            value = oldValue;
+        }
+        
+        @Override
+        public void redo() {
+            value = newValue;
+        }
+        
+        @Override
+        public String getUndoText() {
+            return "Change Value";
+        }
+        
+        @Override
+        public boolean merge(Undoable undoable) {
+            if (undoable instanceof ValueUndoable && ((ValueUndoable) undoable).property == property) {
+                newValue = ((ValueUndoable) undoable).newValue;
+                return true;
+            }
+            return false;
+        }
+        
+        @Override
+        public long estimateMemory() {
+            return memory;
+        }
+    }
+    
+    @Before
+    public void setUp() {
+        history = new UndoHistory();
+        value = 0;
+    }
+    
+    private void add(ValueUndoable undoable, long time) {
+        if (!history.add(undoable, time, MAX_UNDOS, BUDGET)) assertSame(undoable, history.getUndoable());
+        undoable.redo();
+    }
+    
+    @Test
+    public void mergesRapidChangesToTheSameProperty() {
+        var property = new Object();
+        add(new ValueUndoable(property, 1), 1000);
+        add(new ValueUndoable(property, 2), 1000 + UndoableManager.MERGE_TIME / 2);
+        add(new ValueUndoable(property, 3), 1000 + UndoableManager.MERGE_TIME);
+        
+        assertEquals(1, history.size());
+        assertEquals(3, value, 0);
+        history.undo();
+        assertEquals(0, value, 0);
+        history.redo();
+        assertEquals(3, value, 0);
+    }
+    
+    @Test
+    public void doesNotMergeSlowChanges() {
+        var property = new Object();
+        add(new ValueUndoable(property, 1), 1000);
+        add(new ValueUndoable(property, 2), 1000 + UndoableManager.MERGE_TIME + 1);
+        
+        assertEquals(2, history.size());
+        history.undo();
+        assertEquals(1, value, 0);
+    }
+    
+    @Test
+    public void doesNotMergeDifferentProperties() {
+        add(new ValueUndoable(new Object(), 1), 1000);
+        add(new ValueUndoable(new Object(), 2), 1000);
+        
+        assertEquals(2, history.size());
+    }
+    
+    @Test
+    public void doesNotMergeAfterUndo() {
+        var property = new Object();
+        add(new ValueUndoable(property, 1), 1000);
+        add(new ValueUndoable(new Object(), 2), 1000);
+        history.undo();
+        history.undo();
+        history.redo();
+        add(new ValueUndoable(property, 3), 1000);
+        
+        assertEquals(2, history.size());
+        assertNull(history.getRedoable());
+        history.undo();
+        assertEquals(1, value, 0);
+    }
+    
+    @Test
+    public void addingDiscardsRedoables() {
+        add(new ValueUndoable(new Object(), 1), 1000);
+        add(new ValueUndoable(new Object(), 2), 2000);
+        history.undo();
+        assertNotNull(history.getRedoable());
+        add(new ValueUndoable(new Object(), 3), 3000);
+        
+        assertEquals(2, history.size());
+        assertNull(history.getRedoable());
+        assertNull(history.redo());
+    }
+    
+    @Test
+    public void trimsToMaxUndos() {
+        for (int i = 1; i <= MAX_UNDOS + 5; i++) {
+            add(new ValueUndoable(new Object(), i), i * 1000L);
+        }
+        
+        assertEquals(MAX_UNDOS, history.size());
+        while (history.undo() != null);
+        assertEquals(5, value, 0);
+    }
+    
+    @Test
+    public void trimsOldestUndoablesOverMemoryBudget() {
+        for (int i = 1; i <= 10; i++) {
+            add(new ValueUndoable(new Object(), i, BUDGET / 4), i * 1000L);
+        }
+        
+        assertEquals(4, history.size());
+        while (history.undo() != null);
+        assertEquals(6, value, 0);
+    }
+    
+    @Test
+    public void keepsLatestUndoableOverMemoryBudget() {
+        add(new ValueUndoable(new Object(), 1), 1000);
+        add(new ValueUndoable(new Object(), 2, BUDGET * 2), 2000);
+        
+        assertEquals(1, history.size());
+        history.undo();
+        assertEquals(1, value, 0);
+        assertNull(history.getUndoable());
+    }
+    
+    @Test
+    public void typicalEditsAreNotTrimmedByDefaultBudget() {
+        for (int i = 1; i <= MAX_UNDOS; i++) {
+            add(new ValueUndoable(new Object(), i), i * 1000L);
+        }
+        
+        assertEquals(MAX_UNDOS, history.size());
+    }
+}
@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.utils.Array;
+import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.data.DrawableData.DrawableType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class AtlasDataTest {
+    private static final String[] NAMES = {"a", "b", "c", "d"};
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    /**
+     * Replaces one image after a full pack so that the next pack is incremental, then checks that every region has the
+     * same size and pixels as a full pack of the same images.
+     * @throws Throwable
+     */
+    @Test
+    public void incrementalPackMatchesFullPack() throws Throwable {
+        runHeadless(() -> {
+            var root = new FileHandle(folder.getRoot());
+            var settingsFile = root.child("settings.json");
+            settingsFile.writeString("{maxWidth: 256, maxHeight: 256, paddingX: 2, paddingY: 2, duplicatePadding: true}", false);
+            
+            var files = writeImages(root);
+            
+            var incremental = createAtlasData(files);
+            incremental.writeAtlas(settingsFile);
+            assertEquals(NAMES.length, incremental.getPackedRegionCount());
+            
+            writeImage(files[1], 20, 12, 10);
+            files[1].file().setLastModified(files[1].lastModified() + 2000);
+            incremental.writeAtlas(settingsFile);
+            //the replaced region stays on the page until a full pack
+            assertEquals(NAMES.length + 1, incremental.getPackedRegionCount());
+            
+            var full = createAtlasData(files);
+            full.writeAtlas(settingsFile);
+            assertEquals(NAMES.length, full.getPackedRegionCount());
+            
+            for (int i = 0; i < NAMES.length; i++) {
+                var expected = new Pixmap(files[i]);
+                try {
+                    assertRegion(expected, incremental.getAtlas(), NAMES[i]);
+                    assertRegion(expected, full.getAtlas(), NAMES[i]);
+                } finally {
+                    expected.dispose();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Packing again without changing any image keeps every region in place.
+     * @throws Throwable
+     */
+    @Test
+    public void unchangedImagesAreNotRepacked() throws Throwable {
+        runHeadless(() -> {
+            var root = new FileHandle(folder.getRoot());
+            var settingsFile = root.child("settings.json");
+            settingsFile.writeString("{maxWidth: 256, maxHeight: 256, paddingX: 2, paddingY: 2}", false);
+            var files = writeImages(root);
+            
+            var atlasData = createAtlasData(files);
+            atlasData.writeAtlas(settingsFile);
+            var regions = new Array<>(atlasData.getAtlas().getRegions());
+            
+            atlasData.writeAtlas(settingsFile);
+            assertEquals(NAMES.length, atlasData.getPackedRegionCount());
+            assertEquals(regions.size, atlasData.getAtlas().getRegions().size);
+            for (int i = 0; i < regions.size; i++) {
+                assertSame(regions.get(i), atlasData.getAtlas().getRegions().get(i));
+            }
+        });
+    }
+    
+    /**
+     * Replaced images are inserted incrementally until the stale regions they leave behind pass
+     * {@link AtlasData#FRAGMENTATION_THRESHOLD}, which forces a full pack.
+     * @throws Throwable
+     */
+    @Test
+    public void fullPackOnceStaleRegionsPassThreshold() throws Throwable {
+        runHeadless(() -> {
+            var root = new FileHandle(folder.getRoot());
+            var settingsFile = root.child("settings.json");
+            settingsFile.writeString("{maxWidth: 256, maxHeight: 256, paddingX: 2, paddingY: 2}", false);
+            var files = writeImages(root);
+            
+            var atlasData = createAtlasData(files);
+            atlasData.writeAtlas(settingsFile);
+            
+            //one stale region out of five is under the threshold
+            replaceImage(files[0], 10);
+            atlasData.writeAtlas(settingsFile);
+            assertEquals(NAMES.length + 1, atlasData.getPackedRegionCount());
+            
+            //two stale regions out of six are over it
+            replaceImage(files[1], 11);
+            atlasData.writeAtlas(settingsFile);
+            assertEquals(NAMES.length, atlasData.getPackedRegionCount());
+            assertEquals(NAMES.length, atlasData.getAtlas().getRegions().size);
+        });
+    }
+    
+    private static FileHandle[] writeImages(FileHandle root) {
+        var files = new FileHandle[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++) {
+            files[i] = root.child(NAMES[i] + ".png");
+            writeImage(files[i], 8 + i * 4, 6 + i * 2, i);
+        }
+        return files;
+    }
+    
+    /**
+     * Writes a new image and moves its modification time forward so that its fingerprint changes even on file systems
+     * with a coarse timestamp resolution.
+     * @param file
+     * @param seed
+     */
+    private static void replaceImage(FileHandle file, int seed) {
+        long lastModified = file.lastModified();
+        writeImage(file, 12, 10, seed);
+        file.file().setLastModified(lastModified + 2000);
+    }
+    
+    private static AtlasData createAtlasData(FileHandle[] files) {
+        var atlasData = new AtlasData();
+        for (var file : files) {
+            var drawable = new DrawableData(file);
+            drawable.type = DrawableType.TEXTURE;
+            atlasData.getDrawables().add(drawable);
+        }
+        return atlasData;
+    }
+    
+    /**
+     * Writes an image with a distinct color for every pixel.
+     * @param file
+     * @param width
+     * @param height
+     * @param seed
+     */
+    private static void writeImage(FileHandle file, int width, int height, int seed) {
+        var pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                pixmap.drawPixel(x, y, Color.rgba8888((x * 8 % 256) / 255f, (y * 8 % 256) / 255f, (seed * 20 % 256) / 255f, 1));
+            }
+        }
+        PixmapIO.writePNG(file, pixmap);
+        pixmap.dispose();
+    }
+    
+    private static void assertRegion(Pixmap expected, TextureAtlas atlas, String name) {
+        int count = 0;
+        AtlasRegion region = null;
+        for (var atlasRegion : atlas.getRegions()) {
+            if (atlasRegion.name.equals(name)) {
+                region = atlasRegion;
+                count++;
+            }
+        }
+        assertEquals("regions named " + name, 1, count);
+        assertEquals(expected.getWidth(), region.getRegionWidth());
+        assertEquals(expected.getHeight(), region.getRegionHeight());
+        
+        //the pages of the preview atlas keep their pixmaps
+        var data = region.getTexture().getTextureData();
+        if (!data.isPrepared()) data.prepare();
+        var page = data.consumePixmap();
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(name + " at " + x + ", " + y, expected.getPixel(x, y), page.getPixel(region.getRegionX() + x, region.getRegionY() + y));
+            }
+        }
+    }
+    
+    private interface HeadlessTask {
+        void run() throws Throwable;
+    }
+    
+    /**
+     * Runs the task on the thread of a headless application so that textures can be created.
+     * @param task
+     * @throws Throwable
+     */
+    private void runHeadless(HeadlessTask task) throws Throwable {
+        var finished = new CountDownLatch(1);
+        var error = new AtomicReference<Throwable>();
+        var config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = -1;
+        //preferences are stored relative to the user's home folder, so point them at the temporary folder
+        var home = Paths.get(System.getProperty("user.home"));
+        config.preferencesDirectory = home.relativize(folder.newFolder("prefs").toPath()) + "/";
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try {
+                    Main.appFolder = new FileHandle(folder.getRoot()).child(".skincomposer/");
+                    Main.projectData = new ProjectData();
+                    task.run();
+                } catch (Throwable e) {
+                    error.set(e);
+                } finally {
+                    Gdx.app.exit();
+                    finished.countDown();
+                }
+            }
+        }, config);
+        finished.await();
+        
+        if (error.get() != null) throw error.get();
+    }
+}
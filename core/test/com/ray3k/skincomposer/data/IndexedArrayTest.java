@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IndexedArrayTest {
+    private static IndexedArray<DrawableData> createDrawables(int count) {
+        var drawables = new IndexedArray<DrawableData>(drawable -> drawable.name);
+        for (int i = 0; i < count; i++) {
+            var drawable = new DrawableData();
+            drawable.name = "drawable-" + i;
+            drawables.add(drawable);
+        }
+        return drawables;
+    }
+    
+    /**
+     * The lookup that IndexedArray replaced.
+     * @param drawables
+     * @param name
+     * @return
+     */
+    private static DrawableData linearSearch(Array<DrawableData> drawables, String name) {
+        for (var drawable : drawables) {
+            if (drawable.name.equals(name)) return drawable;
+        }
+        return null;
+    }
+    
+    @Test
+    public void findsRenamedDrawableAfterInvalidate() {
+        var drawables = createDrawables(10);
+        var drawable = drawables.get("drawable-3");
+        drawable.name = "renamed";
+        drawables.invalidate();
+        
+        assertSame(drawable, drawables.get("renamed"));
+        assertNull(drawables.get("drawable-3"));
+    }
+    
+    @Test
+    public void neverReturnsStaleName() {
+        var drawables = createDrawables(10);
+        var drawable = drawables.get("drawable-3");
+        drawable.name = "renamed";
+        
+        assertNull(drawables.get("drawable-3"));
+    }
+    
+    @Test
+    public void returnsFirstOfDuplicateNames() {
+        var drawables = createDrawables(3);
+        var duplicate = new DrawableData();
+        duplicate.name = "drawable-1";
+        drawables.add(duplicate);
+        
+        assertSame(linearSearch(drawables, "drawable-1"), drawables.get("drawable-1"));
+        drawables.removeIndex(1);
+        assertSame(duplicate, drawables.get("drawable-1"));
+    }
+    
+    @Test
+    public void matchesLinearSearchAfterStructuralChanges() {
+        var drawables = createDrawables(50);
+        drawables.removeRange(10, 19);
+        drawables.reverse();
+        drawables.insert(5, drawables.pop());
+        drawables.swap(0, 20);
+        
+        for (int i = 0; i < 60; i++) {
+            var name = "drawable-" + i;
+            assertSame(name, linearSearch(drawables, name), drawables.get(name));
+        }
+    }
+    
+    @Test
+    public void findsNewNameAfterRenameWithoutInvalidate() {
+        var drawables = createDrawables(10);
+        var drawable = drawables.get("drawable-3");
+        drawable.name = "renamed";
+        
+        assertSame(drawable, drawables.get("renamed"));
+        assertNull(drawables.get("drawable-3"));
+    }
+    
+    @Test
+    public void findsDuplicateAfterFirstIsRenamedWithoutInvalidate() {
+        var drawables = createDrawables(3);
+        var duplicate = new DrawableData();
+        duplicate.name = "drawable-1";
+        drawables.add(duplicate);
+        
+        var first = drawables.get("drawable-1");
+        first.name = "renamed";
+        
+        assertSame(duplicate, drawables.get("drawable-1"));
+        assertSame(first, drawables.get("renamed"));
+    }
+    
+    @Test
+    public void matchesLinearSearchWhileRenaming() {
+        var drawables = createDrawables(100);
+        for (int i = 0; i < 100; i += 7) {
+            drawables.get(i).name = "renamed-" + i;
+            
+            for (int j = 0; j < 110; j++) {
+                var name = "drawable-" + j;
+                assertSame(name, linearSearch(drawables, name), drawables.get(name));
+                name = "renamed-" + j;
+                assertSame(name, linearSearch(drawables, name), drawables.get(name));
+            }
+        }
+    }
+}
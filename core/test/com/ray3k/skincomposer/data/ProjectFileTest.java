@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.data;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonWriter.OutputType;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.data.DrawableData.DrawableType;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimRootGroup;
+import com.ray3k.skincomposer.utils.PrettyJsonWriter;
+import com.ray3k.skincomposer.utils.Utils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class ProjectFileTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    public static class Entry {
+        public String name;
+        public String text;
+        public float scale;
+        public int count;
+        public boolean enabled;
+        public String missing;
+    }
+    
+    public static class Project {
+        public String version = "1.50";
+        public Array<Entry> entries = new Array<>();
+        public ObjectMap<String, Float> values = new ObjectMap<>();
+        public Entry settings;
+    }
+    
+    private static Json createJson() {
+        var json = new Json(OutputType.minimal);
+        json.setIgnoreUnknownFields(true);
+        json.setUsePrototypes(false);
+        return json;
+    }
+    
+    private static Project createProject(int count) {
+        var project = new Project();
+        for (int i = 0; i < count; i++) {
+            var entry = new Entry();
+            entry.name = i % 2 == 0 ? "1.50" : "entry-" + i;
+            entry.text = i % 3 == 0 ? "007" : "text " + i;
+            entry.scale = i / 10f;
+            entry.count = i;
+            entry.enabled = i % 2 == 0;
+            project.entries.add(entry);
+            project.values.put("value" + i, i * 1.1f);
+        }
+        project.settings = project.entries.size > 0 ? project.entries.first() : new Entry();
+        return project;
+    }
+    
+    private static void writeText(FileHandle file, Json json, Object project) {
+        Utils.writeFileSafely(file, output -> {
+            var jsonWriter = new PrettyJsonWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+            json.setWriter(jsonWriter);
+            json.writeValue(project);
+            jsonWriter.close();
+        });
+    }
+    
+    private static Project readBinary(FileHandle file, Json json) {
+        return json.readValue(Project.class, ProjectFile.read(file).toJson());
+    }
+    
+    private static void assertSameProject(Project expected, Project actual) {
+        assertEquals(expected.version, actual.version);
+        assertEquals(expected.entries.size, actual.entries.size);
+        for (int i = 0; i < expected.entries.size; i++) {
+            var expectedEntry = expected.entries.get(i);
+            var actualEntry = actual.entries.get(i);
+            assertEquals(expectedEntry.name, actualEntry.name);
+            assertEquals(expectedEntry.text, actualEntry.text);
+            assertEquals(expectedEntry.scale, actualEntry.scale, 0);
+            assertEquals(expectedEntry.count, actualEntry.count);
+            assertEquals(expectedEntry.enabled, actualEntry.enabled);
+            assertEquals(expectedEntry.missing, actualEntry.missing);
+        }
+        assertEquals(expected.values, actual.values);
+        assertEquals(expected.settings.name, actual.settings.name);
+    }
+    
+    @Test
+    public void keepsNumericLookingStrings() {
+        var json = createJson();
+        var project = createProject(4);
+        var file = new FileHandle(folder.getRoot()).child("project.scmp");
+        ProjectFile.write(file, json, project);
+        
+        assertTrue(ProjectFile.isBinary(file));
+        var loaded = readBinary(file, json);
+        assertEquals("1.50", loaded.version);
+        assertEquals("1.50", loaded.entries.get(0).name);
+        assertEquals("007", loaded.entries.get(0).text);
+        assertSameProject(project, loaded);
+    }
+    
+    @Test
+    public void matchesTextFormat() {
+        var json = createJson();
+        var project = createProject(100);
+        var root = new FileHandle(folder.getRoot());
+        var textFile = root.child("text.scmp");
+        var binaryFile = root.child("binary.scmp");
+        writeText(textFile, json, project);
+        ProjectFile.write(binaryFile, json, project);
+        
+        var fromText = json.fromJson(Project.class, textFile);
+        assertSameProject(fromText, readBinary(binaryFile, json));
+        assertSameProject(project, fromText);
+    }
+    
+    @Test
+    public void loadsSingleSection() {
+        var json = createJson();
+        var file = new FileHandle(folder.getRoot()).child("project.scmp");
+        ProjectFile.write(file, json, createProject(10));
+        
+        var projectFile = ProjectFile.read(file);
+        assertTrue(projectFile.hasSection("entries"));
+        assertFalse(projectFile.hasSection("missing"));
+        assertEquals("1.50", projectFile.getSection("version").asString());
+        assertEquals(10, projectFile.getSection("entries").size);
+        assertNull(projectFile.toJson("entries").get("entries"));
+    }
+    
+    /**
+     * Saves a project in the text and binary formats through ProjectData and checks that both load back into a project
+     * that exports the same skin and scene composer settings.
+     * @throws Throwable
+     */
+    @Test
+    public void roundTripsProjectDataInBothFormats() throws Throwable {
+        runHeadless(() -> {
+            var root = new FileHandle(folder.getRoot());
+            var projectData = createProjectData();
+            var jsonData = projectData.getJsonData();
+            jsonData.getColors().add(new ColorData("red", new Color(1, 0, 0, 1)));
+            jsonData.getColors().add(new ColorData("shade", new Color(.25f, .5f, .75f, .5f)));
+            
+            var pixel = new DrawableData("button-pixel");
+            pixel.type = DrawableType.PIXEL;
+            pixel.tintName = "shade";
+            projectData.getAtlasData().getDrawables().add(pixel);
+            
+            var label = jsonData.newStyle(Label.class, "title");
+            label.properties.get("fontColor").setValue("red");
+            var textButton = jsonData.newStyle(TextButton.class, "1.50");
+            textButton.properties.get("up").setValue("button-pixel");
+            textButton.properties.get("pressedOffsetX").setValue(2.5);
+            
+            DialogSceneComposerModel.rootActor = new SimRootGroup();
+            DialogSceneComposerModel.rootActor.skinPath = "007.json";
+            
+            var expected = root.child("expected.json");
+            jsonData.writeFile(expected);
+            
+            for (var binary : new boolean[] {false, true}) {
+                var projectFile = root.child(binary ? "binary.scmp" : "text.scmp");
+                projectData.setBinaryProjectFormat(binary);
+                projectData.save(projectFile);
+                assertEquals(binary, ProjectFile.isBinary(projectFile));
+                
+                var loaded = createProjectData();
+                loaded.load(projectFile);
+                loaded.loadSceneComposer();
+                var actual = root.child(binary ? "binary.json" : "text.json");
+                loaded.getJsonData().writeFile(actual);
+                assertEquals(expected.readString(), actual.readString());
+                assertEquals("007.json", DialogSceneComposerModel.rootActor.skinPath);
+                
+                projectData = createProjectData();
+                projectData.load(projectFile);
+            }
+        });
+    }
+    
+    @Test
+    public void rejectsSectionAfterFileChanges() {
+        var json = createJson();
+        var file = new FileHandle(folder.getRoot()).child("project.scmp");
+        ProjectFile.write(file, json, createProject(10));
+        
+        var projectFile = ProjectFile.read(file);
+        ProjectFile.write(file, json, createProject(20));
+        try {
+            projectFile.getSection("entries");
+            fail("A section was read from a file that changed after its table of contents was read.");
+        } catch (GdxRuntimeException e) {
+            //expected
+        }
+    }
+    
+    /**
+     * Creates a project and makes it the current one, the way the application does when it starts.
+     * @return
+     */
+    private static ProjectData createProjectData() {
+        //ProjectData packs the atlas when it is cleared if an atlas is already current
+        Main.atlasData = null;
+        Main.projectData = new ProjectData();
+        Main.atlasData = Main.projectData.getAtlasData();
+        Main.jsonData = Main.projectData.getJsonData();
+        return Main.projectData;
+    }
+    
+    private interface HeadlessTask {
+        void run() throws Throwable;
+    }
+    
+    /**
+     * Runs the task on the thread of a headless application with its preferences and app folder in the temporary folder.
+     * @param task
+     * @throws Throwable
+     */
+    private void runHeadless(HeadlessTask task) throws Throwable {
+        var finished = new CountDownLatch(1);
+        var error = new AtomicReference<Throwable>();
+        var config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = -1;
+        //preferences are stored relative to the user's home folder, so point them at the temporary folder
+        var home = Paths.get(System.getProperty("user.home"));
+        config.preferencesDirectory = home.relativize(folder.newFolder("prefs").toPath()) + "/";
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try {
+                    Main.appFolder = new FileHandle(folder.getRoot()).child(".skincomposer/");
+                    task.run();
+                } catch (Throwable e) {
+                    error.set(e);
+                } finally {
+                    Main.atlasData = null;
+                    Main.projectData = null;
+                    Main.jsonData = null;
+                    DialogSceneComposerModel.rootActor = null;
+                    Gdx.app.exit();
+                    finished.countDown();
+                }
+            }
+        }, config);
+        finished.await();
+        
+        if (error.get() != null) throw error.get();
+    }
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.JsonReader;
+import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.data.DrawableData;
+import com.ray3k.skincomposer.data.DrawableData.DrawableType;
+import com.ray3k.skincomposer.data.ProjectData;
+import com.ray3k.skincomposer.dialog.DialogTenPatch.TenPatchData;
+import com.ray3k.tenpatch.TenPatchDrawable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class HeadlessExporterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    /**
+     * A TenPatch without stretch areas is exported with the size of its image, which has to be read without the preview
+     * atlas because it is never built in headless mode.
+     * @throws Exception
+     */
+    @Test
+    public void exportsTenPatchWithoutStretchAreas() throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        var root = new FileHandle(folder.getRoot());
+        var image = root.child("panel.png");
+        ImageIO.write(new BufferedImage(8, 6, BufferedImage.TYPE_INT_ARGB), "png", image.file());
+        var projectFile = root.child("tenpatch.scmp");
+        createProject(projectFile, image);
+        
+        var output = root.child("export");
+        var args = new String[] {"-export", "-out", output.path(), projectFile.path()};
+        int status = HeadlessExporter.export(args, root.child(".skincomposer/"), preferencesDirectory());
+        assertEquals(0, status);
+        
+        var skin = new JsonReader().parse(output.child("tenpatch.json"));
+        var tenPatch = skin.get(TenPatchDrawable.class.getName()).get("panel");
+        assertArrayEquals(new int[] {0, 7}, tenPatch.get("horizontalStretchAreas").asIntArray());
+        assertArrayEquals(new int[] {0, 5}, tenPatch.get("verticalStretchAreas").asIntArray());
+        assertTrue(output.child("tenpatch.atlas").exists());
+    }
+    
+    /**
+     * Saves a project with a single TenPatch drawable that has no stretch areas.
+     * @param projectFile
+     * @param image
+     * @throws Exception
+     */
+    private void createProject(FileHandle projectFile, FileHandle image) throws Exception {
+        var finished = new CountDownLatch(1);
+        var error = new AtomicReference<Throwable>();
+        var config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = -1;
+        config.preferencesDirectory = preferencesDirectory();
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try {
+                    Main.appFolder = new FileHandle(folder.getRoot()).child(".skincomposer/");
+                    Main.projectData = new ProjectData();
+                    
+                    var drawable = new DrawableData();
+                    drawable.file = image;
+                    drawable.name = DrawableData.proper(image.name());
+                    drawable.bgColor = Color.WHITE;
+                    drawable.type = DrawableType.TENPATCH;
+                    drawable.tenPatchData = new TenPatchData();
+                    Main.projectData.getAtlasData().getDrawables().add(drawable);
+                    Main.projectData.save(projectFile);
+                } catch (Throwable e) {
+                    error.set(e);
+                } finally {
+                    Gdx.app.exit();
+                    finished.countDown();
+                }
+            }
+        }, config);
+        finished.await();
+        
+        if (error.get() != null) throw new IOException("Unable to create the test project.", error.get());
+    }
+    
+    /**
+     * Preferences are stored relative to the user's home folder, so this points them at the temporary folder.
+     * @return
+     */
+    private String preferencesDirectory() {
+        var prefs = new File(folder.getRoot(), "prefs");
+        prefs.mkdirs();
+        return Paths.get(System.getProperty("user.home")).relativize(prefs.toPath()) + "/";
+    }
+}
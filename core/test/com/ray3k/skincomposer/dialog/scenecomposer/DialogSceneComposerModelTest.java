@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.dialog.scenecomposer;
+
+import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.data.JsonData;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimActor;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimCell;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimLabel;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimRootGroup;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimTable;
+import com.ray3k.skincomposer.dialog.scenecomposer.undoables.SceneComposerUndoable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.MERGE_TIME;
+import static org.junit.Assert.*;
+
+public class DialogSceneComposerModelTest {
+    private static final long BUDGET = 1024 * 1024;
+    private DialogSceneComposerModel model;
+    private SimRootGroup root;
+    private SimLabel label;
+    private SimLabel otherLabel;
+    
+    private static class TextUndoable implements SceneComposerUndoable {
+        private final SimLabel label;
+        private final String text;
+        private final String previousText;
+        
+        public TextUndoable(SimLabel label, String text) {
+            this.label = label;
+            this.text = text;
+            previousText = label.text;
+        }
+        
+        @Override
+        public void undo() {
+            label.text = previousText;
+        }
+        
+        @Override
+        public void redo() {
+            label.text = text;
+        }
+        
+        @Override
+        public String getRedoString() {
+            return "Redo \"Label text " + text + "\"";
+        }
+        
+        @Override
+        public String getUndoString() {
+            return "Undo \"Label text " + text + "\"";
+        }
+    }
+    
+    private static class NameUndoable implements SceneComposerUndoable {
+        private final SimLabel label;
+        private final String name;
+        private final String previousName;
+        
+        public NameUndoable(SimLabel label, String name) {
+            this.label = label;
+            this.name = name;
+            previousName = label.name;
+        }
+        
+        @Override
+        public void undo() {
+            label.name = previousName;
+        }
+        
+        @Override
+        public void redo() {
+            label.name = name;
+        }
+        
+        @Override
+        public String getRedoString() {
+            return "Redo \"Label name " + name + "\"";
+        }
+        
+        @Override
+        public String getUndoString() {
+            return "Undo \"Label name " + name + "\"";
+        }
+    }
+    
+    private static class DeleteUndoable implements SceneComposerUndoable {
+        private final SimActor actor;
+        private final SimRootGroup parent;
+        
+        public DeleteUndoable(SimActor actor) {
+            this.actor = actor;
+            parent = (SimRootGroup) actor.parent;
+        }
+        
+        @Override
+        public void undo() {
+            parent.addChild(actor);
+        }
+        
+        @Override
+        public void redo() {
+            parent.removeChild(actor);
+        }
+        
+        @Override
+        public String getRedoString() {
+            return "Redo \"Delete Actor\"";
+        }
+        
+        @Override
+        public String getUndoString() {
+            return "Undo \"Delete Actor\"";
+        }
+    }
+    
+    @Before
+    public void setUp() {
+        //new labels look up their default style
+        Main.jsonData = new JsonData();
+        model = new DialogSceneComposerModel();
+        root = new SimRootGroup();
+        DialogSceneComposerModel.rootActor = root;
+        label = addLabel();
+        otherLabel = addLabel();
+    }
+    
+    @After
+    public void tearDown() {
+        DialogSceneComposerModel.rootActor = null;
+        Main.jsonData = null;
+    }
+    
+    private SimLabel addLabel() {
+        var simLabel = new SimLabel();
+        simLabel.parent = root;
+        root.children.add(simLabel);
+        return simLabel;
+    }
+    
+    private SimTable createTable(int labels) {
+        var table = new SimTable();
+        table.parent = root;
+        for (int i = 0; i < labels; i++) {
+            var cell = new SimCell();
+            cell.parent = table;
+            cell.column = i;
+            var simLabel = new SimLabel();
+            simLabel.parent = cell;
+            simLabel.text = "Label " + i;
+            cell.child = simLabel;
+            table.cells.add(cell);
+        }
+        return table;
+    }
+    
+    @Test
+    public void mergesEditsOfSamePropertyWithinMergeTime() {
+        var original = label.text;
+        model.addUndoable(new TextUndoable(label, "a"), true, label, 0, BUDGET);
+        model.addUndoable(new TextUndoable(label, "ab"), true, label, MERGE_TIME / 2, BUDGET);
+        model.addUndoable(new TextUndoable(label, "abc"), true, label, MERGE_TIME, BUDGET);
+        
+        assertEquals(1, model.undoables.size);
+        assertEquals("abc", label.text);
+        assertEquals("Undo \"Label text abc\"", model.undoables.peek().getUndoString());
+        
+        model.undoables.peek().undo();
+        assertEquals(original, label.text);
+        model.undoables.peek().redo();
+        assertEquals("abc", label.text);
+    }
+    
+    @Test
+    public void doesNotMergeAfterMergeTime() {
+        model.addUndoable(new TextUndoable(label, "a"), true, label, 0, BUDGET);
+        model.addUndoable(new TextUndoable(label, "ab"), true, label, MERGE_TIME + 1, BUDGET);
+        
+        assertEquals(2, model.undoables.size);
+        model.undoables.peek().undo();
+        assertEquals("a", label.text);
+    }
+    
+    @Test
+    public void doesNotMergeOtherPropertiesOrActors() {
+        model.addUndoable(new TextUndoable(label, "a"), true, label, 0, BUDGET);
+        model.addUndoable(new NameUndoable(label, "title"), true, label, 1, BUDGET);
+        model.addUndoable(new NameUndoable(otherLabel, "subtitle"), true, otherLabel, 2, BUDGET);
+        
+        assertEquals(3, model.undoables.size);
+    }
+    
+    @Test
+    public void doesNotMergeAcrossStructuralEdits() {
+        var table = createTable(1);
+        root.children.add(table);
+        model.addUndoable(new TextUndoable(label, "a"), true, label, 0, BUDGET);
+        model.addUndoable(new DeleteUndoable(table), false, label, 1, BUDGET);
+        model.addUndoable(new TextUndoable(label, "ab"), true, label, 2, BUDGET);
+        
+        assertEquals(3, model.undoables.size);
+    }
+    
+    @Test
+    public void estimatesDetachedSubtrees() {
+        var small = createTable(1);
+        var large = createTable(10);
+        assertTrue(model.estimateMemory(large) > model.estimateMemory(small));
+        
+        var text = new SimLabel();
+        text.text = "A much longer text that takes more memory than the default one";
+        assertTrue(model.estimateMemory(text) > model.estimateMemory(new SimLabel()));
+        
+        model.addUndoable(new TextUndoable(label, "a"), false, label, 0, BUDGET);
+        long editMemory = model.getMemoryUsed();
+        
+        root.children.add(large);
+        model.addUndoable(new DeleteUndoable(large), false, root, 1, BUDGET);
+        assertTrue(model.getMemoryUsed() - editMemory >= model.estimateMemory(large));
+    }
+    
+    @Test
+    public void attachedActorsDoNotCountTowardMemory() {
+        var table = createTable(10);
+        root.children.add(table);
+        model.addUndoable(new DeleteUndoable(table), false, root, 0, BUDGET);
+        long deleteMemory = model.getMemoryUsed();
+        
+        model.addUndoable(new TextUndoable(label, "a"), false, label, 1, BUDGET);
+        assertTrue(model.getMemoryUsed() - deleteMemory < model.estimateMemory(label));
+    }
+    
+    @Test
+    public void trimsOldestUndoablesOverBudget() {
+        var table = createTable(10);
+        root.children.add(table);
+        model.addUndoable(new DeleteUndoable(table), false, root, 0, BUDGET);
+        long budget = model.getMemoryUsed();
+        
+        model.addUndoable(new TextUndoable(label, "a"), false, label, 1, budget);
+        assertEquals(1, model.undoables.size);
+        assertTrue(model.undoables.peek() instanceof TextUndoable);
+        assertTrue(model.getMemoryUsed() < budget);
+        
+        //the latest undoable is kept even if it exceeds the budget on its own
+        model.addUndoable(new TextUndoable(label, "ab"), false, label, 2, 0);
+        assertEquals(1, model.undoables.size);
+        assertEquals("ab", label.text);
+    }
+}
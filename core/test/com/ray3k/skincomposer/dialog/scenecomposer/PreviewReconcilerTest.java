@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * MIT License
+ *
+ * Copyright (c) 2021 Raymond Buckley
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ ******************************************************************************/
+package com.ray3k.skincomposer.dialog.scenecomposer;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.ray3k.skincomposer.Main;
+import com.ray3k.skincomposer.data.ColorData;
+import com.ray3k.skincomposer.data.JsonData;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimLabel;
+import com.ray3k.skincomposer.dialog.scenecomposer.DialogSceneComposerModel.SimRootGroup;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PreviewReconcilerTest {
+    private PreviewReconciler reconciler;
+    private SimRootGroup root;
+    private SimLabel coloredLabel;
+    private SimLabel plainLabel;
+    private ColorData colorData;
+    
+    @Before
+    public void setUp() throws Exception {
+        //new labels look up their default style
+        Main.jsonData = new JsonData();
+        reconciler = new PreviewReconciler();
+        colorData = new ColorData("red", new Color(Color.RED));
+        
+        root = new SimRootGroup();
+        coloredLabel = createLabel();
+        coloredLabel.color = colorData;
+        plainLabel = createLabel();
+        root.children.add(coloredLabel, plainLabel);
+        root.previewActor = new Actor();
+        
+        reconciler.update(root, 0, false);
+    }
+    
+    @After
+    public void tearDown() {
+        Main.jsonData = null;
+    }
+    
+    private SimLabel createLabel() {
+        var label = new SimLabel();
+        label.parent = root;
+        label.previewActor = new Actor();
+        return label;
+    }
+    
+    @Test
+    public void firstUpdateMarksEverythingDirty() {
+        assertEquals(3, reconciler.getDirtyCount());
+        assertFalse(reconciler.isReusable(coloredLabel));
+    }
+    
+    @Test
+    public void unchangedTreeIsReusable() {
+        reconciler.update(root, 0, false);
+        
+        assertEquals(0, reconciler.getDirtyCount());
+        assertTrue(reconciler.isReusable(root));
+        assertTrue(reconciler.isReusable(coloredLabel));
+        assertTrue(reconciler.isReusable(plainLabel));
+    }
+    
+    @Test
+    public void changedFieldMarksActorAndAncestorsDirty() {
+        plainLabel.text = "changed";
+        reconciler.update(root, 0, false);
+        
+        assertFalse(reconciler.isReusable(plainLabel));
+        assertFalse(reconciler.isReusable(root));
+        assertTrue(reconciler.isReusable(coloredLabel));
+    }
+    
+    @Test
+    public void equalValuesAreNotChanges() {
+        plainLabel.text = new String(plainLabel.text);
+        reconciler.update(root, 0, false);
+        
+        assertTrue(reconciler.isReusable(plainLabel));
+    }
+    
+    @Test
+    public void resourceEditMarksReferencingActorsDirty() {
+        //the color is edited in place, so only the resource version reveals the change
+        colorData.color = new Color(Color.BLUE);
+        reconciler.update(root, 1, false);
+        
+        assertFalse(reconciler.isReusable(coloredLabel));
+        assertFalse(reconciler.isReusable(root));
+        assertTrue(reconciler.isReusable(plainLabel));
+        
+        reconciler.update(root, 1, false);
+        assertTrue(reconciler.isReusable(coloredLabel));
+    }
+    
+    @Test
+    public void replacedResourceMarksActorDirty() throws Exception {
+        coloredLabel.color = new ColorData("red", new Color(Color.RED));
+        reconciler.update(root, 0, false);
+        
+        assertFalse(reconciler.isReusable(coloredLabel));
+        assertTrue(reconciler.isReusable(plainLabel));
+    }
+    
+    @Test
+    public void removedChildMarksParentDirty() {
+        root.children.removeValue(plainLabel, true);
+        reconciler.update(root, 0, false);
+        
+        assertFalse(reconciler.isReusable(root));
+        assertTrue(reconciler.isReusable(coloredLabel));
+        assertFalse(reconciler.isReusable(plainLabel));
+    }
+    
+    @Test
+    public void invalidateAllMarksEverythingDirty() {
+        reconciler.update(root, 0, true);
+        
+        assertEquals(3, reconciler.getDirtyCount());
+        assertFalse(reconciler.isReusable(plainLabel));
+    }
+    
+    @Test
+    public void actorWithoutPreviewIsNotReusable() {
+        plainLabel.previewActor = null;
+        reconciler.update(root, 0, false);
+        
+        assertFalse(reconciler.isReusable(plainLabel));
+    }
+}
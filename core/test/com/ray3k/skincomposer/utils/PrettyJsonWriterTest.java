@@ -0,0 +1,201 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Raymond Buckley.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ray3k.skincomposer.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.JsonWriter.OutputType;
+import com.badlogic.gdx.utils.ObjectMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the output of PrettyJsonWriter with the output of the JsonWriter and Json.prettyPrint combination it
+ * replaced, using the sample projects bundled in assets/templates.
+ */
+public class PrettyJsonWriterTest {
+    private static final File TEMPLATES = new File("assets/templates");
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void matchesPrettyPrintForSampleSkins() throws IOException {
+        var samples = readSamples();
+        assertFalse("No sample skins found in " + TEMPLATES.getAbsolutePath(), samples.size == 0);
+        
+        for (var sample : samples) {
+            var root = new JsonReader().parse(sample.value);
+            for (var outputType : OutputType.values()) {
+                var expected = new StringWriter();
+                var jsonWriter = new JsonWriter(expected);
+                jsonWriter.setOutputType(outputType);
+                replay(root, jsonWriter);
+                jsonWriter.close();
+                
+                var actual = new StringWriter();
+                var prettyWriter = new PrettyJsonWriter(actual);
+                prettyWriter.setOutputType(outputType);
+                replay(root, prettyWriter);
+                prettyWriter.close();
+                
+                assertEquals(sample.key + " (" + outputType + ")", new Json(outputType).prettyPrint(expected.toString()), actual.toString());
+            }
+        }
+    }
+    
+    @Test
+    public void matchesPrettyPrintForNumberArrays() throws IOException {
+        var root = new JsonReader().parse("{ a: [ 1, 2.5, -3 ], b: [], c: [ 1, { d: 2 }, 3 ], e: [ [ 1, 2 ], [ 3 ] ], f: {} }");
+        for (var outputType : OutputType.values()) {
+            var expected = new StringWriter();
+            var jsonWriter = new JsonWriter(expected);
+            jsonWriter.setOutputType(outputType);
+            replay(root, jsonWriter);
+            jsonWriter.close();
+            
+            var actual = new StringWriter();
+            var prettyWriter = new PrettyJsonWriter(actual);
+            prettyWriter.setOutputType(outputType);
+            replay(root, prettyWriter);
+            prettyWriter.close();
+            
+            assertEquals(outputType.toString(), new Json(outputType).prettyPrint(expected.toString()), actual.toString());
+        }
+    }
+    
+    @Test
+    public void failedWriteLeavesFileUntouched() throws IOException {
+        var file = new FileHandle(folder.newFile("skin.json"));
+        file.writeString("original", false, "UTF-8");
+        
+        try {
+            Utils.writeFileSafely(file, output -> {
+                output.write("partial".getBytes(StandardCharsets.UTF_8));
+                throw new IOException("Simulated failure");
+            });
+            fail("The failure was not reported.");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        
+        assertEquals("original", file.readString("UTF-8"));
+        assertEquals("Temporary file was not removed.", 1, folder.getRoot().list().length);
+    }
+    
+    @Test
+    public void successfulWriteReplacesFile() throws IOException {
+        var file = new FileHandle(folder.newFile("skin.json"));
+        file.writeString("original", false, "UTF-8");
+        
+        Utils.writeFileSafely(file, output -> output.write("replaced".getBytes(StandardCharsets.UTF_8)));
+        
+        assertEquals("replaced", file.readString("UTF-8"));
+        assertEquals(1, folder.getRoot().list().length);
+    }
+    
+    /**
+     * Reads the project files of every template, including those inside zip archives.
+     * @return The contents of each project, keyed by name.
+     * @throws IOException
+     */
+    private static ObjectMap<String, String> readSamples() throws IOException {
+        var samples = new ObjectMap<String, String>();
+        var files = TEMPLATES.listFiles();
+        if (files == null) return samples;
+        
+        for (var file : files) {
+            if (file.getName().endsWith(".scmp")) {
+                samples.put(file.getName(), new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+            } else if (file.getName().endsWith(".zip")) {
+                try (var zip = new ZipInputStream(new FileInputStream(file))) {
+                    ZipEntry entry;
+                    while ((entry = zip.getNextEntry()) != null) {
+                        if (entry.getName().endsWith(".scmp") || entry.getName().endsWith(".json")) {
+                            samples.put(file.getName() + "/" + entry.getName(), readString(zip));
+                        }
+                    }
+                }
+            }
+        }
+        return samples;
+    }
+    
+    private static String readString(InputStream input) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var buffer = new byte[4096];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Writes the value with the same calls Json makes when it serializes an object.
+     * @param value
+     * @param writer
+     * @throws IOException
+     */
+    private static void replay(JsonValue value, JsonWriter writer) throws IOException {
+        if (value.name != null && value.parent != null && value.parent.isObject()) writer.name(value.name);
+        
+        if (value.isObject()) {
+            writer.object();
+            for (var child = value.child; child != null; child = child.next) replay(child, writer);
+            writer.pop();
+        } else if (value.isArray()) {
+            writer.array();
+            for (var child = value.child; child != null; child = child.next) replay(child, writer);
+            writer.pop();
+        } else if (value.isString()) {
+            writer.value(value.asString());
+        } else if (value.isDouble()) {
+            writer.value(value.asFloat());
+        } else if (value.isLong()) {
+            writer.value(value.asLong());
+        } else if (value.isBoolean()) {
+            writer.value(value.asBoolean());
+        } else {
+            writer.value(null);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Raymond Buckley.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ray3k.skincomposer.utils;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the pixel readers used by the image scans return the same RGBA8888 values as {@link Pixmap#getPixel(int,
+ * int)}.
+ */
+public class UtilsTest {
+    @BeforeClass
+    public static void loadNatives() {
+        GdxNativesLoader.load();
+    }
+    
+    @Test
+    public void readsRGBA8888() {
+        assertMatchesPixmap(Format.RGBA8888);
+    }
+    
+    @Test
+    public void readsRGB888() {
+        assertMatchesPixmap(Format.RGB888);
+    }
+    
+    @Test
+    public void readsRGBA4444() {
+        assertMatchesPixmap(Format.RGBA4444);
+    }
+    
+    @Test
+    public void readsRGB565() {
+        assertMatchesPixmap(Format.RGB565);
+    }
+    
+    @Test
+    public void readsAlpha() {
+        assertMatchesPixmap(Format.Alpha);
+    }
+    
+    @Test
+    public void readsLuminanceAlpha() {
+        assertMatchesPixmap(Format.LuminanceAlpha);
+    }
+    
+    @Test
+    public void readsIntensity() {
+        assertMatchesPixmap(Format.Intensity);
+    }
+    
+    /**
+     * Fills a pixmap that is wider than it is tall with distinct colors and compares every pixel.
+     * @param format
+     */
+    private static void assertMatchesPixmap(Format format) {
+        var pixmap = new Pixmap(7, 5, format);
+        try {
+            pixmap.setBlending(Pixmap.Blending.None);
+            for (int y = 0; y < pixmap.getHeight(); y++) {
+                for (int x = 0; x < pixmap.getWidth(); x++) {
+                    pixmap.drawPixel(x, y, (x * 37) << 24 | (y * 53) << 16 | (x * y * 11) << 8 | (255 - x * 19 - y * 7));
+                }
+            }
+            
+            var reader = Utils.pixelReader(pixmap);
+            for (int y = 0; y < pixmap.getHeight(); y++) {
+                for (int x = 0; x < pixmap.getWidth(); x++) {
+                    assertEquals(format + " pixel " + x + ", " + y, pixmap.getPixel(x, y), reader.getPixel(x, y));
+                }
+            }
+        } finally {
+            pixmap.dispose();
+        }
+    }
+}